@@ -0,0 +1,118 @@
+package gov.cms.esmd.benchmark;
+
+import gov.cms.esmd.bean.ErrorMessage;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * BenchmarkData
+ *
+ * Generates deterministic payloads shaped like real esMD traffic for the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+        // Utility class - prevent instantiation
+    }
+
+    static byte[] randomBytes(int size, Random random) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /** Text-like bytes that compress roughly as well as the XML/PDF mix found in esMD packages. */
+    static byte[] documentBytes(int size, Random random) {
+        byte[] bytes = new byte[size];
+        String words = "beneficiary provider claim procedure review decision affirmed non-affirmed "
+                + "<documentation> 2025-04-09T11:21:10 PT9993 ESMD2 ";
+        for (int i = 0; i < size; i++) {
+            bytes[i] = random.nextInt(8) == 0 ? (byte) random.nextInt(256) : (byte) words.charAt(random.nextInt(words.length()));
+        }
+        return bytes;
+    }
+
+    /** A status response carrying {@code count} details, each with two error messages. */
+    static NotificationResponse notificationResponse(int count) {
+        ArrayList<StatusDetail> details = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ArrayList<ErrorMessage> errors = new ArrayList<>();
+            errors.add(new ErrorMessage("E" + (100 + i % 50), "Validation Error", "Missing required document for line " + i));
+            errors.add(new ErrorMessage("E" + (200 + i % 20), "Other", "Reviewer note " + i));
+            StatusDetail detail = new StatusDetail(errors);
+            detail.setEsMDTransactionID(String.format("RUH%010dEC", i));
+            detail.setContenttypecd("9.1");
+            detail.setDeliveryType("WISER");
+            detail.setUniqueTrackingNumber(String.format("UTN%012d", i));
+            detail.setStatus(i % 3 == 0 ? "SUCCESS" : "FAILED");
+            detail.setStatusDescription("Status for transaction " + i);
+            details.add(detail);
+        }
+        NotificationResponse response = new NotificationResponse();
+        response.setSenderRoutingId("PT9993");
+        response.setMessage("Statuses retrieved");
+        response.setStatusDetails(details);
+        return response;
+    }
+
+    /**
+     * PA reject response JSON with {@code services} service lines and reject reason codes on every
+     * provider; when {@code valid} is false every other reason omits its text, so validation fails.
+     */
+    static String paRejectJson(int services, boolean valid) {
+        StringBuilder sb = new StringBuilder(1024 + services * 400);
+        sb.append("{\"notificationType\":\"PAREJECT\",\"senderRoutingId\":\"PT9993\",")
+          .append("\"esmdtransactionid\":\"RUH0007275137EC\",\"contractornumber\":\"11502\",")
+          .append("\"utn\":\"UTN000000000001\",\"subscriberid\":\"1EG4TE5MK73\",");
+        String[] providers = {"requester", "beneficiary", "patientevent", "facilityProvider", "orderingProvider",
+                "renderingOrSupplierProvider", "referringProvider", "operatingProvider", "attendingProvider"};
+        String[] qualifiers = {null, null, null, "FA", "DK", "SJ", "DN", "72", "71"};
+        for (int p = 0; p < providers.length; p++) {
+            sb.append('"').append(providers[p]).append("\":{");
+            if (qualifiers[p] != null) {
+                sb.append("\"qualifier\":\"").append(qualifiers[p]).append("\",");
+            }
+            sb.append("\"rejectreasoncodes\":[");
+            for (int r = 0; r < 3; r++) {
+                if (r > 0) sb.append(',');
+                sb.append("{\"rejectreasoncode\":\"").append(10 + r).append('"');
+                if (valid || r % 2 == 0) {
+                    sb.append(",\"rejectreason\":\"Reason ").append(r).append(" for ").append(providers[p]).append('"');
+                }
+                sb.append('}');
+            }
+            sb.append("]},");
+        }
+        sb.append("\"programreasoncode\":[\"GAA\",\"GAB\"],\"services\":[");
+        for (int i = 0; i < services; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"procedurecode\":\"").append(64400 + i).append("\",\"servicetracenumber\":\"STN")
+              .append(i).append("\",\"decisionindicator\":\"N\",\"reviewdecisionreasoncodes\":[\"3A\",\"3B\"],")
+              .append("\"programreasoncodes\":[\"GAA\"],\"modifiednoofunits\":\"").append(i % 5 + 1)
+              .append("\",\"modifieddateordaterange\":\"20250409-20250509\"}");
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    /** Writes a ZIP of {@code entries} document-like files of {@code entryBytes} each, spread over a few folders. */
+    static void writeZip(Path zipFile, int entries, int entryBytes, Random random) throws IOException {
+        try (OutputStream file = Files.newOutputStream(zipFile);
+             ZipOutputStream zip = new ZipOutputStream(file)) {
+            for (int i = 0; i < entries; i++) {
+                zip.putNextEntry(new ZipEntry("PT9993/batch" + (i % 8) + "/document-" + i + ".pdf"));
+                zip.write(documentBytes(entryBytes, random));
+                zip.closeEntry();
+            }
+        }
+    }
+}
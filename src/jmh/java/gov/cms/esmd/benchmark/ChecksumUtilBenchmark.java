@@ -0,0 +1,93 @@
+package gov.cms.esmd.benchmark;
+
+import gov.cms.esmd.utility.ChecksumUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChecksumUtilBenchmark
+ *
+ * Hashing throughput for request bodies and downloaded/uploaded files.
+ * - Payload sizes span a small JSON body (1 KiB), a typical letter (1 MiB) and a large package (64 MiB)
+ * - File benchmarks read from a temporary file, so they include the page-cache read cost
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChecksumUtilBenchmark {
+
+    @Param({"1024", "1048576", "67108864"})
+    public int payloadBytes;
+
+    private byte[] payload;
+    private Path file;
+    private String filePath;
+    private byte[] digest;
+    private String digestHex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payload = BenchmarkData.randomBytes(payloadBytes, new Random(42));
+        file = Files.createTempFile("esmd-checksum-bench", ".bin");
+        Files.write(file, payload);
+        filePath = file.toString();
+        digest = ChecksumUtil.decodeHexOrNull(ChecksumUtil.sha256Hex(payload));
+        digestHex = ChecksumUtil.toHex(digest);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String sha256HexBytes() {
+        return ChecksumUtil.sha256Hex(payload);
+    }
+
+    @Benchmark
+    public String sha256HexFile() {
+        return ChecksumUtil.sha256Hex(file);
+    }
+
+    @Benchmark
+    public String checkMD5() {
+        return ChecksumUtil.checkMD5(filePath);
+    }
+
+    /** The streaming file digest behind sha256Hex(Path) and checkMD5, via its public entry point. */
+    @Benchmark
+    public String digestFileSha256() {
+        return ChecksumUtil.digestHex("SHA-256", file);
+    }
+
+    @Benchmark
+    public String toHex() {
+        return ChecksumUtil.toHex(digest);
+    }
+
+    @Benchmark
+    public byte[] decodeHexOrNull() {
+        return ChecksumUtil.decodeHexOrNull(digestHex);
+    }
+}
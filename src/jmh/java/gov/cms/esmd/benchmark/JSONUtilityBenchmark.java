@@ -0,0 +1,71 @@
+package gov.cms.esmd.benchmark;
+
+import gov.cms.esmd.bean.parejectjson.PARejectResponseRoot;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.utility.JSONUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSONUtilityBenchmark
+ *
+ * Serialization cost of the status responses and PA reject notifications exchanged with esMD.
+ * - {@code size} is the number of status details in a NotificationResponse and the number of service
+ *   lines in a PA reject response: 1 (single letter), 100 (typical status poll), 5000 (mailbox backlog)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JSONUtilityBenchmark {
+
+    @Param({"1", "100", "5000"})
+    public int size;
+
+    private NotificationResponse notificationResponse;
+    private String notificationResponseJson;
+    private PARejectResponseRoot paReject;
+    private String paRejectJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        notificationResponse = BenchmarkData.notificationResponse(size);
+        notificationResponseJson = JSONUtility.serialize(notificationResponse);
+        paRejectJson = BenchmarkData.paRejectJson(size, true);
+        paReject = JSONUtility.deserialize(paRejectJson, PARejectResponseRoot.class);
+    }
+
+    @Benchmark
+    public String serializeNotificationResponse() {
+        return JSONUtility.serialize(notificationResponse);
+    }
+
+    @Benchmark
+    public NotificationResponse deserializeNotificationResponse() {
+        return JSONUtility.deserialize(notificationResponseJson, NotificationResponse.class);
+    }
+
+    @Benchmark
+    public String serializePARejectResponse() {
+        return JSONUtility.serialize(paReject);
+    }
+
+    @Benchmark
+    public PARejectResponseRoot deserializePARejectResponse() {
+        return JSONUtility.deserialize(paRejectJson, PARejectResponseRoot.class);
+    }
+}
@@ -0,0 +1,47 @@
+package gov.cms.esmd.benchmark;
+
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PropertiesUtilsBenchmark
+ *
+ * Configuration lookup cost.
+ * - {@code loadPropertiesCached} is what every client pays per call once the configuration is loaded
+ * - {@code loadPropertiesParse} reads and flattens api-properties.yml from the classpath, the first-use cost
+ * - {@code getIntProperty} is the typed lookup used for pool sizes, timeouts and limits
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertiesUtilsBenchmark {
+
+    @Benchmark
+    public Properties loadPropertiesCached() {
+        return PropertiesUtils.loadProperties();
+    }
+
+    @Benchmark
+    public Properties loadPropertiesParse() {
+        return PropertiesUtils.loadProperties(null);
+    }
+
+    @Benchmark
+    public int getIntProperty() {
+        return PropertiesUtils.getIntProperty("api.file-download.concurrency", 4);
+    }
+}
@@ -0,0 +1,63 @@
+package gov.cms.esmd.benchmark;
+
+import gov.cms.esmd.bean.parejectjson.PARejectResponseRoot;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.utility.JSONUtility;
+import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.ValidatorUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidatorUtilityBenchmark
+ *
+ * Cost of validating a PA reject response before it is sent.
+ * - {@code services} is the number of service lines: 1 (single service) or 50 (large multi-line request)
+ * - The valid payload passes; the invalid one omits every other reject reason, so each provider adds errors
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorUtilityBenchmark {
+
+    @Param({"1", "50"})
+    public int services;
+
+    private final ValidatorUtility validatorUtility = new ValidatorUtility();
+    private Properties properties;
+    private PARejectResponseRoot valid;
+    private PARejectResponseRoot invalid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        properties = PropertiesUtils.loadProperties();
+        valid = JSONUtility.deserialize(BenchmarkData.paRejectJson(services, true), PARejectResponseRoot.class);
+        invalid = JSONUtility.deserialize(BenchmarkData.paRejectJson(services, false), PARejectResponseRoot.class);
+    }
+
+    @Benchmark
+    public NotificationResponse validatePARejectResponseValid() {
+        return validatorUtility.validatePARejectResponse(valid, properties);
+    }
+
+    @Benchmark
+    public NotificationResponse validatePARejectResponseInvalid() {
+        return validatorUtility.validatePARejectResponse(invalid, properties);
+    }
+}
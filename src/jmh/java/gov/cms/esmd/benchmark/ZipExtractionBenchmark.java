@@ -0,0 +1,75 @@
+package gov.cms.esmd.benchmark;
+
+import gov.cms.esmd.utility.ZipUtils;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ZipExtractionBenchmark
+ *
+ * Extraction of downloaded esMD packages, as done by DownloadImpl after each download.
+ * - {@code shape} is entries x bytes per entry: a few large documents, a typical package, many small files
+ * - {@code extractParallel} is the path DownloadImpl uses ({@code api.file-download.extract-threads});
+ *   {@code extractSequential} is the single-stream path used while a download is streamed
+ * - Each invocation extracts over the files of the previous one, as a re-download would
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZipExtractionBenchmark {
+
+    @Param({"8x8388608", "64x262144", "2000x4096"})
+    public String shape;
+
+    @Param({"4"})
+    public int threads;
+
+    private Path workDir;
+    private Path zipFile;
+    private Path targetDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] parts = shape.split("x");
+        workDir = Files.createTempDirectory("esmd-zip-bench");
+        zipFile = workDir.resolve("package.zip");
+        targetDir = workDir.resolve("extracted");
+        BenchmarkData.writeZip(zipFile, Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), new Random(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workDir.toFile());
+    }
+
+    @Benchmark
+    public int extractSequential() throws IOException {
+        return ZipUtils.extract(zipFile, targetDir);
+    }
+
+    @Benchmark
+    public ZipUtils.ExtractionResult extractParallel() throws IOException, InterruptedException {
+        return ZipUtils.extractParallel(zipFile, targetDir, threads);
+    }
+}
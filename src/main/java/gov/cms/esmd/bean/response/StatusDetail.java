@@ -22,6 +22,14 @@ public class StatusDetail {
         this.uniqueTrackingNumber = uniqueTrackingNumber;
     }
 
+    public BeneInformation getBeneInformation() {
+        return beneInformation;
+    }
+
+    public void setBeneInformation(BeneInformation beneInformation) {
+        this.beneInformation = beneInformation;
+    }
+
     public String getUniqueId() {
         return uniqueId;
     }
@@ -1,27 +1,54 @@
 package gov.cms.esmd.notifications;
 
+import gov.cms.esmd.bean.ErrorMessage;
 import gov.cms.esmd.bean.auth.AuthInfoBean;
 import gov.cms.esmd.bean.auth.response.AuthResponse;
 import gov.cms.esmd.bean.response.NotificationResponse;
-import gov.cms.esmd.rc.api.client.AuthApiClient;
+import gov.cms.esmd.bean.response.StatusDetail;
+import gov.cms.esmd.rc.api.client.AuthTokenCache;
 import gov.cms.esmd.rc.api.client.StatusApiClient;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.EsmdConfig;
 import gov.cms.esmd.utility.PropertiesUtils;
 import gov.cms.esmd.utility.ValidatorUtility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Properties;
+import org.apache.http.client.HttpResponseException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class StatusImpl {
     private static final Logger log = LoggerFactory.getLogger(StatusImpl.class);
 
+    private static final String KEY_BATCH_CONCURRENCY = "api.status.batch.concurrency";
+    private static final int DEF_BATCH_CONCURRENCY = 8;
+
+    // Lookups currently running, keyed by environment and transaction ID; shared so that
+    // concurrent batches asking for the same transaction wait on one request
+    private static final Map<String, CompletableFuture<NotificationResponse>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /** Retrieves the latest status for one transaction ID. */
+    interface TransactionLookup {
+        NotificationResponse retrieve(String esMDTransactionId);
+    }
+
     // Retrieves the latest status by transaction ID
     public NotificationResponse retrieveLatestStatusByTransactionId(String esMDTransactionId, AuthInfoBean authInfo, String environment) {
         try {
             log.info("Start StatusImpl:retrieveLatestStatusByTransactionId(esMDTransactionId, authInfo, environment)");
 
-            // Initialize Properties and ValidatorUtility
-            Properties properties = PropertiesUtils.loadProperties();
+            // Initialize configuration and ValidatorUtility
+            EsmdConfig config = EsmdConfig.get();
             ValidatorUtility validatorUtility = new ValidatorUtility();
             // Validate authInfo metadata contains userid, password, clientid, clientsecret
             NotificationResponse notificationResponse = validatorUtility.validateAuthInfo(authInfo);
@@ -30,18 +57,14 @@ public class StatusImpl {
             }
 
             // Get required properties from the configuration file
-            String scope = properties.getProperty("api.scope.status");
-            String mailboxid = properties.getProperty("userinfo.mailboxid");
-            String baseUrl = (environment != null && environment.contains("PROD"))
-                    ? properties.getProperty("api.environment.prod") : properties.getProperty("api.environment.uat");
-            String url = properties.getProperty("api.url.notification-status");
-            url = baseUrl + url;
+            String scope = config.getStatusScope();
+            String mailboxid = config.getMailboxId();
+            String url = config.endpoints(statusEnvironment(environment)).getStatusUrl();
             //String authUrl = properties.getProperty("api.url.auth");
             //authUrl = baseUrl + authUrl;
 
             // Get authentication token
-            AuthApiClient authApiClient = new AuthApiClient(environment);
-            AuthResponse authResponse = authApiClient.getToken(scope);
+            AuthResponse authResponse = AuthTokenCache.getInstance().getToken(environment, scope);
 
             if (authResponse == null) {
                 return validatorUtility.generateResponseForNull();
@@ -65,5 +88,127 @@ public class StatusImpl {
             throw new IllegalStateException("An error occurred while retrieving status.", ex);
         }
     }
-}
 
+    // Retrieves the latest statuses for many transaction IDs concurrently, using one token and one client
+    public Map<String, NotificationResponse> retrieveLatestStatusesByTransactionIds(Collection<String> esMDTransactionIds,
+                                                                                AuthInfoBean authInfo, String environment) {
+        if (esMDTransactionIds == null) {
+            throw new IllegalArgumentException("esMDTransactionIds cannot be null");
+        }
+        log.info("Start StatusImpl:retrieveLatestStatusesByTransactionIds({} ids, authInfo, environment)", esMDTransactionIds.size());
+
+        EsmdConfig config = EsmdConfig.get();
+        ValidatorUtility validatorUtility = new ValidatorUtility();
+        NotificationResponse invalidAuthInfo = validatorUtility.validateAuthInfo(authInfo);
+        if (invalidAuthInfo != null) {
+            return sameResponseForAll(esMDTransactionIds, invalidAuthInfo);
+        }
+
+        String scope = config.getStatusScope();
+        String mailboxid = config.getMailboxId();
+        String url = config.endpoints(statusEnvironment(environment)).getStatusUrl();
+
+        // Fail fast on authentication before fanning out
+        AuthTokenCache tokenCache = AuthTokenCache.getInstance();
+        AuthResponse authResponse = tokenCache.getToken(environment, scope);
+        if (authResponse == null) {
+            return sameResponseForAll(esMDTransactionIds, validatorUtility.generateResponseForNull());
+        } else if (authResponse.getAccess_token() == null && authResponse.getError() != null) {
+            return sameResponseForAll(esMDTransactionIds, validatorUtility.generateResponseWithErrorMsg(authResponse.getError()));
+        }
+
+        StatusApiClient statusApiClient = new StatusApiClient(url);
+        TransactionLookup lookup = esMDTransactionId -> {
+            try {
+                return statusApiClient.retrieveLatestStatusByTransactionId(esMDTransactionId, mailboxid,
+                        tokenCache.getToken(environment, scope).getAccess_token(), url);
+            } catch (IllegalStateException ex) {
+                if (!(ex.getCause() instanceof HttpResponseException)
+                        || ((HttpResponseException) ex.getCause()).getStatusCode() != 401) {
+                    throw ex;
+                }
+                // Token rejected: drop it and retry once with a fresh one
+                tokenCache.invalidate(environment, scope);
+                return statusApiClient.retrieveLatestStatusByTransactionId(esMDTransactionId, mailboxid,
+                        tokenCache.getToken(environment, scope).getAccess_token(), url);
+            }
+        };
+
+        Map<String, NotificationResponse> responses = retrieveConcurrently(esMDTransactionIds, environment, lookup,
+                PropertiesUtils.getIntProperty(KEY_BATCH_CONCURRENCY, DEF_BATCH_CONCURRENCY));
+        log.info("End StatusImpl:retrieveLatestStatusesByTransactionIds({} ids, authInfo, environment)", responses.size());
+        return responses;
+    }
+
+    // Status lookups go to the prod gateway for PROD environments and to uat for everything else
+    private static String statusEnvironment(String environment) {
+        return environment != null && environment.contains("PROD") ? "prod" : "uat";
+    }
+
+    /**
+     * Runs the lookups on at most {@code parallelism} threads and returns one response per distinct
+     * transaction ID, in input order. A lookup already running for the same environment and ID, in this
+     * batch or another, is joined instead of being sent again. A failed lookup is reported as a FAILED
+     * status for its ID and does not affect the others.
+     */
+    Map<String, NotificationResponse> retrieveConcurrently(Collection<String> esMDTransactionIds, String environment,
+                                                           TransactionLookup lookup, int parallelism) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(esMDTransactionIds));
+        List<NotificationResponse> results;
+        try {
+            results = ConcurrencyUtils.invokeAllInOrder(ids, parallelism, "esmd-status",
+                    id -> coalesced(environment + "|" + id, () -> lookup.retrieve(id)),
+                    (id, error) -> failedResponse(id, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrieving statuses", ie);
+        }
+
+        Map<String, NotificationResponse> responses = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            responses.put(ids.get(i), results.get(i));
+        }
+        return responses;
+    }
+
+    private static NotificationResponse coalesced(String key, Supplier<NotificationResponse> call) {
+        CompletableFuture<NotificationResponse> mine = new CompletableFuture<>();
+        CompletableFuture<NotificationResponse> existing = IN_FLIGHT.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            NotificationResponse response = call.get();
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            IN_FLIGHT.remove(key, mine);
+        }
+    }
+
+    private static NotificationResponse failedResponse(String esMDTransactionId, Throwable error) {
+        List<ErrorMessage> errorMessages = new ArrayList<>();
+        errorMessages.add(new ErrorMessage("STATUS_LOOKUP_FAILED", "Status Error",
+                "Failed to retrieve status for esMD transaction ID " + esMDTransactionId + ": " + error.getMessage()));
+        StatusDetail statusDetail = new StatusDetail(errorMessages);
+        statusDetail.setEsMDTransactionID(esMDTransactionId);
+
+        NotificationResponse response = new NotificationResponse();
+        response.setStatusDetails(new ArrayList<>());
+        response.getStatusDetails().add(statusDetail);
+        return response;
+    }
+
+    private static Map<String, NotificationResponse> sameResponseForAll(Collection<String> esMDTransactionIds,
+                                                                        NotificationResponse response) {
+        Map<String, NotificationResponse> responses = new LinkedHashMap<>();
+        for (String id : esMDTransactionIds) {
+            responses.put(id, response);
+        }
+        return responses;
+    }
+}
@@ -2,14 +2,11 @@ package gov.cms.esmd.rc.api.client;
 
 import gov.cms.esmd.bean.auth.response.AuthResponse;
 import gov.cms.esmd.bean.auth.response.ErrorResponse;
+import gov.cms.esmd.utility.EsmdConfig;
 import gov.cms.esmd.utility.JSONUtility;
-import gov.cms.esmd.utility.PropertiesUtils;
 import gov.cms.esmd.utility.SecurityUtils;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,13 +14,13 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Properties;
+import java.util.Objects;
 
 /**
  * AuthApiClient
  *
  * Obtains OAuth tokens from the esMD Auth API.
- * - Uses HttpClient 4.x with configurable timeouts
+ * - Uses the shared pooled HttpTransport with configurable per-request timeouts
  * - Validates required inputs & properties
  * - Never logs secrets; logs only masked identifiers
  * - On non-200, returns an AuthResponse with an error message
@@ -33,59 +30,54 @@ public class AuthApiClient implements Closeable {
 
     private static final Logger log = LoggerFactory.getLogger(AuthApiClient.class);
 
-    // Property keys
-    private static final String KEY_ENV_PREFIX     = "api.environment.";
-    private static final String KEY_AUTH_ENDPOINT  = "api.url.auth";
-    private static final String KEY_MAILBOX_ID     = "userinfo.mailboxid";
-    private static final String KEY_CLIENT_ID      = "userinfo.clientid";
-    private static final String KEY_CLIENT_SECRET  = "userinfo.clientsecret";
-
-    // Optional timeout keys (ms)
-    private static final String KEY_CONNECT_TIMEOUT = "http.connect.timeout.ms";
-    private static final String KEY_SOCKET_TIMEOUT  = "http.socket.timeout.ms";
-    private static final String KEY_CONN_REQ_TIMEOUT= "http.connection.request.timeout.ms";
-
     // Defaults
     private static final int DEF_CONNECT_TIMEOUT_MS = 10_000;
     private static final int DEF_SOCKET_TIMEOUT_MS  = 30_000;
     private static final int DEF_CONN_REQ_TIMEOUT_MS= 10_000;
 
     // HTTP
-    private final CloseableHttpClient httpClient;
+    private final HttpTransport transport;
+    private final RequestConfig requestConfig;
 
     // Config
-    private final Properties apiProperties;
+    private final EsmdConfig config;
     private final String authUrl;
     private final String mailboxId;
     private final String clientId;
     private final String clientSecret;
 
+    /** Construct using the current {@link EsmdConfig} snapshot. */
     public AuthApiClient(String env) {
-        SecurityUtils.validateAlphanumeric(env, "Environment");
+        this(EsmdConfig.get(), env);
+    }
 
-        this.apiProperties = PropertiesUtils.loadProperties();
-        String baseUrl   = getRequiredProp(KEY_ENV_PREFIX + env, "Missing base URL for env='" + env + "'");
-        String endpoint  = getRequiredProp(KEY_AUTH_ENDPOINT, "Missing auth endpoint property");
-        this.authUrl     = baseUrl.trim() + endpoint.trim();
+    /**
+     * Construct from a configuration snapshot.
+     *
+     * @param config the configuration snapshot
+     * @param env environment key (e.g., "dev", "prod")
+     * @throws IllegalStateException if the environment is not configured
+     */
+    public AuthApiClient(EsmdConfig config, String env) {
+        SecurityUtils.validateAlphanumeric(env, "Environment");
 
-        this.mailboxId   = getRequiredProp(KEY_MAILBOX_ID, "Missing mailbox id property");
-        this.clientId    = getRequiredProp(KEY_CLIENT_ID, "Missing client id property");
-        this.clientSecret= getRequiredProp(KEY_CLIENT_SECRET, "Missing client secret property");
+        this.config      = Objects.requireNonNull(config, "config");
+        this.authUrl     = config.endpoints(env).getAuthUrl();
+        this.mailboxId   = config.getMailboxId();
+        this.clientId    = config.getClientId();
+        this.clientSecret= config.getClientSecret();
 
-        int connectTimeout = getIntProp(KEY_CONNECT_TIMEOUT, DEF_CONNECT_TIMEOUT_MS);
-        int socketTimeout  = getIntProp(KEY_SOCKET_TIMEOUT,  DEF_SOCKET_TIMEOUT_MS);
-        int connReqTimeout = getIntProp(KEY_CONN_REQ_TIMEOUT, DEF_CONN_REQ_TIMEOUT_MS);
+        int connectTimeout = config.getHttpConnectTimeoutMs(DEF_CONNECT_TIMEOUT_MS);
+        int socketTimeout  = config.getHttpSocketTimeoutMs(DEF_SOCKET_TIMEOUT_MS);
+        int connReqTimeout = config.getHttpConnectionRequestTimeoutMs(DEF_CONN_REQ_TIMEOUT_MS);
 
-        RequestConfig rc = RequestConfig.custom()
+        this.requestConfig = RequestConfig.custom()
                 .setConnectTimeout(connectTimeout)
                 .setSocketTimeout(socketTimeout)                // HttpClient 4.x
                 .setConnectionRequestTimeout(connReqTimeout)
                 .build();
 
-        this.httpClient = HttpClients.custom()
-                .setDefaultRequestConfig(rc)
-                .setRetryHandler(new DefaultHttpRequestRetryHandler(0, false))
-                .build();
+        this.transport = HttpTransport.getShared();
 
         log.info("AuthApiClient initialized: env={}, url={}", env, authUrl);
     }
@@ -102,6 +94,7 @@ public class AuthApiClient implements Closeable {
         log.debug("Auth token request: mailboxId={}, clientId={}", mailboxId, mask(clientId));
 
         HttpPost request = new HttpPost(authUrl);
+        request.setConfig(requestConfig);
         request.addHeader("Content-Type", "application/json");
         request.addHeader("clientid", clientId);
         request.addHeader("clientsecret", clientSecret);
@@ -113,7 +106,7 @@ public class AuthApiClient implements Closeable {
         request.addHeader("Accept", "application/json");
 
         try {
-            try (org.apache.http.client.methods.CloseableHttpResponse response = httpClient.execute(request)) {
+            try (org.apache.http.client.methods.CloseableHttpResponse response = transport.execute(RetryPolicy.Operation.AUTH, request)) {
                 int status = response.getStatusLine().getStatusCode();
                 String body = (response.getEntity() != null)
                         ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)
@@ -153,9 +146,14 @@ public class AuthApiClient implements Closeable {
         }
     }
 
+    /** The configuration snapshot this client was built from. */
+    EsmdConfig getConfig() {
+        return config;
+    }
+
     @Override
     public void close() throws IOException {
-        httpClient.close();
+        // Connections belong to the shared HttpTransport pool; nothing to release per client
     }
 
     /* ============================== Helpers ============================== */
@@ -168,24 +166,6 @@ public class AuthApiClient implements Closeable {
         }
     }
 
-    private String getRequiredProp(String key, String err) {
-        String v = apiProperties.getProperty(key);
-        if (isBlank(v)) throw new IllegalStateException(err + " [" + key + "]");
-        return v.trim();
-    }
-
-    private int getIntProp(String key, int def) {
-        String v = apiProperties.getProperty(key);
-        if (isBlank(v)) return def;
-        try {
-            return Integer.parseInt(v.trim());
-        } catch (NumberFormatException nfe) {
-            log.warn("Invalid integer for {}='{}'; using default {}", key, v, def);
-            return def;
-        }
-    }
-
-
     private static boolean isBlank(String s) {
         return s == null || s.trim().isEmpty();
     }
@@ -0,0 +1,266 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.bean.auth.response.AuthResponse;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * AuthTokenCache
+ *
+ * Thread-safe cache of esMD OAuth tokens keyed by (env, scope, mailboxid).
+ * - Honors {@code expires_in} from the {@link AuthResponse}; falls back to a configured TTL when absent
+ * - Refreshes tokens in the background shortly before they expire, as long as they are still in use
+ * - Concurrent callers for the same key share a single in-flight request to the auth endpoint
+ * - Error responses (non-200) are returned to the caller as-is and never cached
+ */
+public final class AuthTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenCache.class);
+
+    // Property keys
+    private static final String KEY_DEFAULT_TTL       = "api.auth.token-cache.default-ttl-seconds";
+    private static final String KEY_REFRESH_AHEAD     = "api.auth.token-cache.refresh-ahead-seconds";
+
+    // Defaults
+    private static final int DEF_DEFAULT_TTL_SECONDS   = 300;
+    private static final int DEF_REFRESH_AHEAD_SECONDS = 60;
+
+    // A cached token is never handed out when it has less than this left
+    private static final long MIN_REMAINING_MS = 5_000;
+
+    private static final AuthTokenCache INSTANCE = new AuthTokenCache(
+            new AuthApiClientFetcher(),
+            () -> EsmdConfig.get().getMailboxId(),
+            TimeUnit.SECONDS.toMillis(PropertiesUtils.getIntProperty(KEY_DEFAULT_TTL, DEF_DEFAULT_TTL_SECONDS)),
+            TimeUnit.SECONDS.toMillis(PropertiesUtils.getIntProperty(KEY_REFRESH_AHEAD, DEF_REFRESH_AHEAD_SECONDS)),
+            System::currentTimeMillis);
+
+    /** Obtains a fresh token from the auth endpoint. */
+    interface TokenFetcher {
+        AuthResponse fetch(String env, String scope);
+    }
+
+    private final TokenFetcher fetcher;
+    private final Supplier<String> mailboxIdSupplier;
+    private final long defaultTtlMs;
+    private final long refreshAheadMs;
+    private final LongSupplier clock;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<AuthResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher =
+            Executors.newSingleThreadScheduledExecutor(ConcurrencyUtils.namedThreadFactory("esmd-token-refresh", true));
+
+    AuthTokenCache(TokenFetcher fetcher, Supplier<String> mailboxIdSupplier,
+                   long defaultTtlMs, long refreshAheadMs, LongSupplier clock) {
+        this.fetcher = Objects.requireNonNull(fetcher, "fetcher");
+        this.mailboxIdSupplier = Objects.requireNonNull(mailboxIdSupplier, "mailboxIdSupplier");
+        this.defaultTtlMs = defaultTtlMs;
+        this.refreshAheadMs = refreshAheadMs;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /** Shared, process-wide cache used by all orchestrators. */
+    public static AuthTokenCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get an access token for the requested environment and scope, reusing a cached one when still valid.
+     *
+     * @param env   environment key (e.g., "dev", "prod")
+     * @param scope required API scope (e.g., "wiser/download")
+     * @return AuthResponse; on HTTP non-200 returns an (uncached) object with error set
+     * @throws IllegalStateException on I/O errors or a malformed success body
+     */
+    public AuthResponse getToken(String env, String scope) {
+        SecurityUtils.validateAlphanumeric(env, "Environment");
+        SecurityUtils.validateNotNullOrEmpty(scope, "Scope");
+
+        Key key = new Key(env, scope, mailboxIdSupplier.get());
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - now > MIN_REMAINING_MS) {
+            entry.lastAccess = now;
+            log.debug("Auth token cache hit: env={}, scope={}", env, scope);
+            return entry.response;
+        }
+
+        log.debug("Auth token cache miss: env={}, scope={}", env, scope);
+        return refresh(key);
+    }
+
+    /** Drop the cached token for the given environment and scope (e.g., after a 401). */
+    public void invalidate(String env, String scope) {
+        Key key = new Key(env, scope, mailboxIdSupplier.get());
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            removed.cancelRefresh();
+        }
+    }
+
+    /** Drop all cached tokens. */
+    public void invalidateAll() {
+        entries.values().forEach(Entry::cancelRefresh);
+        entries.clear();
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private AuthResponse refresh(Key key) {
+        CompletableFuture<AuthResponse> mine = new CompletableFuture<>();
+        CompletableFuture<AuthResponse> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            log.debug("Joining in-flight auth request: env={}, scope={}", key.env, key.scope);
+            return await(existing);
+        }
+
+        try {
+            AuthResponse response = fetcher.fetch(key.env, key.scope);
+            if (isUsable(response)) {
+                store(key, response);
+            }
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException re) {
+            mine.completeExceptionally(re);
+            throw re;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void store(Key key, AuthResponse response) {
+        long now = clock.getAsLong();
+        long ttl = response.getExpires_in() > 0
+                ? TimeUnit.SECONDS.toMillis(response.getExpires_in())
+                : defaultTtlMs;
+        Entry entry = new Entry(response, now + ttl, now);
+
+        // Refresh ahead of expiry, but never more than half-way through the token lifetime
+        long delay = ttl - Math.min(refreshAheadMs, ttl / 2);
+        entry.scheduledRefresh = refresher.schedule(() -> refreshInBackground(key, entry), delay, TimeUnit.MILLISECONDS);
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            previous.cancelRefresh();
+        }
+        log.debug("Auth token cached: env={}, scope={}, ttlMs={}", key.env, key.scope, ttl);
+    }
+
+    private void refreshInBackground(Key key, Entry entry) {
+        if (entries.get(key) != entry) {
+            return; // superseded or invalidated
+        }
+        // Only keep refreshing tokens that were used since they were issued
+        if (entry.lastAccess <= entry.issuedAt) {
+            log.debug("Auth token unused since issue; letting it expire: env={}, scope={}", key.env, key.scope);
+            return;
+        }
+        try {
+            AuthResponse response = refresh(key);
+            if (!isUsable(response)) {
+                log.warn("Background auth token refresh failed: env={}, scope={}, error={}",
+                        key.env, key.scope, response == null ? "null response" : response.getError());
+            }
+        } catch (RuntimeException re) {
+            log.warn("Background auth token refresh failed: env={}, scope={}: {}", key.env, key.scope, re.getMessage());
+        }
+    }
+
+    private static AuthResponse await(CompletableFuture<AuthResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ce) {
+            Throwable cause = ce.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Auth token request failed", cause);
+        }
+    }
+
+    private static boolean isUsable(AuthResponse response) {
+        return response != null
+                && (response.getError() == null || response.getError().trim().isEmpty())
+                && response.getAccess_token() != null
+                && !response.getAccess_token().trim().isEmpty();
+    }
+
+    private static final class Key {
+        private final String env;
+        private final String scope;
+        private final String mailboxId;
+
+        private Key(String env, String scope, String mailboxId) {
+            this.env = env;
+            this.scope = scope;
+            this.mailboxId = mailboxId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return env.equals(other.env) && scope.equals(other.scope) && Objects.equals(mailboxId, other.mailboxId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(env, scope, mailboxId);
+        }
+    }
+
+    private static final class Entry {
+        private final AuthResponse response;
+        private final long expiresAt;
+        private final long issuedAt;
+        private volatile long lastAccess;
+        private volatile ScheduledFuture<?> scheduledRefresh;
+
+        private Entry(AuthResponse response, long expiresAt, long issuedAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+            this.issuedAt = issuedAt;
+            this.lastAccess = issuedAt;
+        }
+
+        private void cancelRefresh() {
+            ScheduledFuture<?> f = scheduledRefresh;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+    }
+
+    /** Production fetcher: one {@link AuthApiClient} per environment, reused across refreshes. */
+    private static final class AuthApiClientFetcher implements TokenFetcher {
+        private final Map<String, AuthApiClient> clients = new ConcurrentHashMap<>();
+
+        @Override
+        public AuthResponse fetch(String env, String scope) {
+            // Rebuild the client when the configuration snapshot has been reloaded
+            EsmdConfig config = EsmdConfig.get();
+            return clients.compute(env, (key, client) ->
+                    client != null && client.getConfig() == config ? client : new AuthApiClient(config, key))
+                    .getToken(scope);
+        }
+    }
+}
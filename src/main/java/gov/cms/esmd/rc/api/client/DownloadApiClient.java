@@ -2,16 +2,21 @@ package gov.cms.esmd.rc.api.client;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import gov.cms.esmd.bean.response.DownloadObject;
 import gov.cms.esmd.bean.response.DownloadResponse;
 import gov.cms.esmd.bean.response.PresignedUrlResponse;
-import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.JsonCodec;
+import gov.cms.esmd.utility.JsonStreamUtils;
+import gov.cms.esmd.utility.ZipUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,12 +24,19 @@ import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * DownloadApiClient handles file download operations from esMD system.
@@ -42,33 +54,55 @@ public class DownloadApiClient implements AutoCloseable {
     // HTTP Status Codes
     private static final int HTTP_OK = 200;
     private static final int HTTP_ACCEPTED = 202;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
 
-    // Configuration properties
-    private final Properties apiProperties;
-    private final CloseableHttpClient httpClient;
+    // Resumable download settings
+    private static final String PART_SUFFIX = ".part";
+    private static final String STAGING_PREFIX = ".extract-";
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+    // Configuration
+    private final EsmdConfig config;
+    private final HttpTransport transport;
     private final String downloadURL;
     private final String senderRoutingID;
+    private final String scope;
     private final String environment;
 
     // Gson instance for JSON processing
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonCodec.gson();
 
     /**
-     * Constructs a new DownloadApiClient for the specified environment.
+     * Constructs a new DownloadApiClient for the specified environment using the current
+     * {@link EsmdConfig} snapshot.
      *
      * @param env the environment (dev, val, uat, prod)
      * @throws IllegalArgumentException if environment is null or empty
      * @throws IllegalStateException if configuration cannot be loaded
      */
     public DownloadApiClient(String env) {
+        this(EsmdConfig.get(), env);
+    }
+
+    /**
+     * Constructs a new DownloadApiClient for the specified environment from a configuration snapshot.
+     *
+     * @param config the configuration snapshot
+     * @param env the environment (dev, val, uat, prod)
+     * @throws IllegalArgumentException if environment is null or empty
+     * @throws IllegalStateException if the environment is not configured
+     */
+    public DownloadApiClient(EsmdConfig config, String env) {
         validateEnvironment(env);
         this.environment = env;
 
         try {
-            this.apiProperties = PropertiesUtils.loadProperties();
-            this.httpClient = HttpClients.createDefault();
-            this.downloadURL = buildDownloadURL(env);
-            this.senderRoutingID = getSenderRoutingID();
+            this.config = Objects.requireNonNull(config, "config");
+            this.transport = HttpTransport.getShared();
+            this.downloadURL = config.endpoints(env).getDownloadUrl();
+            this.senderRoutingID = config.getMailboxId();
+            this.scope = config.getDownloadScope();
 
             logger.info("DownloadApiClient initialized successfully for environment: {}", env);
         } catch (Exception e) {
@@ -92,10 +126,41 @@ public class DownloadApiClient implements AutoCloseable {
 
         logger.info("Retrieving file list for user: {} in environment: {}", uid, environment);
 
-        try (CloseableHttpClient httpClient = HttpClientBuilder.create().build()) {
-            HttpGet request = createFileListRequest(token, uid);
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                return processFileListResponse(response);
+        HttpGet request = createFileListRequest(token, uid);
+        try (CloseableHttpResponse response = transport.execute(RetryPolicy.Operation.LIST_OBJECTS, request)) {
+            return processFileListResponse(response);
+        } catch (Exception e) {
+            logger.error("Failed to retrieve file list for user: {} in environment: {}", uid, environment, e);
+            throw new IllegalStateException("Failed to retrieve file list", e);
+        }
+    }
+
+    /**
+     * Retrieves the list of files available for download, handing each file to the consumer as soon as
+     * it is parsed from the response stream instead of collecting them into a list.
+     *
+     * @param token authentication token
+     * @param uid user identifier
+     * @param fileConsumer receives each listed file in response order
+     * @return DownloadResponse with status and message; its objects list is not populated
+     * @throws IllegalArgumentException if token or uid is null or empty
+     * @throws IllegalStateException if the API call fails
+     */
+    public DownloadResponse forEachFile(String token, String uid, Consumer<DownloadObject> fileConsumer) {
+        validateInputs(token, uid);
+        Objects.requireNonNull(fileConsumer, "fileConsumer");
+
+        logger.info("Streaming file list for user: {} in environment: {}", uid, environment);
+
+        HttpGet request = createFileListRequest(token, uid);
+        try (CloseableHttpResponse response = transport.execute(RetryPolicy.Operation.LIST_OBJECTS, request)) {
+            HttpEntity entity = checkFileListStatus(response);
+            try {
+                return JsonStreamUtils.readEnvelope(entity, DownloadResponse.class, "objects",
+                        DownloadObject.class, gson, fileConsumer);
+            } catch (JsonSyntaxException e) {
+                logger.error("Failed to parse file list response", e);
+                throw new JsonSyntaxException("Invalid JSON response for file list", e);
             }
         } catch (Exception e) {
             logger.error("Failed to retrieve file list for user: {} in environment: {}", uid, environment, e);
@@ -119,12 +184,9 @@ public class DownloadApiClient implements AutoCloseable {
 
         logger.info("Retrieving presigned URL for key: {} and user: {} in environment: {}", key, uid, environment);
 
-        try (CloseableHttpClient httpClient = HttpClientBuilder.create().build()) {
-            HttpGet request = createPresignedUrlRequest(key, token, uid);
-
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                return processPresignedUrlResponse(response);
-            }
+        HttpGet request = createPresignedUrlRequest(key, token, uid);
+        try (CloseableHttpResponse response = transport.execute(RetryPolicy.Operation.PRESIGN, request)) {
+            return processPresignedUrlResponse(response);
         } catch (Exception e) {
             logger.error("Failed to retrieve presigned URL for key: {} and user: {} in environment: {}", key, uid, environment, e);
             throw new IllegalStateException("Failed to retrieve presigned URL", e);
@@ -142,6 +204,29 @@ public class DownloadApiClient implements AutoCloseable {
      * @throws IllegalStateException if the download fails
      */
     public boolean downloadFileWithPresignedURL(String presignedURL, String localFilePath, String token) {
+        return downloadFileWithPresignedURL(presignedURL, localFilePath, token, -1L);
+    }
+
+    /**
+     * Downloads a file using the provided presigned URL, resuming after network failures.
+     * Bytes are written to {@code <localFilePath>.part}; when a transfer breaks off, the remaining
+     * bytes are re-requested with an HTTP {@code Range} header, up to
+     * {@code api.file-download.resume-attempts} times. The part file is moved into place only once
+     * it is complete and, when {@code expectedSize} is known, its size matches.
+     * Objects of at least {@code api.file-download.segment-threshold-bytes} are fetched as
+     * {@code api.file-download.segments} byte ranges over parallel connections, falling back to a
+     * single stream when the server does not honor range requests.
+     *
+     * @param presignedURL the presigned URL for downloading
+     * @param localFilePath the local file path where the file should be saved
+     * @param token authentication token
+     * @param expectedSize the expected size in bytes (e.g., from DownloadObject.size), or -1 if unknown
+     * @return true if download was successful, false otherwise
+     * @throws IllegalArgumentException if any parameter is null or empty
+     * @throws IllegalStateException if the download fails
+     */
+    public boolean downloadFileWithPresignedURL(String presignedURL, String localFilePath, String token,
+                                                long expectedSize) {
         validateInputs(presignedURL, localFilePath, token);
 
         logger.info("Starting file download from presigned URL to: {}", localFilePath);
@@ -149,29 +234,82 @@ public class DownloadApiClient implements AutoCloseable {
         try {
             URL url = new URL(presignedURL);
             Path localPath = Paths.get(localFilePath);
+            Path partPath = localPath.resolveSibling(localPath.getFileName() + PART_SUFFIX);
 
-            // Ensure parent directory exists
+            // Ensure parent directory exists; never resume from a part file left by another run
             Files.createDirectories(localPath.getParent());
+            Files.deleteIfExists(partPath);
+
+            int maxAttempts = config.getDownloadResumeAttempts();
+            long backoffMs = config.getDownloadResumeBackoffMs();
+
+            // Large objects: fetch byte ranges over several connections; a completed part file
+            // is picked up as-is by the loop below
+            int segmentCount = config.getDownloadSegments();
+            long segmentThreshold = config.getDownloadSegmentThresholdBytes();
+            if (segmentCount > 1 && expectedSize > 0 && expectedSize >= segmentThreshold) {
+                if (!downloadSegmented(url, token, partPath, expectedSize, segmentCount, maxAttempts, backoffMs)) {
+                    logger.info("Server did not honor range requests; falling back to a single stream for: {}", localFilePath);
+                    Files.deleteIfExists(partPath);
+                }
+            }
 
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            try {
-                configureConnection(connection, token);
+            boolean complete = false;
+            for (int attempt = 1; attempt <= maxAttempts && !complete; attempt++) {
+                long offset = Files.exists(partPath) ? Files.size(partPath) : 0L;
+                if (expectedSize > 0 && offset == expectedSize) {
+                    complete = true;
+                    break;
+                }
 
-                int responseCode = connection.getResponseCode();
-                String responseMessage = connection.getResponseMessage();
-                logger.debug("Download response code: {} for URL: {}", responseCode, presignedURL);
-
-                if (responseCode == HTTP_OK) {
-                    downloadFile(connection, localPath);
-                    logger.info("File downloaded successfully to: {}", localFilePath);
-                    return true;
-                } else {
-                    logger.error("Download failed with HTTP code: {}, Error Message: {}, for URL: {}", responseCode,responseMessage, presignedURL);
-                    return false;
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                try {
+                    configureConnection(connection, token);
+                    if (offset > 0) {
+                        connection.setRequestProperty("Range", "bytes=" + offset + "-");
+                        logger.info("Resuming download at byte {} (attempt {}/{}) to: {}", offset, attempt, maxAttempts, localFilePath);
+                    }
+
+                    int responseCode = connection.getResponseCode();
+                    String responseMessage = connection.getResponseMessage();
+                    logger.debug("Download response code: {} for URL: {}", responseCode, presignedURL);
+
+                    if (responseCode == HTTP_RANGE_NOT_SATISFIABLE && offset > 0) {
+                        // Everything up to the end of the object is already on disk
+                        complete = true;
+                    } else if (responseCode == HTTP_OK || responseCode == HTTP_PARTIAL_CONTENT) {
+                        boolean append = responseCode == HTTP_PARTIAL_CONTENT && rangeStartsAt(connection, offset);
+                        if (offset > 0 && !append) {
+                            logger.info("Server did not honor range request; restarting download from byte 0");
+                        }
+                        downloadFile(connection, partPath, append);
+                        complete = true;
+                    } else {
+                        logger.error("Download failed with HTTP code: {}, Error Message: {}, for URL: {}", responseCode,responseMessage, presignedURL);
+                        Files.deleteIfExists(partPath);
+                        return false;
+                    }
+                } catch (IOException e) {
+                    if (attempt == maxAttempts) {
+                        throw e;
+                    }
+                    logger.warn("Download interrupted (attempt {}/{}) for: {}: {}", attempt, maxAttempts, localFilePath, e.getMessage());
+                    sleep(backoffMs * attempt);
+                } finally {
+                    connection.disconnect();
                 }
-            } finally {
-                connection.disconnect();
             }
+
+            long actualSize = Files.exists(partPath) ? Files.size(partPath) : 0L;
+            if (expectedSize > 0 && actualSize != expectedSize) {
+                logger.error("Downloaded size {} does not match expected size {} for: {}", actualSize, expectedSize, localFilePath);
+                Files.deleteIfExists(partPath);
+                return false;
+            }
+
+            Files.move(partPath, localPath, StandardCopyOption.REPLACE_EXISTING);
+            logger.info("File downloaded successfully to: {} ({} bytes)", localFilePath, actualSize);
+            return true;
         } catch (MalformedURLException e) {
             logger.error("Invalid presigned URL: {}", presignedURL, e);
             throw new IllegalArgumentException("Invalid presigned URL", e);
@@ -182,20 +320,149 @@ public class DownloadApiClient implements AutoCloseable {
     }
 
     /**
-     * Closes the HTTP client and releases resources.
+     * Downloads a ZIP package using the provided presigned URL and extracts it while the bytes
+     * arrive, without a separate unzip pass over the archive.
+     *
+     * @param presignedURL the presigned URL for downloading
+     * @param extractToPath the directory to extract the package into
+     * @param token authentication token
+     * @param archivePath where to keep the raw ZIP, or null to discard it
+     * @return true if download and extraction were successful, false otherwise
+     * @throws IllegalArgumentException if any required parameter is null or empty
+     * @throws IllegalStateException if the download or extraction fails
+     * @see #downloadAndExtractWithPresignedURL(String, String, String, String, long)
      */
-    @Override
-    public void close() {
+    public boolean downloadAndExtractWithPresignedURL(String presignedURL, String extractToPath, String token,
+                                                      String archivePath) {
+        return downloadAndExtractWithPresignedURL(presignedURL, extractToPath, token, archivePath, -1L);
+    }
+
+    /**
+     * Downloads a ZIP package using the provided presigned URL and extracts it while the bytes
+     * arrive. Entries are written to a staging directory under {@code extractToPath} and moved into
+     * place only once the whole archive has arrived and, when {@code expectedSize} is known, its size
+     * matches; on failure the staging directory is deleted and {@code extractToPath} is left as it was.
+     * Entries resolving outside the staging directory are skipped.
+     * The raw ZIP is spooled to {@code <archivePath>.part}, or to a file in the staging directory when it
+     * is not kept, so an interrupted transfer resumes with an HTTP {@code Range} request and only the
+     * received bytes are extracted again from disk, up to {@code api.file-download.resume-attempts} times.
+     *
+     * @param presignedURL the presigned URL for downloading
+     * @param extractToPath the directory to extract the package into
+     * @param token authentication token
+     * @param archivePath where to keep the raw ZIP, or null to discard it
+     * @param expectedSize the expected archive size in bytes (e.g., from DownloadObject.size), or -1 if unknown
+     * @return true if download and extraction were successful, false otherwise
+     * @throws IllegalArgumentException if any required parameter is null or empty
+     * @throws IllegalStateException if the download or extraction fails
+     */
+    public boolean downloadAndExtractWithPresignedURL(String presignedURL, String extractToPath, String token,
+                                                      String archivePath, long expectedSize) {
+        validateInputs(presignedURL, extractToPath, token);
+
+        logger.info("Starting streaming download and extraction from presigned URL to: {}", extractToPath);
+
+        Path stagingDir = null;
+        Path archivePart = null;
+        boolean success = false;
         try {
-            if (httpClient != null) {
-                httpClient.close();
-                logger.debug("HTTP client closed successfully");
+            URL url = new URL(presignedURL);
+            Path extractDir = Paths.get(extractToPath);
+            Files.createDirectories(extractDir);
+            stagingDir = Files.createTempDirectory(extractDir, STAGING_PREFIX);
+            Path entriesDir = stagingDir.resolve("entries");
+            archivePart = archivePath == null
+                    ? stagingDir.resolve("archive.zip" + PART_SUFFIX)
+                    : Paths.get(archivePath + PART_SUFFIX);
+            // Never resume from a part file left by another run
+            Files.deleteIfExists(archivePart);
+
+            int maxAttempts = config.getDownloadResumeAttempts();
+            long backoffMs = config.getDownloadResumeBackoffMs();
+
+            int files = 0;
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                long offset = Files.exists(archivePart) ? Files.size(archivePart) : 0L;
+                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                try {
+                    configureConnection(connection, token);
+                    if (offset > 0) {
+                        connection.setRequestProperty("Range", "bytes=" + offset + "-");
+                        logger.info("Resuming streaming download at byte {} (attempt {}/{}) to: {}", offset, attempt, maxAttempts, extractToPath);
+                    }
+
+                    int responseCode = connection.getResponseCode();
+                    String responseMessage = connection.getResponseMessage();
+                    logger.debug("Download response code: {} for URL: {}", responseCode, presignedURL);
+
+                    // Entries from an interrupted attempt are extracted again from the spooled bytes
+                    FileUtils.deleteDirectory(entriesDir.toFile());
+                    if (responseCode == HTTP_RANGE_NOT_SATISFIABLE && offset > 0) {
+                        // Everything up to the end of the object is already spooled
+                        files = extractArchive(InputStream.nullInputStream(), 0L, archivePart, offset, entriesDir);
+                    } else if (responseCode == HTTP_OK || responseCode == HTTP_PARTIAL_CONTENT) {
+                        boolean append = responseCode == HTTP_PARTIAL_CONTENT && rangeStartsAt(connection, offset);
+                        if (offset > 0 && !append) {
+                            logger.info("Server did not honor range request; restarting download from byte 0");
+                        }
+                        try (InputStream inputStream = connection.getInputStream()) {
+                            files = extractArchive(inputStream, connection.getContentLengthLong(), archivePart,
+                                    append ? offset : 0L, entriesDir);
+                        }
+                    } else {
+                        logger.error("Download failed with HTTP code: {}, Error Message: {}, for URL: {}", responseCode,responseMessage, presignedURL);
+                        return false;
+                    }
+                    break;
+                } catch (IOException e) {
+                    if (attempt == maxAttempts) {
+                        throw e;
+                    }
+                    logger.warn("Streaming download interrupted (attempt {}/{}) for: {}: {}", attempt, maxAttempts, extractToPath, e.getMessage());
+                    sleep(backoffMs * attempt);
+                } finally {
+                    connection.disconnect();
+                }
+            }
+
+            long actualSize = Files.size(archivePart);
+            if (expectedSize > 0 && actualSize != expectedSize) {
+                logger.error("Downloaded size {} does not match expected size {} for: {}", actualSize, expectedSize, extractToPath);
+                return false;
+            }
+
+            moveIntoPlace(entriesDir, extractDir);
+            if (archivePath != null) {
+                Files.move(archivePart, Paths.get(archivePath), StandardCopyOption.REPLACE_EXISTING);
+            }
+            success = true;
+            logger.info("File downloaded and extracted successfully to: {} ({} files, {} bytes)", extractToPath, files, actualSize);
+            return true;
+        } catch (MalformedURLException e) {
+            logger.error("Invalid presigned URL: {}", presignedURL, e);
+            throw new IllegalArgumentException("Invalid presigned URL", e);
+        } catch (Exception e) {
+            logger.error("Failed to download and extract file from URL: {} to: {}", presignedURL, extractToPath, e);
+            throw new IllegalStateException("Failed to download and extract file", e);
+        } finally {
+            if (stagingDir != null) {
+                FileUtils.deleteQuietly(stagingDir.toFile());
+            }
+            if (!success && archivePath != null && archivePart != null) {
+                FileUtils.deleteQuietly(archivePart.toFile());
             }
-        } catch (IOException e) {
-            logger.warn("Error closing HTTP client", e);
         }
     }
 
+    /**
+     * Releases client resources. Connections belong to the shared {@link HttpTransport}
+     * pool and stay open for reuse by other clients.
+     */
+    @Override
+    public void close() {
+        logger.debug("DownloadApiClient closed; pooled connections retained by HttpTransport");
+    }
+
     // Private helper methods
 
     private void validateEnvironment(String env) {
@@ -212,31 +479,12 @@ public class DownloadApiClient implements AutoCloseable {
         }
     }
 
-    private String buildDownloadURL(String env) {
-        String baseUrl = apiProperties.getProperty("api.environment." + env);
-        String endpoint = apiProperties.getProperty("api.url.download-url");
-
-        if (baseUrl == null || endpoint == null) {
-            throw new IllegalStateException("Missing required configuration for environment: " + env);
-        }
-
-        return baseUrl + endpoint;
-    }
-
-    private String getSenderRoutingID() {
-        String routingId = apiProperties.getProperty("userinfo.mailboxid");
-        if (routingId == null || routingId.trim().isEmpty()) {
-            throw new IllegalStateException("Missing sender routing ID configuration");
-        }
-        return routingId.trim();
-    }
-
     private HttpGet createFileListRequest(String token, String uid) {
         HttpGet request = new HttpGet(downloadURL);
         request.setHeader("uid", uid);
         request.setHeader("senderroutingid", senderRoutingID);
         request.setHeader("authorization",  token);
-        request.setHeader("scope", apiProperties.getProperty("api.scope.download"));
+        request.setHeader("scope", scope);
 
         logger.debug("Created file list request for URL: {} with headers: uid={}, senderroutingid={}",
                 downloadURL, uid, senderRoutingID);
@@ -249,7 +497,7 @@ public class DownloadApiClient implements AutoCloseable {
         request.setHeader("uid", uid);
         request.setHeader("senderroutingid", senderRoutingID);
         request.setHeader("authorization",  token);
-        request.setHeader("scope", apiProperties.getProperty("api.scope.download"));
+        request.setHeader("scope", scope);
 
         logger.debug("Created presigned URL request for URL: {} with headers: uid={}, senderroutingid={}",
                 presignedUrlEndpoint, uid, senderRoutingID);
@@ -257,41 +505,48 @@ public class DownloadApiClient implements AutoCloseable {
     }
 
     private DownloadResponse processFileListResponse(CloseableHttpResponse response) throws IOException {
+        HttpEntity entity = checkFileListStatus(response);
+        try {
+            return JsonStreamUtils.read(entity, DownloadResponse.class, gson);
+        } catch (JsonSyntaxException e) {
+            logger.error("Failed to parse file list response", e);
+            throw new JsonSyntaxException("Invalid JSON response for file list", e);
+        }
+    }
+
+    /** Returns the entity of a successful file list response; logs a bounded snippet and throws otherwise. */
+    private HttpEntity checkFileListStatus(CloseableHttpResponse response) {
         int statusCode = response.getStatusLine().getStatusCode();
         HttpEntity entity = response.getEntity();
-        String responseContent = EntityUtils.toString(entity);
 
-        logger.debug("File list response - Status: {}, Content length: {}", statusCode, entity.getContentLength());
+        logger.debug("File list response - Status: {}, Content length: {}", statusCode,
+                entity != null ? entity.getContentLength() : -1);
 
         if (statusCode != HTTP_OK && statusCode != HTTP_ACCEPTED) {
-            logger.error("File list request failed with status: {}, response: {}", statusCode, responseContent);
+            logger.error("File list request failed with status: {}, response(snippet): {}", statusCode,
+                    JsonStreamUtils.snippet(entity, JsonStreamUtils.DEFAULT_SNIPPET_CHARS));
             throw new IllegalStateException("File list request failed with status: " + statusCode);
         }
-
-        try {
-            return gson.fromJson(responseContent, DownloadResponse.class);
-        } catch (JsonSyntaxException e) {
-            logger.error("Failed to parse file list response: {}", responseContent, e);
-            throw new JsonSyntaxException("Invalid JSON response for file list", e);
-        }
+        return entity;
     }
 
     private PresignedUrlResponse processPresignedUrlResponse(CloseableHttpResponse response) throws IOException {
         int statusCode = response.getStatusLine().getStatusCode();
         HttpEntity entity = response.getEntity();
-        String responseContent = EntityUtils.toString(entity);
 
-        logger.debug("Presigned URL response - Status: {}, Content length: {}", statusCode, entity.getContentLength());
+        logger.debug("Presigned URL response - Status: {}, Content length: {}", statusCode,
+                entity != null ? entity.getContentLength() : -1);
 
         if (statusCode != HTTP_OK && statusCode != HTTP_ACCEPTED) {
-            logger.error("Presigned URL request failed with status: {}, response: {}", statusCode, responseContent);
+            logger.error("Presigned URL request failed with status: {}, response(snippet): {}", statusCode,
+                    JsonStreamUtils.snippet(entity, JsonStreamUtils.DEFAULT_SNIPPET_CHARS));
             throw new IllegalStateException("Presigned URL request failed with status: " + statusCode);
         }
 
         try {
-            return gson.fromJson(responseContent, PresignedUrlResponse.class);
+            return JsonStreamUtils.read(entity, PresignedUrlResponse.class, gson);
         } catch (JsonSyntaxException e) {
-            logger.error("Failed to parse presigned URL response: {}", responseContent, e);
+            logger.error("Failed to parse presigned URL response", e);
             throw new JsonSyntaxException("Invalid JSON response for presigned URL", e);
         }
     }
@@ -300,13 +555,182 @@ public class DownloadApiClient implements AutoCloseable {
         connection.setDoOutput(true);
         connection.setRequestMethod("GET");
         connection.setRequestProperty("authorization", token);
-        //connection.setConnectTimeout(30000); // 30 seconds
-        //connection.setReadTimeout(60000); // 60 seconds
+        // A stalled transfer must surface as an IOException so it can be resumed
+        connection.setConnectTimeout(config.getDownloadConnectTimeoutMs());
+        connection.setReadTimeout(config.getDownloadReadTimeoutMs());
+    }
+
+    private void downloadFile(HttpURLConnection connection, Path partPath, boolean append) throws IOException {
+        StandardOpenOption mode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try (InputStream inputStream = connection.getInputStream();
+             OutputStream outputStream = Files.newOutputStream(partPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+            long contentLength = connection.getContentLengthLong();
+            long received = 0;
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+                received += read;
+            }
+            // A connection dropped mid-body can surface as a clean end of stream
+            if (contentLength >= 0 && received < contentLength) {
+                throw new IOException("Premature end of stream: received " + received + " of " + contentLength + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Extracts the archive formed by the first {@code offset} bytes of {@code archivePart} followed by
+     * {@code remote}, appending the remote bytes to {@code archivePart} as they are read.
+     *
+     * @return the number of files extracted
+     * @throws IOException if the remote stream ends before {@code remoteLength} bytes or cannot be read
+     */
+    private int extractArchive(InputStream remote, long remoteLength, Path archivePart, long offset,
+                               Path entriesDir) throws IOException {
+        StandardOpenOption mode = offset > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try (InputStream spooled = offset > 0
+                     ? BoundedInputStream.builder().setInputStream(Files.newInputStream(archivePart)).setMaxCount(offset).get()
+                     : InputStream.nullInputStream();
+             OutputStream archive = Files.newOutputStream(archivePart, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            BoundedInputStream counted = BoundedInputStream.builder()
+                    .setInputStream(new SequenceInputStream(spooled, new TeeInputStream(remote, archive)))
+                    .get();
+            int files = ZipUtils.extract(counted, entriesDir);
+
+            // Read past the central directory so the spooled archive is complete and the length can be checked
+            IOUtils.consume(counted);
+            long received = counted.getCount() - offset;
+            if (remoteLength >= 0 && received < remoteLength) {
+                throw new IOException("Premature end of stream: received " + received + " of " + remoteLength + " bytes");
+            }
+            return files;
+        }
     }
 
-    private void downloadFile(HttpURLConnection connection, Path localPath) throws IOException {
-        try (InputStream inputStream = connection.getInputStream()) {
-            Files.copy(inputStream, localPath, StandardCopyOption.REPLACE_EXISTING);
+    /** Moves extracted entries from the staging directory into the target directory, replacing existing files. */
+    private static void moveIntoPlace(Path entriesDir, Path extractDir) throws IOException {
+        if (!Files.isDirectory(entriesDir)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(entriesDir)) {
+            paths = walk.collect(Collectors.toList());
+        }
+        for (Path source : paths) {
+            Path target = extractDir.resolve(entriesDir.relativize(source));
+            if (Files.isDirectory(source)) {
+                Files.createDirectories(target);
+            } else {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /** True if a 206 response's Content-Range starts at the requested offset. */
+    private boolean rangeStartsAt(HttpURLConnection connection, long offset) {
+        String contentRange = connection.getHeaderField("Content-Range");
+        return contentRange != null && contentRange.trim().startsWith("bytes " + offset + "-");
+    }
+
+    /**
+     * Downloads {@code expectedSize} bytes as {@code segmentCount} byte ranges fetched in parallel,
+     * each written at its own offset of a preallocated part file.
+     *
+     * @return true if all segments were downloaded, false if the server does not support range requests
+     * @throws IOException if a segment cannot be downloaded after all resume attempts
+     */
+    private boolean downloadSegmented(URL url, String token, Path partPath, long expectedSize, int segmentCount,
+                                      int maxAttempts, long backoffMs) throws IOException, InterruptedException {
+        long segmentSize = (expectedSize + segmentCount - 1) / segmentCount;
+        List<long[]> segments = new ArrayList<>();
+        for (long start = 0; start < expectedSize; start += segmentSize) {
+            segments.add(new long[] {start, Math.min(start + segmentSize, expectedSize) - 1});
+        }
+        logger.info("Starting segmented download: {} bytes in {} segments", expectedSize, segments.size());
+
+        try (RandomAccessFile file = new RandomAccessFile(partPath.toFile(), "rw")) {
+            file.setLength(expectedSize);
+            FileChannel channel = file.getChannel();
+
+            List<SegmentResult> results = ConcurrencyUtils.invokeAllInOrder(segments, segments.size(), "esmd-download-segment",
+                    segment -> {
+                        try {
+                            return downloadSegment(url, token, channel, segment[0], segment[1], maxAttempts, backoffMs);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    (segment, error) -> {
+                        logger.error("Segment {}-{} failed: {}", segment[0], segment[1], error.getMessage());
+                        return SegmentResult.FAILED;
+                    });
+
+            if (results.contains(SegmentResult.FAILED)) {
+                throw new IOException("Segmented download failed");
+            }
+            return !results.contains(SegmentResult.RANGE_UNSUPPORTED);
+        }
+    }
+
+    /**
+     * Downloads the inclusive byte range {@code start..end} into the channel at the same offsets,
+     * resuming from the last written byte after an interrupted transfer.
+     */
+    private SegmentResult downloadSegment(URL url, String token, FileChannel channel, long start, long end,
+                                          int maxAttempts, long backoffMs) throws IOException {
+        long position = start;
+        ByteBuffer buffer = ByteBuffer.allocate(DOWNLOAD_BUFFER_SIZE);
+        for (int attempt = 1; ; attempt++) {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try {
+                configureConnection(connection, token);
+                connection.setRequestProperty("Range", "bytes=" + position + "-" + end);
+
+                int responseCode = connection.getResponseCode();
+                if (responseCode == HTTP_OK || (responseCode == HTTP_PARTIAL_CONTENT && !rangeStartsAt(connection, position))) {
+                    return SegmentResult.RANGE_UNSUPPORTED;
+                }
+                if (responseCode != HTTP_PARTIAL_CONTENT) {
+                    throw new IllegalStateException("Segment request failed with HTTP code: " + responseCode);
+                }
+
+                try (InputStream inputStream = connection.getInputStream()) {
+                    byte[] array = buffer.array();
+                    int read;
+                    while (position <= end
+                            && (read = inputStream.read(array, 0, (int) Math.min(array.length, end - position + 1))) != -1) {
+                        buffer.clear();
+                        buffer.limit(read);
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                    }
+                }
+                if (position <= end) {
+                    throw new IOException("Premature end of segment at byte " + position + " of " + start + "-" + end);
+                }
+                return SegmentResult.COMPLETE;
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.warn("Segment {}-{} interrupted at byte {} (attempt {}/{}): {}", start, end, position, attempt, maxAttempts, e.getMessage());
+                sleep(backoffMs * attempt);
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private enum SegmentResult { COMPLETE, RANGE_UNSUPPORTED, FAILED }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to resume download", ie);
         }
     }
 
@@ -0,0 +1,319 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.RateLimiter;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * EndpointGovernor
+ *
+ * Client-side rate and concurrency limits per gateway endpoint group ({@link RetryPolicy.Operation}),
+ * so extra parallelism on our side queues locally instead of turning into 429s.
+ * - A token bucket spaces requests to {@code requests-per-second} (zero or less is unlimited)
+ * - An AIMD concurrency limit caps requests in flight: it grows by about one per limit's worth of
+ *   successful responses and is multiplied by {@code backoff-ratio} on a 429, a 503, a timeout or
+ *   a response slower than {@code latency-threshold-ms}; it stays within min/max-concurrency
+ * - Only one decrease is applied per congestion event: responses to requests sent before the last
+ *   decrease do not shrink the limit again
+ * - Settings come from {@code api.http.governor.<endpoint>.*}, falling back to
+ *   {@code api.http.governor.defaults.*}; {@link #reconfigure()} applies changed settings live
+ * - {@link #getLimits()} reports the current rate, concurrency limit and in-flight count per endpoint
+ */
+public final class EndpointGovernor {
+
+    private static final Logger log = LoggerFactory.getLogger(EndpointGovernor.class);
+
+    // Property keys
+    private static final String KEY_PREFIX              = "api.http.governor.";
+    private static final String KEY_ENABLED             = "api.http.governor.enabled";
+    private static final String KEY_DEFAULTS            = "defaults";
+    private static final String KEY_RPS                 = "requests-per-second";
+    private static final String KEY_INITIAL_CONCURRENCY = "initial-concurrency";
+    private static final String KEY_MIN_CONCURRENCY     = "min-concurrency";
+    private static final String KEY_MAX_CONCURRENCY     = "max-concurrency";
+    private static final String KEY_LATENCY_THRESHOLD   = "latency-threshold-ms";
+    private static final String KEY_BACKOFF_RATIO       = "backoff-ratio";
+
+    // Defaults
+    private static final double DEF_RPS                 = 0.0;
+    private static final int DEF_INITIAL_CONCURRENCY    = 8;
+    private static final int DEF_MIN_CONCURRENCY        = 1;
+    private static final int DEF_MAX_CONCURRENCY        = 64;
+    private static final long DEF_LATENCY_THRESHOLD_MS  = 0L;
+    private static final double DEF_BACKOFF_RATIO       = 0.5;
+
+    private final boolean enabled;
+    private final Map<RetryPolicy.Operation, Endpoint> endpoints = new EnumMap<>(RetryPolicy.Operation.class);
+
+    private EndpointGovernor(boolean enabled, Map<RetryPolicy.Operation, Settings> settings, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        for (Map.Entry<RetryPolicy.Operation, Settings> entry : settings.entrySet()) {
+            endpoints.put(entry.getKey(), new Endpoint(entry.getKey(), entry.getValue(), nanoClock));
+        }
+    }
+
+    /** Governor configured from {@code api.http.governor.*}. */
+    public static EndpointGovernor fromProperties() {
+        EndpointGovernor governor = new EndpointGovernor(isEnabledInProperties(), settingsFromProperties(), System::nanoTime);
+        log.info("EndpointGovernor initialized: enabled={}, limits={}", governor.enabled, governor.getLimits().values());
+        return governor;
+    }
+
+    static EndpointGovernor of(Map<RetryPolicy.Operation, Settings> settings, LongSupplier nanoClock) {
+        return new EndpointGovernor(true, settings, nanoClock);
+    }
+
+    /**
+     * Sends one request within the endpoint's rate and concurrency limits, waiting for a slot if needed,
+     * and feeds the outcome back into the concurrency limit. The slot is released once the response
+     * headers have arrived.
+     *
+     * @param operation the endpoint group of the request
+     * @param request the request
+     * @param attempt sends the request
+     * @return the response; the caller must close it
+     * @throws IOException the I/O error of the request, or InterruptedIOException if interrupted while waiting
+     */
+    public CloseableHttpResponse execute(RetryPolicy.Operation operation, HttpUriRequest request,
+                                         RetryPolicy.Attempt attempt) throws IOException {
+        if (!enabled) {
+            return attempt.send(request);
+        }
+        Endpoint endpoint = endpoints.get(operation);
+        long startNanos;
+        try {
+            startNanos = endpoint.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a " + operation.getKey() + " slot");
+        }
+        boolean overloaded = false;
+        try {
+            CloseableHttpResponse response = attempt.send(request);
+            int status = response.getStatusLine().getStatusCode();
+            overloaded = status == 429 || status == 503;
+            return response;
+        } catch (InterruptedIOException timeout) {
+            overloaded = true;
+            throw timeout;
+        } finally {
+            endpoint.release(startNanos, overloaded);
+        }
+    }
+
+    /** Re-reads the settings, e.g. after a configuration reload; current concurrency limits are clamped, not reset. */
+    public void reconfigure() {
+        Map<RetryPolicy.Operation, Settings> settings = settingsFromProperties();
+        for (Map.Entry<RetryPolicy.Operation, Endpoint> entry : endpoints.entrySet()) {
+            entry.getValue().apply(settings.get(entry.getKey()));
+        }
+    }
+
+    /** Whether requests are governed; when disabled they pass straight through. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Current limits per endpoint group. */
+    public Map<RetryPolicy.Operation, Limits> getLimits() {
+        Map<RetryPolicy.Operation, Limits> limits = new EnumMap<>(RetryPolicy.Operation.class);
+        for (Map.Entry<RetryPolicy.Operation, Endpoint> entry : endpoints.entrySet()) {
+            limits.put(entry.getKey(), entry.getValue().limits());
+        }
+        return Collections.unmodifiableMap(limits);
+    }
+
+    /** Point-in-time view of one endpoint group's limits. */
+    public static final class Limits {
+        private final RetryPolicy.Operation operation;
+        private final double requestsPerSecond;
+        private final int concurrencyLimit;
+        private final int inFlight;
+        private final long overloadCount;
+        private final long decreaseCount;
+
+        Limits(RetryPolicy.Operation operation, double requestsPerSecond, int concurrencyLimit, int inFlight,
+               long overloadCount, long decreaseCount) {
+            this.operation = operation;
+            this.requestsPerSecond = requestsPerSecond;
+            this.concurrencyLimit = concurrencyLimit;
+            this.inFlight = inFlight;
+            this.overloadCount = overloadCount;
+            this.decreaseCount = decreaseCount;
+        }
+
+        public RetryPolicy.Operation getOperation() {
+            return operation;
+        }
+
+        /** The configured rate; zero or less means unlimited. */
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        /** Requests allowed in flight at the moment. */
+        public int getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        /** Requests in flight at the moment. */
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        /** Responses counted as overload signals (429, 503, timeout or slow response). */
+        public long getOverloadCount() {
+            return overloadCount;
+        }
+
+        /** Times the concurrency limit was decreased. */
+        public long getDecreaseCount() {
+            return decreaseCount;
+        }
+
+        @Override
+        public String toString() {
+            return operation.getKey() + "{rps=" + requestsPerSecond + ", limit=" + concurrencyLimit
+                    + ", inFlight=" + inFlight + ", overloads=" + overloadCount + ", decreases=" + decreaseCount + "}";
+        }
+    }
+
+    /** Settings of one endpoint group. */
+    static final class Settings {
+        final double requestsPerSecond;
+        final int initialConcurrency;
+        final int minConcurrency;
+        final int maxConcurrency;
+        final long latencyThresholdMs;
+        final double backoffRatio;
+
+        Settings(double requestsPerSecond, int initialConcurrency, int minConcurrency, int maxConcurrency,
+                 long latencyThresholdMs, double backoffRatio) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.minConcurrency = Math.max(1, minConcurrency);
+            this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+            this.initialConcurrency = Math.max(this.minConcurrency, Math.min(this.maxConcurrency, initialConcurrency));
+            this.latencyThresholdMs = Math.max(0L, latencyThresholdMs);
+            this.backoffRatio = backoffRatio > 0.0 && backoffRatio < 1.0 ? backoffRatio : DEF_BACKOFF_RATIO;
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static boolean isEnabledInProperties() {
+        return Boolean.parseBoolean(PropertiesUtils.loadProperties().getProperty(KEY_ENABLED, "true").trim());
+    }
+
+    private static Map<RetryPolicy.Operation, Settings> settingsFromProperties() {
+        Map<RetryPolicy.Operation, Settings> settings = new EnumMap<>(RetryPolicy.Operation.class);
+        for (RetryPolicy.Operation operation : RetryPolicy.Operation.values()) {
+            settings.put(operation, new Settings(
+                    PropertiesUtils.getDoubleProperty(key(operation, KEY_RPS),
+                            PropertiesUtils.getDoubleProperty(key(null, KEY_RPS), DEF_RPS)),
+                    PropertiesUtils.getIntProperty(key(operation, KEY_INITIAL_CONCURRENCY),
+                            PropertiesUtils.getIntProperty(key(null, KEY_INITIAL_CONCURRENCY), DEF_INITIAL_CONCURRENCY)),
+                    PropertiesUtils.getIntProperty(key(operation, KEY_MIN_CONCURRENCY),
+                            PropertiesUtils.getIntProperty(key(null, KEY_MIN_CONCURRENCY), DEF_MIN_CONCURRENCY)),
+                    PropertiesUtils.getIntProperty(key(operation, KEY_MAX_CONCURRENCY),
+                            PropertiesUtils.getIntProperty(key(null, KEY_MAX_CONCURRENCY), DEF_MAX_CONCURRENCY)),
+                    PropertiesUtils.getLongProperty(key(operation, KEY_LATENCY_THRESHOLD),
+                            PropertiesUtils.getLongProperty(key(null, KEY_LATENCY_THRESHOLD), DEF_LATENCY_THRESHOLD_MS)),
+                    PropertiesUtils.getDoubleProperty(key(operation, KEY_BACKOFF_RATIO),
+                            PropertiesUtils.getDoubleProperty(key(null, KEY_BACKOFF_RATIO), DEF_BACKOFF_RATIO))));
+        }
+        return settings;
+    }
+
+    /** The property key of a setting for an endpoint group, or for the defaults when {@code operation} is null. */
+    private static String key(RetryPolicy.Operation operation, String setting) {
+        return KEY_PREFIX + (operation != null ? operation.getKey() : KEY_DEFAULTS) + "." + setting;
+    }
+
+    /** Rate limiter and AIMD concurrency limit of one endpoint group. */
+    static final class Endpoint {
+        private final RetryPolicy.Operation operation;
+        private final LongSupplier nanoClock;
+        private final RateLimiter rateLimiter;
+        private final AtomicLong overloads = new AtomicLong();
+        private final AtomicLong decreases = new AtomicLong();
+
+        private Settings settings;
+        private double limit;
+        private int inFlight;
+        private long lastDecreaseNanos;
+
+        Endpoint(RetryPolicy.Operation operation, Settings settings, LongSupplier nanoClock) {
+            this.operation = operation;
+            this.nanoClock = nanoClock;
+            this.settings = settings;
+            this.limit = settings.initialConcurrency;
+            this.rateLimiter = new RateLimiter(settings.requestsPerSecond);
+            this.lastDecreaseNanos = nanoClock.getAsLong();
+        }
+
+        /** Waits for a concurrency slot, then for a rate permit; returns the start time of the request. */
+        long acquire() throws InterruptedException {
+            synchronized (this) {
+                while (inFlight >= (int) limit) {
+                    wait();
+                }
+                inFlight++;
+            }
+            try {
+                rateLimiter.acquire();
+            } catch (InterruptedException ie) {
+                synchronized (this) {
+                    inFlight--;
+                    notifyAll();
+                }
+                throw ie;
+            }
+            return nanoClock.getAsLong();
+        }
+
+        /** Frees the slot and adjusts the limit: multiplicative decrease on overload, additive increase otherwise. */
+        synchronized void release(long startNanos, boolean overloaded) {
+            inFlight--;
+            long now = nanoClock.getAsLong();
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(now - startNanos);
+            boolean slow = settings.latencyThresholdMs > 0 && latencyMs > settings.latencyThresholdMs;
+            if (overloaded || slow) {
+                overloads.incrementAndGet();
+                if (startNanos > lastDecreaseNanos) {
+                    double previous = limit;
+                    limit = Math.max(settings.minConcurrency, limit * settings.backoffRatio);
+                    lastDecreaseNanos = now;
+                    decreases.incrementAndGet();
+                    log.info("{} concurrency limit lowered {} -> {} ({})", operation.getKey(), (int) previous, (int) limit,
+                            overloaded ? "throttled" : "latency " + latencyMs + " ms");
+                }
+            } else {
+                limit = Math.min(settings.maxConcurrency, limit + 1.0 / limit);
+            }
+            notifyAll();
+        }
+
+        synchronized void apply(Settings updated) {
+            settings = updated;
+            limit = Math.max(updated.minConcurrency, Math.min(updated.maxConcurrency, limit));
+            rateLimiter.setRate(updated.requestsPerSecond);
+            notifyAll();
+        }
+
+        synchronized Limits limits() {
+            return new Limits(operation, rateLimiter.getRate(), (int) limit, inFlight, overloads.get(), decreases.get());
+        }
+    }
+}
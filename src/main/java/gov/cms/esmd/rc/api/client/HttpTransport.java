@@ -0,0 +1,244 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * HttpTransport
+ *
+ * Process-wide pooled HTTP transport shared by all esMD API clients.
+ * - One PoolingHttpClientConnectionManager, so TLS sessions and keep-alive connections are reused
+ * - Total and per-route limits, timeouts and idle eviction configurable from api-properties.yml
+ * - Periodically evicts expired/idle connections and publishes pool stats to registered listeners
+ * - Pool limits and default timeouts follow configuration reloads (see {@link EsmdConfig#addListener});
+ *   the transport does not watch the configuration file itself, see {@link gov.cms.esmd.utility.ConfigWatcher}
+ * - Requests sent through {@link #execute} are retried per operation by the shared {@link RetryPolicy}
+ *   and each attempt is paced by the per-endpoint {@link EndpointGovernor}
+ * - Clients must not close the shared client; use {@link #shutdown()} on process exit instead
+ */
+public final class HttpTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpTransport.class);
+
+    // Property keys
+    private static final String KEY_MAX_TOTAL            = "api.http.pool.max-total";
+    private static final String KEY_MAX_PER_ROUTE        = "api.http.pool.max-per-route";
+    private static final String KEY_IDLE_EVICT_SECONDS   = "api.http.pool.idle-evict-seconds";
+    private static final String KEY_VALIDATE_AFTER_MS    = "api.http.pool.validate-after-inactivity-ms";
+    private static final String KEY_CONNECT_TIMEOUT      = "http.connect.timeout.ms";
+    private static final String KEY_SOCKET_TIMEOUT       = "http.socket.timeout.ms";
+    private static final String KEY_CONN_REQ_TIMEOUT     = "http.connection.request.timeout.ms";
+
+    // Defaults
+    private static final int DEF_MAX_TOTAL              = 50;
+    private static final int DEF_MAX_PER_ROUTE          = 20;
+    private static final int DEF_IDLE_EVICT_SECONDS     = 30;
+    private static final int DEF_VALIDATE_AFTER_MS      = 2_000;
+    private static final int DEF_CONNECT_TIMEOUT_MS     = 10_000;
+    private static final int DEF_SOCKET_TIMEOUT_MS      = 30_000;
+    private static final int DEF_CONN_REQ_TIMEOUT_MS    = 10_000;
+
+    private static volatile HttpTransport shared;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private volatile RequestConfig defaultRequestConfig;
+    private final RetryPolicy retryPolicy;
+    private final EndpointGovernor governor;
+    private final ScheduledExecutorService evictor;
+    private final List<Consumer<PoolStats>> poolStatsListeners = new CopyOnWriteArrayList<>();
+    private final Consumer<EsmdConfig> configListener = config -> applyConfig();
+
+    private HttpTransport() {
+        int maxTotal       = PropertiesUtils.getIntProperty(KEY_MAX_TOTAL, DEF_MAX_TOTAL);
+        int maxPerRoute    = PropertiesUtils.getIntProperty(KEY_MAX_PER_ROUTE, DEF_MAX_PER_ROUTE);
+        int idleEvictSecs  = PropertiesUtils.getIntProperty(KEY_IDLE_EVICT_SECONDS, DEF_IDLE_EVICT_SECONDS);
+        int validateAfter  = PropertiesUtils.getIntProperty(KEY_VALIDATE_AFTER_MS, DEF_VALIDATE_AFTER_MS);
+
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        this.connectionManager.setMaxTotal(maxTotal);
+        this.connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        this.connectionManager.setValidateAfterInactivity(validateAfter);
+
+        this.defaultRequestConfig = requestConfigFromProperties();
+
+        this.retryPolicy = RetryPolicy.fromProperties();
+        this.governor = EndpointGovernor.fromProperties();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .setRetryHandler(new DefaultHttpRequestRetryHandler(0, false)) // retries are applied per operation by RetryPolicy
+                .build();
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(
+                ConcurrencyUtils.namedThreadFactory("esmd-http-evictor", true));
+        this.evictor.scheduleWithFixedDelay(() -> evict(idleEvictSecs), idleEvictSecs, idleEvictSecs, TimeUnit.SECONDS);
+
+        EsmdConfig.addListener(configListener);
+
+        log.info("HttpTransport initialized: maxTotal={}, maxPerRoute={}, idleEvictSeconds={}",
+                maxTotal, maxPerRoute, idleEvictSecs);
+    }
+
+    /** Shared transport used by all esMD API clients; created on first use. */
+    public static HttpTransport getShared() {
+        HttpTransport t = shared;
+        if (t == null) {
+            synchronized (HttpTransport.class) {
+                t = shared;
+                if (t == null) {
+                    t = new HttpTransport();
+                    shared = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    /** The pooled client. Thread-safe; do not close it. */
+    public CloseableHttpClient client() {
+        return httpClient;
+    }
+
+    /**
+     * Executes a gateway request on the pooled client, retrying transient failures as
+     * {@link RetryPolicy} allows for the operation; every attempt waits for the endpoint's
+     * rate and concurrency limits in {@link EndpointGovernor}. Requests without their own RequestConfig
+     * get the current {@link #defaultRequestConfig()}.
+     *
+     * @param operation the kind of request, which decides what may be retried
+     * @param request the request
+     * @return the response of the last attempt; the caller must close it
+     * @throws IOException the I/O error of the last attempt, or InterruptedIOException if interrupted while waiting
+     */
+    public CloseableHttpResponse execute(RetryPolicy.Operation operation, HttpUriRequest request) throws IOException {
+        return retryPolicy.execute(operation, request,
+                r -> governor.execute(operation, r, attempt -> httpClient.execute(attempt, requestContext())));
+    }
+
+    /** The retry policy applied by {@link #execute}, with its per-operation metrics. */
+    public RetryPolicy retryPolicy() {
+        return retryPolicy;
+    }
+
+    /** The per-endpoint rate and concurrency limits applied by {@link #execute}. */
+    public EndpointGovernor governor() {
+        return governor;
+    }
+
+    /**
+     * Default timeouts applied by {@link #execute} to requests that do not carry their own RequestConfig;
+     * replaced on configuration reloads. Requests sent on {@link #client()} directly keep the startup timeouts.
+     */
+    public RequestConfig defaultRequestConfig() {
+        return defaultRequestConfig;
+    }
+
+    /** Current totals across all routes (leased, pending, available, max). */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Register a listener that receives pool stats after every eviction pass.
+     *
+     * @param listener callback; must be fast and must not throw
+     */
+    public void addPoolStatsListener(Consumer<PoolStats> listener) {
+        poolStatsListeners.add(listener);
+    }
+
+    public void removePoolStatsListener(Consumer<PoolStats> listener) {
+        poolStatsListeners.remove(listener);
+    }
+
+    /** Close the pooled client and stop the evictor. Intended for process shutdown. */
+    public static void shutdown() {
+        synchronized (HttpTransport.class) {
+            HttpTransport t = shared;
+            shared = null;
+            if (t == null) {
+                return;
+            }
+            EsmdConfig.removeListener(t.configListener);
+            t.evictor.shutdownNow();
+            try {
+                t.httpClient.close();
+                log.info("HttpTransport shut down");
+            } catch (IOException e) {
+                log.warn("Error closing shared HTTP client", e);
+            }
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static RequestConfig requestConfigFromProperties() {
+        return RequestConfig.custom()
+                .setConnectTimeout(PropertiesUtils.getIntProperty(KEY_CONNECT_TIMEOUT, DEF_CONNECT_TIMEOUT_MS))
+                .setSocketTimeout(PropertiesUtils.getIntProperty(KEY_SOCKET_TIMEOUT, DEF_SOCKET_TIMEOUT_MS))
+                .setConnectionRequestTimeout(PropertiesUtils.getIntProperty(KEY_CONN_REQ_TIMEOUT, DEF_CONN_REQ_TIMEOUT_MS))
+                .build();
+    }
+
+    /** Context carrying the current default timeouts; a request's own RequestConfig still takes precedence. */
+    private HttpClientContext requestContext() {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(defaultRequestConfig);
+        return context;
+    }
+
+    /** Applies a reloaded configuration to the pool, the default timeouts and the endpoint governor. */
+    private void applyConfig() {
+        applyPoolLimits();
+        defaultRequestConfig = requestConfigFromProperties();
+        governor.reconfigure();
+    }
+
+    /** Applies pool limits from a reloaded configuration; leased connections are not affected. */
+    private void applyPoolLimits() {
+        int maxTotal    = PropertiesUtils.getIntProperty(KEY_MAX_TOTAL, DEF_MAX_TOTAL);
+        int maxPerRoute = PropertiesUtils.getIntProperty(KEY_MAX_PER_ROUTE, DEF_MAX_PER_ROUTE);
+        if (maxTotal != connectionManager.getMaxTotal() || maxPerRoute != connectionManager.getDefaultMaxPerRoute()) {
+            connectionManager.setMaxTotal(maxTotal);
+            connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+            log.info("HttpTransport pool limits updated: maxTotal={}, maxPerRoute={}", maxTotal, maxPerRoute);
+        }
+    }
+
+    private void evict(int idleSeconds) {
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+
+            PoolStats stats = connectionManager.getTotalStats();
+            log.debug("HTTP pool stats: {}", stats);
+            for (Consumer<PoolStats> listener : poolStatsListeners) {
+                listener.accept(stats);
+            }
+        } catch (RuntimeException re) {
+            log.warn("HTTP pool eviction pass failed: {}", re.getMessage(), re);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package gov.cms.esmd.rc.api.client;
 import com.google.gson.Gson;
 import gov.cms.esmd.bean.adminerror.Notification;
 import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.utility.JsonCodec;
+import gov.cms.esmd.utility.JsonStreamUtils;
 import gov.cms.esmd.bean.response.PickupNotification;
 import gov.cms.esmd.utility.NotificationUtility;
 import org.apache.http.client.HttpResponseException;
@@ -11,10 +13,6 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,7 +27,7 @@ import java.util.List;
  * NotificationApiClient
  *
  * Sends notification JSON to an esMD endpoint.
- * - Uses HttpClient 4.x with sane, configurable timeouts
+ * - Uses the shared pooled HttpTransport with sane, configurable timeouts
  * - Validates inputs; never logs tokens or full response bodies
  * - Accepts 200/201/202 as success; throws HttpResponseException otherwise
  */
@@ -42,9 +40,10 @@ public class NotificationApiClient implements AutoCloseable, Closeable {
     private static final int DEF_SOCKET_TIMEOUT_MS  = 30_000;
     private static final int DEF_CONN_REQ_TIMEOUT_MS= 10_000;
 
-    private final CloseableHttpClient httpClient;
+    private final HttpTransport transport;
+    private final RequestConfig requestConfig;
     private final String notificationUrl;   // default endpoint
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonCodec.gson();
 
     /**
      * Build with a default URL and default timeouts.
@@ -65,10 +64,8 @@ public class NotificationApiClient implements AutoCloseable, Closeable {
             throw new IllegalArgumentException("notificationUrl cannot be null or empty");
         }
         this.notificationUrl = notificationUrl.trim();
-        this.httpClient = HttpClients.custom()
-                .setDefaultRequestConfig(requestConfig)
-                .setRetryHandler(new DefaultHttpRequestRetryHandler(0, false)) // caller handles retries
-                .build();
+        this.requestConfig = requestConfig;
+        this.transport = HttpTransport.getShared();
         log.info("NotificationApiClient initialized: url={}", this.notificationUrl);
     }
 
@@ -96,27 +93,27 @@ public class NotificationApiClient implements AutoCloseable, Closeable {
         }
 
         HttpPost postRequest = new HttpPost(endpoint);
+        postRequest.setConfig(requestConfig);
         postRequest.setHeader("Content-Type", ContentType.APPLICATION_JSON.getMimeType());
         postRequest.setHeader("Authorization", normalizeBearer(token));
         postRequest.setEntity(new StringEntity(jsonString, ContentType.APPLICATION_JSON));
 
-        try (CloseableHttpResponse response = httpClient.execute(postRequest)) {
+        try (CloseableHttpResponse response = transport.execute(RetryPolicy.Operation.NOTIFICATION, postRequest)) {
             int statusCode = response.getStatusLine().getStatusCode();
-            String body = (response.getEntity() != null)
-                    ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)
-                    : "";
 
             // Treat 200/201/202 as success
             if (statusCode != 200 && statusCode != 201 && statusCode != 202) {
-                log.error("Notification failed: status={} body(snippet)={}", statusCode, snippet(body));
+                log.error("Notification failed: status={} body(snippet)={}", statusCode,
+                        JsonStreamUtils.snippet(response.getEntity(), JsonStreamUtils.DEFAULT_SNIPPET_CHARS));
                 throw new HttpResponseException(statusCode, "Notification request failed with status " + statusCode);
             }
 
             if (log.isDebugEnabled()) {
-                log.debug("Notification succeeded: status={} body(snippet)={}", statusCode, snippet(body));
+                log.debug("Notification succeeded: status={} contentLength={}", statusCode,
+                        response.getEntity() != null ? response.getEntity().getContentLength() : -1);
             }
 
-            return gson.fromJson(body, NotificationResponse.class);
+            return JsonStreamUtils.read(response.getEntity(), NotificationResponse.class, gson);
         } catch (IOException ioe) {
             log.error("I/O error during notification (type={}, endpoint={}): {}",
                     safe(type), endpoint, ioe.getMessage(), ioe);
@@ -129,7 +126,7 @@ public class NotificationApiClient implements AutoCloseable, Closeable {
     }
     @Override
     public void close() throws IOException {
-        httpClient.close();
+        // Connections belong to the shared HttpTransport pool; nothing to release per client
     }
 
     /* ============================== Helpers ============================== */
@@ -151,10 +148,4 @@ public class NotificationApiClient implements AutoCloseable, Closeable {
         if (isBlank(value)) return "";
         return value.length() <= 32 ? value : value.substring(0, 32) + "...";
     }
-
-    private static String snippet(String s) {
-        if (s == null) return "";
-        int max = 1024;
-        return s.length() <= max ? s : s.substring(0, max) + "...(truncated)";
-    }
 }
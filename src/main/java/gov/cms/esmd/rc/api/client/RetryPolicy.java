@@ -0,0 +1,382 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * RetryPolicy
+ *
+ * Shared retry engine for requests to the esMD gateway, applied per {@link Operation}.
+ * - Idempotent operations are retried on 429, 502, 503 and 504 and on I/O errors other than
+ *   unknown hosts and TLS failures
+ * - Non-idempotent operations are retried only when the gateway cannot have acted on the request:
+ *   a 429, a 503 that carries Retry-After, or a failure to connect
+ * - Waits use exponential backoff with full jitter, never shorter than a Retry-After header; a
+ *   Retry-After longer than {@code max-retry-after-ms} returns the response instead of waiting
+ * - A retry budget caps retries at {@code budget.ratio} of calls plus {@code budget.min-per-second},
+ *   so a failing gateway is not hit with a multiple of the normal traffic
+ * - Requests whose entity cannot be replayed are sent once
+ * - Counts calls, attempts, retries, exhausted retries and budget rejections per operation
+ */
+public final class RetryPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryPolicy.class);
+
+    // Property keys
+    private static final String KEY_MAX_ATTEMPTS        = "api.http.retry.max-attempts";
+    private static final String KEY_BASE_DELAY_MS       = "api.http.retry.base-delay-ms";
+    private static final String KEY_MAX_DELAY_MS        = "api.http.retry.max-delay-ms";
+    private static final String KEY_MAX_RETRY_AFTER_MS  = "api.http.retry.max-retry-after-ms";
+    private static final String KEY_BUDGET_RATIO        = "api.http.retry.budget.ratio";
+    private static final String KEY_BUDGET_MIN_PER_SEC  = "api.http.retry.budget.min-per-second";
+
+    // Defaults
+    private static final int DEF_MAX_ATTEMPTS           = 3;
+    private static final long DEF_BASE_DELAY_MS         = 200L;
+    private static final long DEF_MAX_DELAY_MS          = 10_000L;
+    private static final long DEF_MAX_RETRY_AFTER_MS    = 30_000L;
+    private static final double DEF_BUDGET_RATIO        = 0.2;
+    private static final double DEF_BUDGET_MIN_PER_SEC  = 2.0;
+
+    /** The kinds of gateway request, classified by whether repeating one is safe. */
+    public enum Operation {
+        AUTH(true, "auth"),
+        LIST_OBJECTS(true, "objects-list"),
+        PRESIGN(true, "presign"),
+        REALTIME_UPLOAD(false, "realtime"),
+        NOTIFICATION(false, "notifications"),
+        STATUS(true, "status");
+
+        private final boolean idempotent;
+        private final String key;
+
+        Operation(boolean idempotent, String key) {
+            this.idempotent = idempotent;
+            this.key = key;
+        }
+
+        /** True if sending the request twice has the same effect as sending it once. */
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+
+        /** The name of the operation's endpoint group in api-properties.yml. */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /** Sends one attempt of a request. */
+    public interface Attempt {
+        CloseableHttpResponse send(HttpUriRequest request) throws IOException;
+    }
+
+    /** Waits between attempts; replaced in tests. */
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long maxRetryAfterMs;
+    private final RetryBudget budget;
+    private final Sleeper sleeper;
+    private final DoubleSupplier random;
+    private final LongSupplier wallClock;
+    private final Map<Operation, Metrics> metrics = new EnumMap<>(Operation.class);
+
+    RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs, long maxRetryAfterMs,
+                double budgetRatio, double budgetMinPerSecond,
+                Sleeper sleeper, DoubleSupplier random, LongSupplier nanoClock, LongSupplier wallClock) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(1L, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.maxRetryAfterMs = Math.max(0L, maxRetryAfterMs);
+        this.budget = new RetryBudget(budgetRatio, budgetMinPerSecond, nanoClock);
+        this.sleeper = Objects.requireNonNull(sleeper, "sleeper");
+        this.random = Objects.requireNonNull(random, "random");
+        this.wallClock = Objects.requireNonNull(wallClock, "wallClock");
+        for (Operation operation : Operation.values()) {
+            metrics.put(operation, new Metrics());
+        }
+    }
+
+    /** Policy configured from {@code api.http.retry.*}. */
+    public static RetryPolicy fromProperties() {
+        RetryPolicy policy = new RetryPolicy(
+                PropertiesUtils.getIntProperty(KEY_MAX_ATTEMPTS, DEF_MAX_ATTEMPTS),
+                PropertiesUtils.getLongProperty(KEY_BASE_DELAY_MS, DEF_BASE_DELAY_MS),
+                PropertiesUtils.getLongProperty(KEY_MAX_DELAY_MS, DEF_MAX_DELAY_MS),
+                PropertiesUtils.getLongProperty(KEY_MAX_RETRY_AFTER_MS, DEF_MAX_RETRY_AFTER_MS),
+                PropertiesUtils.getDoubleProperty(KEY_BUDGET_RATIO, DEF_BUDGET_RATIO),
+                PropertiesUtils.getDoubleProperty(KEY_BUDGET_MIN_PER_SEC, DEF_BUDGET_MIN_PER_SEC),
+                Thread::sleep, () -> ThreadLocalRandom.current().nextDouble(), System::nanoTime,
+                System::currentTimeMillis);
+        log.info("RetryPolicy initialized: maxAttempts={}, baseDelayMs={}, maxDelayMs={}, maxRetryAfterMs={}, budget={}",
+                policy.maxAttempts, policy.baseDelayMs, policy.maxDelayMs, policy.maxRetryAfterMs, policy.budget);
+        return policy;
+    }
+
+    /**
+     * Executes the request, retrying transient failures as allowed for the operation.
+     * A retryable status that is not retried any further is returned to the caller as is.
+     *
+     * @param operation the kind of request, which decides what may be retried
+     * @param request the request; it is sent again as is on each attempt
+     * @param client the client to send it with
+     * @return the response of the last attempt; the caller must close it
+     * @throws IOException the I/O error of the last attempt, or InterruptedIOException if interrupted while waiting
+     */
+    public CloseableHttpResponse execute(Operation operation, HttpUriRequest request, CloseableHttpClient client)
+            throws IOException {
+        return execute(operation, request, client::execute);
+    }
+
+    /**
+     * Executes the request through {@code attempt}, retrying transient failures as allowed for the operation.
+     *
+     * @param operation the kind of request, which decides what may be retried
+     * @param request the request; it is sent again as is on each attempt
+     * @param attempt sends a single attempt
+     * @return the response of the last attempt; the caller must close it
+     * @throws IOException the I/O error of the last attempt, or InterruptedIOException if interrupted while waiting
+     */
+    public CloseableHttpResponse execute(Operation operation, HttpUriRequest request, Attempt attempt)
+            throws IOException {
+        Objects.requireNonNull(operation, "operation");
+        Metrics m = metrics.get(operation);
+        m.calls.incrementAndGet();
+        budget.deposit();
+        boolean replayable = isReplayable(request);
+
+        for (int n = 1; ; n++) {
+            m.attempts.incrementAndGet();
+            CloseableHttpResponse response;
+            try {
+                response = attempt.send(request);
+            } catch (IOException e) {
+                if (!replayable || !isRetryable(operation, e) || !mayRetry(m, n)) {
+                    throw e;
+                }
+                long delayMs = backoffMs(n);
+                log.warn("{} {} failed (attempt {}/{}): {}; retrying in {} ms",
+                        operation, request.getMethod(), n, maxAttempts, e.getMessage(), delayMs);
+                pause(delayMs);
+                continue;
+            }
+
+            int status = response.getStatusLine().getStatusCode();
+            long retryAfterMs = retryAfterMs(response);
+            if (!replayable || !isRetryable(operation, status, retryAfterMs >= 0)) {
+                return response;
+            }
+            if (retryAfterMs > maxRetryAfterMs) {
+                log.warn("{} {} returned {} with Retry-After {} ms, longer than the {} ms allowed; not retrying",
+                        operation, request.getMethod(), status, retryAfterMs, maxRetryAfterMs);
+                return response;
+            }
+            if (!mayRetry(m, n)) {
+                return response;
+            }
+            long delayMs = Math.max(retryAfterMs, backoffMs(n));
+            log.warn("{} {} returned {} (attempt {}/{}); retrying in {} ms",
+                    operation, request.getMethod(), status, n, maxAttempts, delayMs);
+            EntityUtils.consumeQuietly(response.getEntity());
+            response.close();
+            pause(delayMs);
+        }
+    }
+
+    /** Counters for one operation. */
+    public Metrics getMetrics(Operation operation) {
+        return metrics.get(operation);
+    }
+
+    /** Attempt counters for one operation. */
+    public static final class Metrics {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong exhausted = new AtomicLong();
+        private final AtomicLong budgetRejected = new AtomicLong();
+
+        /** Requests executed through the policy. */
+        public long getCallCount() {
+            return calls.get();
+        }
+
+        /** Requests sent to the gateway, first attempts included. */
+        public long getAttemptCount() {
+            return attempts.get();
+        }
+
+        /** Attempts after the first. */
+        public long getRetryCount() {
+            return retries.get();
+        }
+
+        /** Calls that still failed after the last allowed attempt. */
+        public long getExhaustedCount() {
+            return exhausted.get();
+        }
+
+        /** Retries skipped because the retry budget was spent. */
+        public long getBudgetRejectedCount() {
+            return budgetRejected.get();
+        }
+
+        @Override
+        public String toString() {
+            return "calls=" + calls + ", attempts=" + attempts + ", retries=" + retries
+                    + ", exhausted=" + exhausted + ", budgetRejected=" + budgetRejected;
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    /** Checks the attempt limit and the budget, counting the retry or the reason it is not made. */
+    private boolean mayRetry(Metrics m, int attempt) {
+        if (attempt >= maxAttempts) {
+            m.exhausted.incrementAndGet();
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            m.budgetRejected.incrementAndGet();
+            log.warn("Retry budget spent; not retrying");
+            return false;
+        }
+        m.retries.incrementAndGet();
+        return true;
+    }
+
+    private static boolean isRetryable(Operation operation, int status, boolean hasRetryAfter) {
+        if (status == 429) {
+            return true;
+        }
+        if (operation.isIdempotent()) {
+            return status == 502 || status == 503 || status == 504;
+        }
+        // A 503 with Retry-After is the gateway refusing the request before acting on it
+        return status == 503 && hasRetryAfter;
+    }
+
+    private static boolean isRetryable(Operation operation, IOException e) {
+        if (e instanceof ConnectException || e instanceof ConnectTimeoutException) {
+            return true;
+        }
+        return operation.isIdempotent() && !(e instanceof UnknownHostException) && !(e instanceof SSLException);
+    }
+
+    private static boolean isReplayable(HttpUriRequest request) {
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return entity == null || entity.isRepeatable();
+        }
+        return true;
+    }
+
+    /** Full jitter: a uniformly random wait between zero and the exponential ceiling for the attempt. */
+    long backoffMs(int attempt) {
+        long ceiling = baseDelayMs << Math.min(attempt - 1, 30);
+        ceiling = ceiling <= 0 ? maxDelayMs : Math.min(maxDelayMs, ceiling);
+        return (long) (random.getAsDouble() * ceiling);
+    }
+
+    /** The Retry-After header in milliseconds, as delay-seconds or an HTTP date; -1 if absent or unreadable. */
+    long retryAfterMs(CloseableHttpResponse response) {
+        Header header = response.getFirstHeader("Retry-After");
+        if (header == null || header.getValue() == null) {
+            return -1L;
+        }
+        String value = header.getValue().trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0L, Long.parseLong(value)));
+        } catch (NumberFormatException nfe) {
+            Date date = DateUtils.parseDate(value);
+            return date != null ? Math.max(0L, date.getTime() - wallClock.getAsLong()) : -1L;
+        }
+    }
+
+    private void pause(long millis) throws InterruptedIOException {
+        try {
+            sleeper.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    /**
+     * Token bucket of retries: every call adds {@code ratio} tokens, time adds {@code minPerSecond}
+     * tokens per second, every retry takes one. Holds at most ten seconds' worth of the floor, and no
+     * fewer than ten tokens.
+     */
+    static final class RetryBudget {
+        private final double ratio;
+        private final double minPerSecond;
+        private final double capacity;
+        private final LongSupplier nanoClock;
+        private double balance;
+        private long lastRefillNanos;
+
+        RetryBudget(double ratio, double minPerSecond, LongSupplier nanoClock) {
+            this.ratio = Math.max(0.0, ratio);
+            this.minPerSecond = Math.max(0.0, minPerSecond);
+            this.capacity = Math.max(10.0, this.minPerSecond * 10);
+            this.nanoClock = nanoClock;
+            this.balance = this.minPerSecond;
+            this.lastRefillNanos = nanoClock.getAsLong();
+        }
+
+        synchronized void deposit() {
+            refill();
+            balance = Math.min(capacity, balance + ratio);
+        }
+
+        synchronized boolean tryWithdraw() {
+            refill();
+            if (balance < 1.0) {
+                return false;
+            }
+            balance -= 1.0;
+            return true;
+        }
+
+        private void refill() {
+            long now = nanoClock.getAsLong();
+            balance = Math.min(capacity, balance + minPerSecond * (now - lastRefillNanos) / 1e9);
+            lastRefillNanos = now;
+        }
+
+        @Override
+        public String toString() {
+            return "ratio=" + ratio + ", minPerSecond=" + minPerSecond;
+        }
+    }
+}
@@ -2,30 +2,32 @@ package gov.cms.esmd.rc.api.client;
 
 import com.google.gson.Gson;
 import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import gov.cms.esmd.utility.JsonCodec;
+import gov.cms.esmd.utility.JsonStreamUtils;
+import org.apache.http.HttpEntity;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.entity.ContentType;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * StatusApiClient
  *
  * Retrieves latest esMD status for a transaction.
- * - Uses HttpClient 4.x with configurable timeouts
+ * - Uses the shared pooled HttpTransport with configurable timeouts
  * - Validates inputs; never logs tokens
- * - Logs only small body snippets
+ * - Parses responses straight from the entity stream; logs only small body snippets
  * - Throws HttpResponseException on non-200
+ * - Lookups by transaction ID go through the StatusCache when one is configured
  *
  * NOTE: Header "uid" is set to the provided esmdTransactionId per existing code.
  *       Verify with API contract if "uid" should instead be a client ID.
@@ -38,9 +40,11 @@ public class StatusApiClient implements AutoCloseable, Closeable {
     private static final int DEF_SOCKET_TIMEOUT_MS  = 30_000;
     private static final int DEF_CONN_REQ_TIMEOUT_MS= 10_000;
 
-    private final CloseableHttpClient httpClient;
+    private final HttpTransport transport;
+    private final RequestConfig requestConfig;
     private final String statusUrl; // default endpoint
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonCodec.gson();
+    private final StatusCache statusCache; // optional
 
     /** Build with defaults and sane timeouts. */
     public StatusApiClient(String statusUrl) {
@@ -51,15 +55,19 @@ public class StatusApiClient implements AutoCloseable, Closeable {
                 .build());
     }
 
-    /** Build with custom RequestConfig (timeouts, etc.). */
+    /** Build with custom RequestConfig (timeouts, etc.); uses the shared StatusCache if enabled. */
     public StatusApiClient(String statusUrl, RequestConfig requestConfig) {
+        this(statusUrl, requestConfig, StatusCache.isEnabled() ? StatusCache.getShared() : null);
+    }
+
+    /** Build with custom RequestConfig and an explicit StatusCache (null disables caching). */
+    public StatusApiClient(String statusUrl, RequestConfig requestConfig, StatusCache statusCache) {
         if (isBlank(statusUrl)) throw new IllegalArgumentException("statusUrl cannot be null or empty");
         this.statusUrl = statusUrl.trim();
-        this.httpClient = HttpClients.custom()
-                .setDefaultRequestConfig(requestConfig)
-                .setRetryHandler(new DefaultHttpRequestRetryHandler(0, false)) // caller decides retries
-                .build();
-        log.info("StatusApiClient initialized: url={}", this.statusUrl);
+        this.requestConfig = requestConfig;
+        this.statusCache = statusCache;
+        this.transport = HttpTransport.getShared();
+        log.info("StatusApiClient initialized: url={}, cache={}", this.statusUrl, statusCache != null ? "on" : "off");
     }
 
     /**
@@ -83,12 +91,23 @@ public class StatusApiClient implements AutoCloseable, Closeable {
 
         final String endpoint = isBlank(url) ? this.statusUrl : url.trim();
 
+        if (statusCache != null) {
+            return statusCache.get(endpoint, esMDTransactionId,
+                    () -> fetchStatusByTransactionId(esMDTransactionId, mailboxId, token, endpoint));
+        }
+        return fetchStatusByTransactionId(esMDTransactionId, mailboxId, token, endpoint);
+    }
+
+    private NotificationResponse fetchStatusByTransactionId(
+            String esMDTransactionId, String mailboxId, String token, String endpoint) {
+
         if (log.isDebugEnabled()) {
             log.debug("Retrieving status: txId={}, mailboxId={}, endpoint={}",
                     safe(esMDTransactionId), mailboxId, endpoint);
         }
 
         HttpGet get = new HttpGet(endpoint);
+        get.setConfig(requestConfig);
         get.setHeader("Content-Type", ContentType.APPLICATION_JSON.getMimeType());
         get.setHeader("Authorization", normalizeBearer(token));
         get.setHeader("uid", esMDTransactionId);
@@ -97,22 +116,8 @@ public class StatusApiClient implements AutoCloseable, Closeable {
             get.setHeader("esMDTransactionId", esMDTransactionId);
         }
 
-        try (CloseableHttpResponse resp = httpClient.execute(get)) {
-            int status = resp.getStatusLine().getStatusCode();
-            String body = (resp.getEntity() != null)
-                    ? EntityUtils.toString(resp.getEntity(), StandardCharsets.UTF_8)
-                    : "";
-
-            if (status != 200) {
-                log.error("Status request failed: status={} body(snippet)={}", status, snippet(body));
-                throw new HttpResponseException(status, "Status request failed with status " + status);
-            }
-
-            if (log.isDebugEnabled()) {
-                log.debug("Status request succeeded: status={} body(snippet)={}", status, snippet(body));
-            }
-
-            return gson.fromJson(body, NotificationResponse.class);
+        try (CloseableHttpResponse resp = transport.execute(RetryPolicy.Operation.STATUS, get)) {
+            return JsonStreamUtils.read(checkStatus(resp), NotificationResponse.class, gson);
         } catch (IOException ioe) {
             log.error("I/O error during status request (txId={}, endpoint={}): {}",
                     safe(esMDTransactionId), endpoint, ioe.getMessage(), ioe);
@@ -148,31 +153,48 @@ public class StatusApiClient implements AutoCloseable, Closeable {
                      mailboxId, endpoint);
         }
 
-        HttpGet get = new HttpGet(endpoint);
-        get.setHeader("Content-Type", ContentType.APPLICATION_JSON.getMimeType());
-        get.setHeader("Authorization", normalizeBearer(token));
-        get.setHeader("senderroutingid", mailboxId);
-        get.setHeader("uid", "mailboxId");
-        if(!isBlank(esMDTransactionId)) {
-            get.setHeader("esMDTransactionId", esMDTransactionId);
-        }
+        // Keeps the uid header value this call has always sent
+        HttpGet get = latestStatusRequest(esMDTransactionId, mailboxId, "mailboxId", token, endpoint);
 
-        try (CloseableHttpResponse resp = httpClient.execute(get)) {
-            int status = resp.getStatusLine().getStatusCode();
-            String body = (resp.getEntity() != null)
-                    ? EntityUtils.toString(resp.getEntity(), StandardCharsets.UTF_8)
-                    : "";
+        try (CloseableHttpResponse resp = transport.execute(RetryPolicy.Operation.STATUS, get)) {
+            return JsonStreamUtils.read(checkStatus(resp), NotificationResponse.class, gson);
+        } catch (IOException ioe) {
+            log.error("I/O error during status request ( endpoint={}): {}",
+                     endpoint, ioe.getMessage(), ioe);
+            throw new IllegalStateException("I/O error during status request", ioe);
+        } catch (RuntimeException re) {
+            log.error("Unexpected error during status request ( endpoint={}): {}",
+                     endpoint, re.getMessage(), re);
+            throw re;
+        }
+    }
 
-            if (status != 200) {
-                log.error("Status request failed: status={} body(snippet)={}", status, snippet(body));
-                throw new HttpResponseException(status, "Status request failed with status " + status);
-            }
+    /**
+     * Retrieve latest statuses for the Routing ID, handing each StatusDetail to the consumer as soon as
+     * it is parsed from the response stream instead of collecting them into a list.
+     *
+     * @param esMDTransactionId optional transaction filter
+     * @param mailboxId         sender routing ID header value (required)
+     * @param token             bearer token or raw token (required)
+     * @param url               optional override endpoint; if blank, uses constructor URL
+     * @param statusConsumer    receives each StatusDetail in response order
+     * @return NotificationResponse envelope; its statusDetails list is not populated
+     * @throws IllegalArgumentException on invalid inputs
+     * @throws IllegalStateException on I/O errors
+     * @throws HttpResponseException on non-200 HTTP status
+     */
+    public NotificationResponse forEachLatestStatus(String esMDTransactionId, String mailboxId, String token,
+                                                    String url, Consumer<StatusDetail> statusConsumer) {
+        requireNonBlank(mailboxId, "mailboxId cannot be null or empty");
+        requireNonBlank(token, "token cannot be null or empty");
+        Objects.requireNonNull(statusConsumer, "statusConsumer");
 
-            if (log.isDebugEnabled()) {
-                log.debug("Status request succeeded: status={} body(snippet)={}", status, snippet(body));
-            }
+        final String endpoint = isBlank(url) ? this.statusUrl : url.trim();
+        HttpGet get = latestStatusRequest(esMDTransactionId, mailboxId, mailboxId, token, endpoint);
 
-            return gson.fromJson(body, NotificationResponse.class);
+        try (CloseableHttpResponse resp = transport.execute(RetryPolicy.Operation.STATUS, get)) {
+            return JsonStreamUtils.readEnvelope(checkStatus(resp), NotificationResponse.class, "statusDetails",
+                    StatusDetail.class, gson, statusConsumer);
         } catch (IOException ioe) {
             log.error("I/O error during status request ( endpoint={}): {}",
                      endpoint, ioe.getMessage(), ioe);
@@ -186,11 +208,26 @@ public class StatusApiClient implements AutoCloseable, Closeable {
 
     @Override
     public void close() throws IOException {
-        httpClient.close();
+        // Connections belong to the shared HttpTransport pool; nothing to release per client
     }
 
     /* ============================== Helpers ============================== */
 
+    /** GET for the latest statuses of the Routing ID, shared by the buffered and streaming variants. */
+    private HttpGet latestStatusRequest(String esMDTransactionId, String mailboxId, String uid, String token,
+                                        String endpoint) {
+        HttpGet get = new HttpGet(endpoint);
+        get.setConfig(requestConfig);
+        get.setHeader("Content-Type", ContentType.APPLICATION_JSON.getMimeType());
+        get.setHeader("Authorization", normalizeBearer(token));
+        get.setHeader("senderroutingid", mailboxId);
+        get.setHeader("uid", uid);
+        if(!isBlank(esMDTransactionId)) {
+            get.setHeader("esMDTransactionId", esMDTransactionId);
+        }
+        return get;
+    }
+
     private static void requireNonBlank(String s, String msg) {
         if (isBlank(s)) throw new IllegalArgumentException(msg);
     }
@@ -209,9 +246,18 @@ public class StatusApiClient implements AutoCloseable, Closeable {
         return value.length() <= 12 ? value : value.substring(0, 4) + "..." + value.substring(value.length() - 4);
     }
 
-    private static String snippet(String s) {
-        if (s == null) return "";
-        int max = 1024;
-        return s.length() <= max ? s : s.substring(0, max) + "...(truncated)";
+    /** Returns the entity of a 200 response; logs a bounded body snippet and throws otherwise. */
+    private static HttpEntity checkStatus(CloseableHttpResponse resp) throws HttpResponseException {
+        int status = resp.getStatusLine().getStatusCode();
+        if (status != 200) {
+            log.error("Status request failed: status={} body(snippet)={}", status,
+                    JsonStreamUtils.snippet(resp.getEntity(), JsonStreamUtils.DEFAULT_SNIPPET_CHARS));
+            throw new HttpResponseException(status, "Status request failed with status " + status);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Status request succeeded: status={} contentLength={}", status,
+                    resp.getEntity() != null ? resp.getEntity().getContentLength() : -1);
+        }
+        return resp.getEntity();
     }
 }
@@ -0,0 +1,248 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * StatusCache
+ *
+ * Bounded, thread-safe cache of status lookups keyed by (endpoint, esMD transaction ID).
+ * - Holds at most {@code api.status.cache.max-entries} responses; the least recently used is evicted first
+ * - Responses whose status is terminal ({@code api.status.cache.terminal-statuses}) are kept for
+ *   {@code terminal-ttl-seconds}; all others for {@code ttl-seconds}
+ * - Only successful responses that carry status details are cached; errors always reach the gateway
+ * - A load that overlaps an invalidation is returned but not cached, so it cannot bring back a stale response
+ * - Cached responses are shared between callers and must not be modified
+ * - Counts hits, misses and evictions for monitoring
+ */
+public final class StatusCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusCache.class);
+
+    // Property keys
+    private static final String KEY_ENABLED           = "api.status.cache.enabled";
+    private static final String KEY_MAX_ENTRIES       = "api.status.cache.max-entries";
+    private static final String KEY_TTL               = "api.status.cache.ttl-seconds";
+    private static final String KEY_TERMINAL_TTL      = "api.status.cache.terminal-ttl-seconds";
+    private static final String KEY_TERMINAL_STATUSES = "api.status.cache.terminal-statuses";
+
+    // Defaults
+    private static final int DEF_MAX_ENTRIES          = 10_000;
+    private static final int DEF_TTL_SECONDS          = 30;
+    private static final int DEF_TERMINAL_TTL_SECONDS = 3_600;
+    private static final String DEF_TERMINAL_STATUSES = "SUCCESS,FAILED,REJECTED";
+
+    private static volatile StatusCache shared;
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final long terminalTtlMs;
+    private final Set<String> terminalStatuses;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Bumped by every invalidation; guarded by the entries lock
+    private long epoch;
+
+    StatusCache(int maxEntries, long ttlMs, long terminalTtlMs, Set<String> terminalStatuses, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMs = Math.max(0L, ttlMs);
+        this.terminalTtlMs = Math.max(0L, terminalTtlMs);
+        this.terminalStatuses = Collections.unmodifiableSet(new HashSet<>(terminalStatuses));
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /** Whether status lookups should go through the shared cache ({@code api.status.cache.enabled}). */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(PropertiesUtils.loadProperties().getProperty(KEY_ENABLED, "false").trim());
+    }
+
+    /** Process-wide cache configured from {@code api.status.cache.*}; created on first use. */
+    public static StatusCache getShared() {
+        StatusCache c = shared;
+        if (c == null) {
+            synchronized (StatusCache.class) {
+                c = shared;
+                if (c == null) {
+                    c = new StatusCache(
+                            PropertiesUtils.getIntProperty(KEY_MAX_ENTRIES, DEF_MAX_ENTRIES),
+                            TimeUnit.SECONDS.toMillis(PropertiesUtils.getIntProperty(KEY_TTL, DEF_TTL_SECONDS)),
+                            TimeUnit.SECONDS.toMillis(PropertiesUtils.getIntProperty(KEY_TERMINAL_TTL, DEF_TERMINAL_TTL_SECONDS)),
+                            parseStatuses(PropertiesUtils.loadProperties().getProperty(KEY_TERMINAL_STATUSES, DEF_TERMINAL_STATUSES)),
+                            System::currentTimeMillis);
+                    shared = c;
+                    log.info("StatusCache initialized: maxEntries={}, ttlMs={}, terminalTtlMs={}, terminalStatuses={}",
+                            c.maxEntries, c.ttlMs, c.terminalTtlMs, c.terminalStatuses);
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Returns the cached response for the transaction, or loads, caches and returns a fresh one.
+     *
+     * @param endpoint the status endpoint the response comes from
+     * @param esMDTransactionId the esMD transaction ID
+     * @param loader retrieves the status from esMD on a miss; its exceptions propagate unchanged
+     * @return the cached or freshly loaded response
+     */
+    public NotificationResponse get(String endpoint, String esMDTransactionId, Supplier<NotificationResponse> loader) {
+        Key key = new Key(endpoint, esMDTransactionId);
+        long now = clock.getAsLong();
+        long loadEpoch;
+        synchronized (entries) {
+            loadEpoch = epoch;
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return entry.response;
+                }
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+
+        // Load outside the lock so slow lookups for other transactions are not blocked
+        NotificationResponse response = loader.get();
+        long ttl = ttlFor(response, esMDTransactionId);
+        if (ttl > 0) {
+            synchronized (entries) {
+                // An invalidation while loading may have been meant for this response; don't cache it
+                if (epoch == loadEpoch) {
+                    entries.put(key, new Entry(response, clock.getAsLong() + ttl));
+                    evictOverflow();
+                }
+            }
+        }
+        return response;
+    }
+
+    /** Drop every cached response for the transaction (e.g., after sending it a notification). */
+    public void invalidate(String esMDTransactionId) {
+        synchronized (entries) {
+            epoch++;
+            entries.keySet().removeIf(k -> k.esMDTransactionId.equals(esMDTransactionId));
+        }
+    }
+
+    /** Drop all cached responses. */
+    public void invalidateAll() {
+        synchronized (entries) {
+            epoch++;
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** The number of cached responses, including expired ones not yet removed. */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    /** Evicts least recently used entries above the size bound. Caller must hold the {@code entries} lock. */
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /** Terminal TTL if the transaction's status is terminal, normal TTL otherwise, 0 if not cacheable. */
+    private long ttlFor(NotificationResponse response, String esMDTransactionId) {
+        if (response == null || response.getStatusDetails() == null || response.getStatusDetails().isEmpty()) {
+            return 0L;
+        }
+        StatusDetail match = null;
+        for (StatusDetail detail : response.getStatusDetails()) {
+            if (detail != null && esMDTransactionId.equals(detail.getEsMDTransactionID())) {
+                match = detail;
+                break;
+            }
+        }
+        if (match == null) {
+            match = response.getStatusDetails().get(0);
+        }
+        String status = match != null ? match.getStatus() : null;
+        return status != null && terminalStatuses.contains(status.trim().toUpperCase(Locale.ROOT)) ? terminalTtlMs : ttlMs;
+    }
+
+    private static Set<String> parseStatuses(String csv) {
+        Set<String> statuses = new HashSet<>();
+        for (String s : csv.split(",")) {
+            if (!s.trim().isEmpty()) {
+                statuses.add(s.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        return statuses;
+    }
+
+    private static final class Key {
+        private final String endpoint;
+        private final String esMDTransactionId;
+
+        private Key(String endpoint, String esMDTransactionId) {
+            this.endpoint = Objects.requireNonNull(endpoint, "endpoint");
+            this.esMDTransactionId = Objects.requireNonNull(esMDTransactionId, "esMDTransactionId");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return endpoint.equals(k.endpoint) && esMDTransactionId.equals(k.esMDTransactionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, esMDTransactionId);
+        }
+    }
+
+    private static final class Entry {
+        private final NotificationResponse response;
+        private final long expiresAt;
+
+        private Entry(NotificationResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
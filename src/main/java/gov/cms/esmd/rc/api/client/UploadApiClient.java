@@ -3,25 +3,21 @@ package gov.cms.esmd.rc.api.client;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import gov.cms.esmd.bean.response.PresignedUrlResponse;
-import gov.cms.esmd.utility.FileUtils;
-import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.JsonCodec;
+import gov.cms.esmd.utility.JsonStreamUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.Properties;
-
-import static gov.cms.esmd.utility.FileUtils.readBytes;
+import java.nio.file.Files;
+import java.util.Objects;
 
 public class UploadApiClient implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(UploadApiClient.class);
@@ -32,30 +28,43 @@ public class UploadApiClient implements AutoCloseable {
     private static final int HTTP_OK = 200;
     private static final int HTTP_ACCEPTED = 202;
 
-    // Configuration properties
-    private final Properties apiProperties;
-    private final CloseableHttpClient httpClient;
+    // Configuration
+    private final EsmdConfig config;
+    private final HttpTransport transport;
     private final String uploadURL;
     private final String senderRoutingID;
     private final String environment;
     // Gson instance for JSON processing
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonCodec.gson();
     /**
-     * Constructs a new UploadApiClient for the specified environment.
+     * Constructs a new UploadApiClient for the specified environment using the current
+     * {@link EsmdConfig} snapshot.
      *
      * @param env the environment (dev, val, uat, prod)
      * @throws IllegalArgumentException if environment is null or empty
      * @throws IllegalStateException    if configuration cannot be loaded
      */
     public UploadApiClient(String env) {
+        this(EsmdConfig.get(), env);
+    }
+
+    /**
+     * Constructs a new UploadApiClient for the specified environment from a configuration snapshot.
+     *
+     * @param config the configuration snapshot
+     * @param env the environment (dev, val, uat, prod)
+     * @throws IllegalArgumentException if environment is null or empty
+     * @throws IllegalStateException    if the environment is not configured
+     */
+    public UploadApiClient(EsmdConfig config, String env) {
         validateEnvironment(env);
         this.environment = env;
 
         try {
-            this.apiProperties = PropertiesUtils.loadProperties();
-            this.httpClient = HttpClients.createDefault();
-            this.uploadURL = buildUploadURL(env);
-            this.senderRoutingID = getSenderRoutingID();
+            this.config = Objects.requireNonNull(config, "config");
+            this.transport = HttpTransport.getShared();
+            this.uploadURL = config.endpoints(env).getUploadUrl();
+            this.senderRoutingID = config.getMailboxId();
 
             logger.info("UploadApiClient initialized successfully for environment: {}", env);
         } catch (Exception e) {
@@ -71,6 +80,8 @@ public class UploadApiClient implements AutoCloseable {
      * @param key   the file key/identifier
      * @param token authentication token
      * @param uid   user identifier
+     * @param contentChecksum SHA-256 (hex) of the file, sent as the contentchecksum header
+     * @param fileSize file size in MB
      * @return PresignedUrlResponse containing the presigned URL
      * @throws IllegalArgumentException if any parameter is null or empty
      * @throws IllegalStateException    if the API call fails
@@ -79,17 +90,14 @@ public class UploadApiClient implements AutoCloseable {
 
 
     public PresignedUrlResponse getUploadPresignedURL(String key, String token,
-                                                      String uid, String md5Hex, String fileSize) {
+                                                      String uid, String contentChecksum, String fileSize) {
         validateInputs(key, token, uid);
 
         logger.info("Retrieving presigned URL for key: {} and user: {} in environment: {}", key, uid, environment);
 
-        try (CloseableHttpClient httpClient = HttpClientBuilder.create().build()) {
-            HttpPost request = createPresignedUrlRequest(key, token, uid, md5Hex, fileSize);
-
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                return processPresignedUrlResponse(response);
-            }
+        HttpPost request = createPresignedUrlRequest(key, token, uid, contentChecksum, fileSize);
+        try (CloseableHttpResponse response = transport.execute(RetryPolicy.Operation.PRESIGN, request)) {
+            return processPresignedUrlResponse(response);
         } catch (Exception e) {
             logger.error("Failed to retrieve presigned URL for key: {} and user: {} in environment: {}", key, uid, environment, e);
             throw new IllegalStateException("Failed to retrieve presigned URL", e);
@@ -99,20 +107,20 @@ public class UploadApiClient implements AutoCloseable {
     public PresignedUrlResponse processPresignedUrlResponse(CloseableHttpResponse response) throws IOException {
         int statusCode = response.getStatusLine().getStatusCode();
         HttpEntity entity = response.getEntity();
-        String responseContent = EntityUtils.toString(entity);
 
-        logger.info("Presigned URL response - Status: {}, Content length: {}, Response Content: {}",
-                statusCode, entity.getContentLength(), responseContent);
+        logger.debug("Presigned URL response - Status: {}, Content length: {}", statusCode,
+                entity != null ? entity.getContentLength() : -1);
 
         if (statusCode != HTTP_OK && statusCode != HTTP_ACCEPTED) {
-            logger.error("Presigned URL request failed with status: {}, response: {}", statusCode, responseContent);
+            logger.error("Presigned URL request failed with status: {}, response(snippet): {}", statusCode,
+                    JsonStreamUtils.snippet(entity, JsonStreamUtils.DEFAULT_SNIPPET_CHARS));
             throw new IllegalStateException("Presigned URL request failed with status: " + statusCode);
         }
 
         try {
-            return gson.fromJson(responseContent, PresignedUrlResponse.class);
+            return JsonStreamUtils.read(entity, PresignedUrlResponse.class, gson);
         } catch (JsonSyntaxException e) {
-            logger.error("Failed to parse presigned URL response: {}", responseContent, e);
+            logger.error("Failed to parse presigned URL response", e);
             throw new JsonSyntaxException("Invalid JSON response for presigned URL", e);
         }
     }
@@ -152,23 +160,34 @@ public class UploadApiClient implements AutoCloseable {
             connection.setRequestProperty("Content-Type","application/zip");
             connection.setRequestProperty("Authorization", token);
 
-            OutputStream out = new BufferedOutputStream(connection.getOutputStream());
-            logger.info("uploadFileWithPresignedURL , : Upload URL Connection Successful");
-            long partsize =  Long.parseLong(PropertiesUtils.getRequiredProperty("api.file-upload.partsize"));
-            // Upload the file parts.
+            // Stream with a known length so the body is not buffered in memory by HttpURLConnection
+            connection.setFixedLengthStreamingMode(contentLength);
+            // Heap use per upload stays at the buffer size regardless of file size
+            long partsize = config.getUploadPartSize();
+            int bufferSize = config.getUploadBufferSize();
+
+            // Read the file once, sequentially, through a single reusable buffer
             long filePosition = 0;
-            for (int i = 1; filePosition < contentLength; i++) {
-                // The last part could be less than 5 MB, adjust the part size as needed.
-                partsize = Math.min(partsize, (contentLength - filePosition));
-                logger.info("uploadFileWithPresignedURL ,FILE PART: " + partsize);
-                byte[] bytes = FileUtils.readBytes(file,new Long(partsize).intValue());
-                out.write(bytes);
-                filePosition += partsize;
+            try (InputStream in = Files.newInputStream(file.toPath());
+                 OutputStream out = connection.getOutputStream()) {
+                logger.info("uploadFileWithPresignedURL , : Upload URL Connection Successful");
+                byte[] buffer = new byte[bufferSize];
+                long nextProgressLog = partsize;
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    filePosition += read;
+                    if (filePosition >= nextProgressLog) {
+                        logger.info("uploadFileWithPresignedURL , uploaded {} of {} bytes", filePosition, contentLength);
+                        nextProgressLog += partsize;
+                    }
+                }
             }
-            logger.info("uploadFileWithPresignedURL ,CONTENT LENGTH : "+ new Long(contentLength).intValue());
-
-            out.close();
-            connection.getResponseCode();
+            if (filePosition != contentLength) {
+                throw new IOException("File size changed during upload: expected " + contentLength
+                        + " bytes but sent " + filePosition);
+            }
+            logger.info("uploadFileWithPresignedURL ,CONTENT LENGTH : {}", contentLength);
 
             BufferedReader br = null;
             if (connection.getResponseCode() == 200) {
@@ -206,31 +225,12 @@ public class UploadApiClient implements AutoCloseable {
             }
         }
 
-        private String buildUploadURL (String env){
-            String baseUrl = apiProperties.getProperty("api.environment." + env);
-            String endpoint = apiProperties.getProperty("api.url.download-url");
-
-            if (baseUrl == null || endpoint == null) {
-                throw new IllegalStateException("Missing required configuration for environment: " + env);
-            }
-
-            return baseUrl + endpoint;
-        }
-
-        private String getSenderRoutingID () {
-            String routingId = apiProperties.getProperty("userinfo.mailboxid");
-            if (routingId == null || routingId.trim().isEmpty()) {
-                throw new IllegalStateException("Missing sender routing ID configuration");
-            }
-            return routingId.trim();
-        }
-
         private HttpGet createFileListRequest (String token, String uid){
             HttpGet request = new HttpGet(uploadURL);
             request.setHeader("uid", uid);
             request.setHeader("senderroutingid", senderRoutingID);
             request.setHeader("authorization", "Bearer " + token);
-            request.setHeader("scope", apiProperties.getProperty("api.scope.download"));
+            request.setHeader("scope", config.getDownloadScope());
 
             logger.debug("Created file list request for URL: {} with headers: uid={}, senderroutingid={}",
                     uploadURL, uid, senderRoutingID);
@@ -238,16 +238,16 @@ public class UploadApiClient implements AutoCloseable {
         }
 
         private HttpPost createPresignedUrlRequest (String filename, String token,
-                                                    String uid, String md5Hex, String fileSize){
+                                                    String uid, String contentChecksum, String fileSize){
             HttpPost request = new HttpPost(uploadURL);
 
             request.setHeader("filename", filename);
             request.setHeader("Content-Type", "application/zip");
             request.setHeader("uid", uid);
             request.setHeader("size", fileSize);
-            request.setHeader("scope",apiProperties.getProperty("api.scope.upload"));
+            request.setHeader("scope", config.getUploadScope());
             request.setHeader("Authorization", token);
-            request.setHeader("contentchecksum", md5Hex);
+            request.setHeader("contentchecksum", contentChecksum);
             request.setHeader("senderroutingid", senderRoutingID);
 
             logger.debug("Created presigned URL request for URL: {} with headers: uid={}, senderroutingid={}",
@@ -263,17 +263,11 @@ public class UploadApiClient implements AutoCloseable {
         }
     }
     /**
-     * Closes the HTTP client and releases resources.
+     * Releases client resources. Connections belong to the shared {@link HttpTransport}
+     * pool and stay open for reuse by other clients.
      */
     @Override
     public void close() {
-        try {
-            if (httpClient != null) {
-                httpClient.close();
-                logger.debug("HTTP client closed successfully");
-            }
-        } catch (IOException e) {
-            logger.warn("Error closing HTTP client", e);
-        }
+        logger.debug("UploadApiClient closed; pooled connections retained by HttpTransport");
     }
 }
@@ -2,9 +2,13 @@ package gov.cms.esmd.rc.api.client;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import gov.cms.esmd.bean.ErrorMessage;
 import gov.cms.esmd.bean.response.EsmdStatusResponse;
 import gov.cms.esmd.utility.ChecksumUtil;
-import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.JsonCodec;
+import gov.cms.esmd.utility.RateLimiter;
 import gov.cms.esmd.utility.SecurityUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
@@ -14,19 +18,23 @@ import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.entity.FileEntity;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Client to upload WISeR PA Results JSON to esMD real-time endpoint.
@@ -57,63 +65,73 @@ public class UploadRealtimeApiClient {
     private static final String HDR_CONTENT_TYPE_CODE = "contenttypecode";
     private static final String HDR_SENDER_ROUTING_ID = "senderroutingid";
 
-    // Property keys
-    private static final String KEY_ENV_PREFIX = "api.environment.";
-    private static final String KEY_UPLOAD_ENDPOINT = "api.url.pa-results-realtime";
-    private static final String KEY_MAILBOX_ID = "userinfo.mailboxid";
-    private static final String KEY_LOB_ID = "application.linesofbusinessid";
-
-    // Optional HTTP timeout properties (ms)
-    private static final String KEY_HTTP_CONNECT_TIMEOUT = "http.connect.timeout.ms";
-    private static final String KEY_HTTP_SOCKET_TIMEOUT = "http.socket.timeout.ms";
-    private static final String KEY_HTTP_CONN_REQ_TIMEOUT = "http.connection.request.timeout.ms";
-
     // Timeout defaults
     private static final int DEF_CONNECT_TIMEOUT_MS = 10_000;
     private static final int DEF_SOCKET_TIMEOUT_MS = 60_000;
     private static final int DEF_CONN_REQ_TIMEOUT_MS = 10_000;
 
     // Configuration
-    private final Properties apiProperties;
-    private final CloseableHttpClient httpClient;
+    private final HttpTransport transport;
+    private final RequestConfig requestConfig;
     private final String environment;
     private final String uploadRealtimeURL;
     private final String senderRoutingID;
     private final String contentTypeCode;
+    private final RateLimiter bulkRateLimiter;
+    private final boolean followsCurrentConfig;
+    private volatile EsmdConfig bulkLimitsConfig;
+    private volatile int bulkConcurrency;
 
     // JSON
-    private final Gson gson = new Gson();
+    private final Gson gson = JsonCodec.gson();
 
     /**
-     * Construct using properties from {@link PropertiesUtils#loadProperties()} and a default HttpClient with timeouts.
+     * Construct using the current {@link EsmdConfig} snapshot and the shared pooled HttpTransport.
+     * Bulk concurrency and rate limits follow later snapshots, so a reloaded configuration can
+     * throttle or open up a long-lived client.
      *
      * @param env environment key (e.g., "UAT", "PROD")
      */
     public UploadRealtimeApiClient(String env) {
+        this(EsmdConfig.get(), env, true);
+    }
+
+    /**
+     * Construct from a configuration snapshot and the shared pooled HttpTransport.
+     *
+     * @param config the configuration snapshot
+     * @param env environment key (e.g., "UAT", "PROD")
+     * @throws IllegalStateException if the environment is not configured
+     */
+    public UploadRealtimeApiClient(EsmdConfig config, String env) {
+        this(config, env, false);
+    }
+
+    private UploadRealtimeApiClient(EsmdConfig config, String env, boolean followsCurrentConfig) {
         SecurityUtils.validateAlphanumeric(env, "Environment");
+        Objects.requireNonNull(config, "config");
         this.environment = env;
 
         try {
-            this.apiProperties = PropertiesUtils.loadProperties();
+            int connectTimeout = config.getHttpConnectTimeoutMs(DEF_CONNECT_TIMEOUT_MS);
+            int socketTimeout  = config.getHttpSocketTimeoutMs(DEF_SOCKET_TIMEOUT_MS);
+            int connReqTimeout = config.getHttpConnectionRequestTimeoutMs(DEF_CONN_REQ_TIMEOUT_MS);
 
-            int connectTimeout = getIntProp(KEY_HTTP_CONNECT_TIMEOUT, DEF_CONNECT_TIMEOUT_MS);
-            int socketTimeout  = getIntProp(KEY_HTTP_SOCKET_TIMEOUT,  DEF_SOCKET_TIMEOUT_MS);
-            int connReqTimeout = getIntProp(KEY_HTTP_CONN_REQ_TIMEOUT, DEF_CONN_REQ_TIMEOUT_MS);
-
-            RequestConfig rc = RequestConfig.custom()
+            this.requestConfig = RequestConfig.custom()
                     .setConnectTimeout(connectTimeout)
                     .setSocketTimeout(socketTimeout)                  // <- 4.x uses socket timeout
                     .setConnectionRequestTimeout(connReqTimeout)
                     .build();
 
-            this.httpClient = HttpClients.custom()
-                    .setDefaultRequestConfig(rc)
-                    .setRetryHandler(new DefaultHttpRequestRetryHandler(0, false))
-                    .build();
+            this.transport = HttpTransport.getShared();
 
-            this.uploadRealtimeURL = buildUploadRealtimeURL(environment);
-            this.senderRoutingID = getRequiredProp(KEY_MAILBOX_ID, "Missing sender routing ID configuration");
-            this.contentTypeCode = getRequiredProp(KEY_LOB_ID, "Missing linesofbusinessid property in configuration file");
+            this.uploadRealtimeURL = config.endpoints(environment).getRealtimeUrl();
+            this.senderRoutingID = config.getMailboxId();
+            this.contentTypeCode = config.getLinesOfBusinessId();
+            this.bulkConcurrency = config.getRealtimeBulkConcurrency();
+            this.bulkRateLimiter = new RateLimiter(config.getRealtimeBulkRequestsPerSecond());
+            this.bulkLimitsConfig = config;
+            this.followsCurrentConfig = followsCurrentConfig;
 
             log.info("UploadRealtimeApiClient initialized for env={} endpoint={}", environment, uploadRealtimeURL);
         } catch (RuntimeException e) {
@@ -127,7 +145,7 @@ public class UploadRealtimeApiClient {
      *
      * @param bodyJson JSON payload (UTF-8)
      * @param letterId Letter identifier header value (required)
-     * @param token OAuth2 bearer token (required; never logged)
+     * @param token OAuth2 bearer token, with or without the "Bearer " prefix (required; never logged)
      * @param uid Caller/user id for header "uid" (required)
      * @return parsed EsmdStatusResponse from esMD
      * @throws IllegalArgumentException for invalid inputs
@@ -137,23 +155,86 @@ public class UploadRealtimeApiClient {
      */
     public EsmdStatusResponse uploadJsonToEsmd(String bodyJson, String letterId, String token, String uid) {
         SecurityUtils.validateNotNullOrEmpty(bodyJson, "bodyJson");
-        SecurityUtils.validateAlphanumeric(letterId, "letterId");
-        SecurityUtils.validateNotNullOrEmpty(token, "token");
-        SecurityUtils.validateAlphanumeric(uid, "uid");
         SecurityUtils.validateJsonSize(bodyJson, "bodyJson");
 
+        // One encoding pass; the same bytes are hashed and sent
         final byte[] bytes = bodyJson.getBytes(StandardCharsets.UTF_8);
-        final int byteSize = bytes.length; // accurate size in bytes
-        final String checksumHex = ChecksumUtil.sha256Hex(bytes);
+        return upload(new ByteArrayEntity(bytes, ContentType.APPLICATION_JSON), bytes.length,
+                ChecksumUtil.sha256Hex(bytes), letterId, token, uid);
+    }
+
+    /**
+     * Uploads a WISeR PA Results JSON file to the esMD real-time API. The file is hashed with a
+     * streaming SHA-256 and sent from disk, without being loaded into memory.
+     *
+     * @param jsonFile JSON payload file (UTF-8)
+     * @param letterId Letter identifier header value (required)
+     * @param token OAuth2 bearer token, with or without the "Bearer " prefix (required; never logged)
+     * @param uid Caller/user id for header "uid" (required)
+     * @return parsed EsmdStatusResponse from esMD
+     * @throws IllegalArgumentException for invalid inputs or an empty or oversized file
+     * @throws IllegalStateException for transport/IO errors
+     * @throws JsonSyntaxException if the response JSON cannot be parsed
+     */
+    public EsmdStatusResponse uploadJsonToEsmd(Path jsonFile, String letterId, String token, String uid) {
+        Objects.requireNonNull(jsonFile, "jsonFile");
+        final long byteSize;
+        try {
+            byteSize = Files.size(jsonFile);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Cannot read JSON file: " + jsonFile, ioe);
+        }
+        SecurityUtils.validateJsonSize(byteSize, "jsonFile");
+
+        return upload(new FileEntity(jsonFile.toFile(), ContentType.APPLICATION_JSON), byteSize,
+                ChecksumUtil.sha256Hex(jsonFile), letterId, token, uid);
+    }
+
+    /**
+     * Uploads a WISeR PA Results JSON payload held in a buffer to the esMD real-time API. The remaining
+     * bytes of a heap buffer are hashed and sent in place; the buffer's position is not changed.
+     *
+     * @param body JSON payload (UTF-8), from position to limit
+     * @param letterId Letter identifier header value (required)
+     * @param token OAuth2 bearer token, with or without the "Bearer " prefix (required; never logged)
+     * @param uid Caller/user id for header "uid" (required)
+     * @return parsed EsmdStatusResponse from esMD
+     * @throws IllegalArgumentException for invalid inputs or an empty or oversized payload
+     * @throws IllegalStateException for transport/IO errors
+     * @throws JsonSyntaxException if the response JSON cannot be parsed
+     */
+    public EsmdStatusResponse uploadJsonToEsmd(ByteBuffer body, String letterId, String token, String uid) {
+        Objects.requireNonNull(body, "body");
+        final int byteSize = body.remaining();
+        SecurityUtils.validateJsonSize(byteSize, "body");
+
+        final ByteArrayEntity entity;
+        if (body.hasArray()) {
+            entity = new ByteArrayEntity(body.array(), body.arrayOffset() + body.position(), byteSize, ContentType.APPLICATION_JSON);
+        } else {
+            // Direct or read-only buffers have no accessible array; copy once
+            byte[] bytes = new byte[byteSize];
+            body.duplicate().get(bytes);
+            entity = new ByteArrayEntity(bytes, ContentType.APPLICATION_JSON);
+        }
+        return upload(entity, byteSize, ChecksumUtil.sha256Hex(body), letterId, token, uid);
+    }
+
+    /** Validate headers, send the entity and parse the response. */
+    private EsmdStatusResponse upload(HttpEntity entity, long byteSize, String checksumHex,
+                                      String letterId, String token, String uid) {
+        SecurityUtils.validateAlphanumeric(letterId, "letterId");
+        SecurityUtils.validateNotNullOrEmpty(token, "token");
+        SecurityUtils.validateAlphanumeric(uid, "uid");
 
         if (log.isDebugEnabled()) {
             log.debug("Preparing real-time upload env={}, letterId={}, sizeBytes={}, checksum={}",
                     environment, letterId, byteSize, checksumHex);
         }
 
-        HttpPost request = createUploadRealtimeRequest(token, uid, checksumHex, bodyJson, byteSize, letterId);
+        HttpPost request = createUploadRealtimeRequest(token, uid, checksumHex, entity, byteSize, letterId);
 
-        try (CloseableHttpResponse response = httpClient.execute(request)) {
+        try (CloseableHttpResponse response = transport.execute(RetryPolicy.Operation.REALTIME_UPLOAD, request)) {
             return processUploadRealtimeResponse(response);
         } catch (IOException ioe) {
             log.error("I/O error during real-time upload (env={}, letterId={}): {}", environment, letterId, ioe.getMessage(), ioe);
@@ -163,10 +244,11 @@ public class UploadRealtimeApiClient {
 
     /** Build the HTTP request with headers and JSON body. */
     private HttpPost createUploadRealtimeRequest(String token, String uid, String checksumHex,
-                                                 String bodyJson, int sizeBytes, String letterId) {
+                                                 HttpEntity body, long sizeBytes, String letterId) {
         HttpPost request = new HttpPost(uploadRealtimeURL);
+        request.setConfig(requestConfig);
         request.setHeader(HDR_CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
-        request.setHeader(HDR_AUTHORIZATION, "Bearer " + token);
+        request.setHeader(HDR_AUTHORIZATION, normalizeBearer(token));
         request.setHeader(HDR_CONTENT_CHECKSUM, checksumHex);
         request.setHeader(HDR_UID, uid);
         request.setHeader(HDR_SIZE, String.valueOf(sizeBytes));
@@ -178,7 +260,7 @@ public class UploadRealtimeApiClient {
         request.setHeader("User-Agent", "esmd-wiser-utility/1.0");
         request.setHeader("Accept", "application/json");
         
-        request.setEntity(new StringEntity(bodyJson, ContentType.APPLICATION_JSON));
+        request.setEntity(body);
 
         if (log.isDebugEnabled()) {
             log.debug("Created UploadRealtime request url={} uid={} senderRoutingId={} contentTypeCode={} letterId={}",
@@ -210,6 +292,119 @@ public class UploadRealtimeApiClient {
         }
     }
 
+    /**
+     * Uploads every letter in a directory (recursive) whose file name ends with the given suffix.
+     * The letter ID is the file name without the suffix. Each file is streamed from disk by the
+     * worker that sends it; only the sorted file list is held up front.
+     *
+     * @param dirPath directory path
+     * @param fileSuffix suffix to match (e.g., ".json")
+     * @param tokenSupplier supplies a valid token for each request (e.g., backed by AuthTokenCache)
+     * @param uid Caller/user id for header "uid" (required)
+     * @return one EsmdStatusResponse per letter, in sorted file name order
+     * @throws IllegalArgumentException if dirPath is invalid
+     * @throws IllegalStateException if interrupted while waiting for the uploads
+     */
+    public List<EsmdStatusResponse> uploadLettersToEsmd(String dirPath, String fileSuffix,
+                                                        Supplier<String> tokenSupplier, String uid) {
+        Stream<Letter> letters = listLetterFiles(dirPath, fileSuffix).stream()
+                .map(file -> Letter.fromFile(
+                        file.getName().substring(0, file.getName().length() - fileSuffix.length()), file.toPath()));
+        return uploadLettersToEsmd(letters, tokenSupplier, uid);
+    }
+
+    /**
+     * Uploads letters to the esMD real-time API, {@code api.realtime.bulk.concurrency} at a time over the
+     * shared connection pool, without exceeding {@code api.realtime.bulk.requests-per-second} requests
+     * per second across all bulk calls on this client. Letters are pulled from the stream only as
+     * workers free up, so at most {@code api.realtime.bulk.concurrency} are held at once. A letter
+     * that fails is reported as a FAILED response and does not stop the others.
+     *
+     * @param letters the letters to upload
+     * @param tokenSupplier supplies a valid token for each request (e.g., backed by AuthTokenCache)
+     * @param uid Caller/user id for header "uid" (required)
+     * @return one EsmdStatusResponse per letter, in stream order
+     * @throws IllegalArgumentException for invalid inputs
+     * @throws IllegalStateException if interrupted while waiting for the uploads
+     */
+    public List<EsmdStatusResponse> uploadLettersToEsmd(Stream<Letter> letters, Supplier<String> tokenSupplier, String uid) {
+        Objects.requireNonNull(letters, "letters");
+        Objects.requireNonNull(tokenSupplier, "tokenSupplier");
+        SecurityUtils.validateAlphanumeric(uid, "uid");
+
+        refreshBulkLimits();
+        log.info("Starting bulk real-time upload env={} concurrency={} rps={}",
+                environment, bulkConcurrency, bulkRateLimiter.getRate());
+
+        try {
+            List<EsmdStatusResponse> responses = ConcurrencyUtils.invokeAllInOrder(letters.iterator(), bulkConcurrency, "esmd-realtime",
+                    letter -> uploadLetter(letter, tokenSupplier, uid),
+                    (letter, error) -> failedResponse(letter.getLetterId(), error));
+            log.info("Bulk real-time upload completed env={} letters={}", environment, responses.size());
+            return responses;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during bulk real-time upload", ie);
+        }
+    }
+
+    /**
+     * Applies the bulk limits of a reloaded configuration; the rate takes effect for the next permit,
+     * the concurrency for the next bulk call. Clients pinned to a snapshot keep their limits.
+     */
+    private void refreshBulkLimits() {
+        if (!followsCurrentConfig) {
+            return;
+        }
+        EsmdConfig config = EsmdConfig.get();
+        if (config == bulkLimitsConfig) {
+            return;
+        }
+        synchronized (bulkRateLimiter) {
+            if (config != bulkLimitsConfig) {
+                bulkConcurrency = config.getRealtimeBulkConcurrency();
+                bulkRateLimiter.setRate(config.getRealtimeBulkRequestsPerSecond());
+                bulkLimitsConfig = config;
+                log.info("Bulk real-time limits updated env={} concurrency={} rps={}",
+                        environment, bulkConcurrency, bulkRateLimiter.getRate());
+            }
+        }
+    }
+
+    private EsmdStatusResponse uploadLetter(Letter letter, Supplier<String> tokenSupplier, String uid) {
+        try {
+            refreshBulkLimits();
+            bulkRateLimiter.acquire();
+            EsmdStatusResponse response = letter.getPath() != null
+                    ? uploadJsonToEsmd(letter.getPath(), letter.getLetterId(), tokenSupplier.get(), uid)
+                    : uploadJsonToEsmd(letter.getJson(), letter.getLetterId(), tokenSupplier.get(), uid);
+            if (response == null) {
+                response = new EsmdStatusResponse();
+            }
+            if (isBlank(response.getLetterId())) {
+                response.setLetterId(letter.getLetterId());
+            }
+            return response;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return failedResponse(letter.getLetterId(), ie);
+        } catch (RuntimeException re) {
+            log.warn("Real-time upload failed for letterId={}: {}", letter.getLetterId(), re.getMessage());
+            return failedResponse(letter.getLetterId(), re);
+        }
+    }
+
+    private static EsmdStatusResponse failedResponse(String letterId, Throwable error) {
+        Throwable cause = (error instanceof IllegalStateException && error.getCause() != null) ? error.getCause() : error;
+        EsmdStatusResponse response = new EsmdStatusResponse();
+        response.setLetterId(letterId);
+        response.setStatus("FAILED");
+        response.setStatusDescription(cause.getMessage());
+        response.getErrorDetails().add(new ErrorMessage("UPLOAD_FAILED", "Upload Error",
+                "Failed to upload letter " + letterId + ": " + cause.getMessage()));
+        return response;
+    }
+
     /**
      * Returns file names in a directory matching a given suffix (recursive).
      *
@@ -222,6 +417,68 @@ public class UploadRealtimeApiClient {
         requireNonBlank(dirPath, "dirPath cannot be null or empty");
         requireNonBlank(fileSuffix, "fileSuffix cannot be null or empty");
 
+        List<String> names = new ArrayList<>();
+        for (File f : listLetterFiles(dirPath, fileSuffix)) {
+            names.add(f.getName());
+        }
+        return names;
+    }
+
+    /**
+     * A real-time letter: its ID and JSON body, held in memory or read from a file when sent.
+     */
+    public static final class Letter {
+        private final String letterId;
+        private final String json;
+        private final Path path;
+
+        private Letter(String letterId, String json, Path path) {
+            this.letterId = letterId;
+            this.json = json;
+            this.path = path;
+        }
+
+        /** A letter whose JSON is already in memory. */
+        public static Letter of(String letterId, String json) {
+            return new Letter(letterId, json, null);
+        }
+
+        /** A letter whose JSON is read (UTF-8) from the given file when it is sent. */
+        public static Letter fromFile(String letterId, Path path) {
+            return new Letter(letterId, null, Objects.requireNonNull(path, "path"));
+        }
+
+        public String getLetterId() {
+            return letterId;
+        }
+
+        /** The file the letter is read from, or null for an in-memory letter. */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * @return the letter JSON
+         * @throws UncheckedIOException if a file-backed letter cannot be read
+         */
+        public String getJson() {
+            if (path == null) {
+                return json;
+            }
+            try {
+                return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read letter file: " + path, e);
+            }
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private List<File> listLetterFiles(String dirPath, String fileSuffix) {
+        requireNonBlank(dirPath, "dirPath cannot be null or empty");
+        requireNonBlank(fileSuffix, "fileSuffix cannot be null or empty");
+
         File dir = new File(dirPath);
         if (!dir.isDirectory()) {
             throw new IllegalArgumentException("Not a directory: " + dir.getAbsolutePath());
@@ -233,46 +490,19 @@ public class UploadRealtimeApiClient {
                 TrueFileFilter.INSTANCE
         );
 
-        List<String> names = new ArrayList<>();
+        List<File> letterFiles = new ArrayList<>();
         for (File f : files) {
             if (!f.isDirectory()) {
-                names.add(f.getName());
+                letterFiles.add(f);
             }
         }
-        names.sort(Comparator.naturalOrder());
-        return names;
+        letterFiles.sort(Comparator.comparing(File::getName));
+        return letterFiles;
     }
 
-    /* ============================== Helpers ============================== */
-
-    private String buildUploadRealtimeURL(String env) {
-        String baseUrl = apiProperties.getProperty(KEY_ENV_PREFIX + env);
-        String endpoint = apiProperties.getProperty(KEY_UPLOAD_ENDPOINT);
-
-        if (isBlank(baseUrl) || isBlank(endpoint)) {
-            throw new IllegalStateException(
-                    "Missing required configuration for environment: " + env +
-                            " (expected keys: '" + KEY_ENV_PREFIX + env + "', '" + KEY_UPLOAD_ENDPOINT + "')"
-            );
-        }
-        return baseUrl.trim() + endpoint.trim();
-    }
-
-    private String getRequiredProp(String key, String errorMessage) {
-        String val = apiProperties.getProperty(key);
-        if (isBlank(val)) throw new IllegalStateException(errorMessage + " [" + key + "]");
-        return val.trim();
-    }
-
-    private int getIntProp(String key, int defVal) {
-        String v = apiProperties.getProperty(key);
-        if (isBlank(v)) return defVal;
-        try {
-            return Integer.parseInt(v.trim());
-        } catch (NumberFormatException nfe) {
-            log.warn("Invalid integer for {}='{}'; using default {}", key, v, defVal);
-            return defVal;
-        }
+    private static String normalizeBearer(String tokenOrHeader) {
+        String t = tokenOrHeader.trim();
+        return t.regionMatches(true, 0, "Bearer ", 0, 7) ? t : "Bearer " + t;
     }
 
     private static String requireNonBlank(String s, String msg) {
@@ -1,30 +1,28 @@
 package gov.cms.esmd.rc.impl;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import gov.cms.esmd.bean.ErrorMessage;
 import gov.cms.esmd.bean.auth.response.AuthResponse;
 import gov.cms.esmd.bean.response.*;
-import gov.cms.esmd.rc.api.client.AuthApiClient;
+import gov.cms.esmd.rc.api.client.AuthTokenCache;
 import gov.cms.esmd.rc.api.client.DownloadApiClient;
 import gov.cms.esmd.rc.api.client.NotificationApiClient;
-import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.ZipUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Properties;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * DownloadImpl handles the complete workflow for downloading Wiser requests from esMD.
@@ -38,14 +36,25 @@ public class DownloadImpl {
 
     private static final Logger logger = LoggerFactory.getLogger(DownloadImpl.class);
     
-    private final Properties apiProperties;
+    private final Supplier<EsmdConfig> configSource;
 
     /**
-     * Constructs a new DownloadImpl instance.
-     * Loads the API properties from the YAML configuration file.
+     * Constructs a new DownloadImpl instance that follows the current {@link EsmdConfig} snapshot,
+     * so a reloaded configuration applies from the next call.
      */
     public DownloadImpl() {
-        this.apiProperties = PropertiesUtils.loadProperties();
+        this.configSource = EsmdConfig::get;
+        logger.info("DownloadImpl initialized successfully");
+    }
+
+    /**
+     * Constructs a new DownloadImpl instance pinned to a configuration snapshot.
+     *
+     * @param config the configuration snapshot
+     */
+    public DownloadImpl(EsmdConfig config) {
+        Objects.requireNonNull(config, "config");
+        this.configSource = () -> config;
         logger.info("DownloadImpl initialized successfully");
     }
 
@@ -57,12 +66,29 @@ public class DownloadImpl {
      * 3. For each file, gets a presigned URL and downloads it
      * 4. Extracts zip files to the local file path
      *
+     * Files are processed concurrently when {@code api.file-download.concurrency} is greater than one.
+     *
      * @param environment the target environment (dev, val, uat, prod)
      * @return List of StatusDetail objects containing download status for each zip file
      * @throws Exception if any step in the download process fails
      */
     public List<StatusDetail> downloadWiserRequestsFromesMD(String environment) throws Exception {
-        logger.info("Starting download process for environment: {}", environment);
+        return downloadWiserRequestsFromesMD(environment, configSource.get().getDownloadConcurrency());
+    }
+
+    /**
+     * Downloads Wiser requests from esMD for the specified environment, processing up to
+     * {@code maxInFlight} files at the same time. Each worker runs the presign, download,
+     * extract and pickup notification stages for one file, so the stages of different files
+     * overlap. The returned list holds one StatusDetail per file in mailbox listing order.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     * @param maxInFlight the maximum number of files processed concurrently; 1 processes serially
+     * @return List of StatusDetail objects containing download status for each zip file
+     * @throws Exception if any step in the download process fails
+     */
+    public List<StatusDetail> downloadWiserRequestsFromesMD(String environment, int maxInFlight) throws Exception {
+        logger.info("Starting download process for environment: {} (maxInFlight={})", environment, maxInFlight);
         
         // Initialize status details list
         List<StatusDetail> statusDetails = new ArrayList<>();
@@ -73,19 +99,19 @@ public class DownloadImpl {
         }
 
         // Read configuration from YAML properties
-        String scope = getRequiredProperty("api.scope.download");
-        String clientId = getRequiredProperty("userinfo.clientid");
-        String localFilePath = getRequiredProperty("api.file-download.local-path");
+        EsmdConfig config = configSource.get();
+        String scope = config.getDownloadScope();
+        String clientId = config.getClientId();
+        String localFilePath = config.getDownloadLocalPath();
         
         logger.debug("Configuration loaded - scope: {}, clientId: {}, localPath: {}", 
                     scope, clientId, localFilePath);
 
-        try (AuthApiClient authClient = new AuthApiClient(environment);
-             DownloadApiClient downloadClient = new DownloadApiClient(environment)) {
+        try (DownloadApiClient downloadClient = new DownloadApiClient(config, environment)) {
 
             // Step 1: Get authentication token
             logger.info("Step 1: Getting authentication token for scope: {}", scope);
-            AuthResponse authResponse = authClient.getToken(scope);
+            AuthResponse authResponse = AuthTokenCache.getInstance().getToken(environment, scope);
             
             if (authResponse.getError() != null && !authResponse.getError().isEmpty()) {
                 throw new IllegalStateException("Authentication failed: " + authResponse.getError());
@@ -106,12 +132,25 @@ public class DownloadImpl {
             List<DownloadObject> files = downloadResponse.getObjects();
             logger.info("Found {} files available for download", files.size());
 
-            // Step 3 & 4: Process each file
-            for (DownloadObject file : files) {
-                StatusDetail statusDetail = processFileDownload(
-                        file, downloadClient, token, clientId, localFilePath, environment);
-                statusDetails.add(statusDetail);
+            // Step 3 & 4: Process each file; pickup notifications are batched across files,
+            // or handed to the durable outbox when it is enabled
+            List<CompletableFuture<Void>> pickups = Collections.synchronizedList(new ArrayList<>());
+            boolean useOutbox = NotificationOutbox.isEnabled();
+            try (PickupNotificationBatcher pickupBatcher = useOutbox ? null : new PickupNotificationBatcher(environment)) {
+                if (maxInFlight <= 1) {
+                    for (DownloadObject file : files) {
+                        StatusDetail statusDetail = processFileDownload(
+                                file, downloadClient, token, clientId, localFilePath, environment, pickupBatcher, pickups);
+                        statusDetails.add(statusDetail);
+                    }
+                } else {
+                    statusDetails.addAll(ConcurrencyUtils.invokeAllInOrder(files, maxInFlight, "esmd-download",
+                            file -> processFileDownload(file, downloadClient, token, clientId, localFilePath, environment, pickupBatcher, pickups),
+                            (file, error) -> failedStatusDetail(file.getFilename(), error)));
+                }
             }
+            // Closing the batcher sent the last batch; wait until every outcome is applied
+            CompletableFuture.allOf(pickups.toArray(new CompletableFuture[0])).join();
             
             logger.info("Download process completed for environment: {}", environment);
             
@@ -132,10 +171,15 @@ public class DownloadImpl {
      * @param token the authentication token
      * @param clientId the client identifier
      * @param localFilePath the base local file path
+     * @param environment the target environment
+     * @param pickupBatcher the batcher that submits the pickup notification for an extracted file,
+     *                      or null to queue it in the {@link NotificationOutbox}
+     * @param pickups collects the pending pickup outcomes, applied to the returned StatusDetail when they complete
      * @return StatusDetail object containing the download status
      */
-    private StatusDetail processFileDownload(DownloadObject file, DownloadApiClient downloadClient, 
-                                   String token, String clientId, String localFilePath, String environment) {
+    private StatusDetail processFileDownload(DownloadObject file, DownloadApiClient downloadClient,
+                                   String token, String clientId, String localFilePath, String environment,
+                                   PickupNotificationBatcher pickupBatcher, List<CompletableFuture<Void>> pickups) {
         
         String filename = file.getFilename();
         logger.info("Processing file: {}", filename);
@@ -174,9 +218,22 @@ public class DownloadImpl {
 
             // Step 4: Download the file using presigned URL
             String fullLocalPath = localFilePath + "\\" + filename;
-            logger.info("Downloading file to: {}", fullLocalPath);
-            
-            boolean downloadSuccess = downloadClient.downloadFileWithPresignedURL(presignedUrl, fullLocalPath, token);
+            boolean isZip = filename.toLowerCase().endsWith(".zip");
+            boolean streamExtract = isZip && configSource.get().isDownloadStreamExtract();
+
+            boolean downloadSuccess;
+            if (streamExtract) {
+                // Unzip while the bytes arrive; the raw ZIP is only written when it is kept for audit
+                boolean keepArchive = configSource.get().isDownloadKeepArchive();
+                logger.info("Downloading and extracting file to: {}", localFilePath);
+                downloadSuccess = downloadClient.downloadAndExtractWithPresignedURL(
+                        presignedUrl, localFilePath, token, keepArchive ? fullLocalPath : null,
+                        parseExpectedSize(file.getSize()));
+            } else {
+                logger.info("Downloading file to: {}", fullLocalPath);
+                downloadSuccess = downloadClient.downloadFileWithPresignedURL(
+                        presignedUrl, fullLocalPath, token, parseExpectedSize(file.getSize()));
+            }
             
             if (!downloadSuccess) {
                 logger.error("Failed to download file: {}", filename);
@@ -200,24 +257,23 @@ public class DownloadImpl {
             }
 
             // Step 5: Extract zip file if it's a zip file
-            if (filename.toLowerCase().endsWith(".zip")) {
+            if (isZip) {
                 logger.info("Extracting zip file: {}", filename);
-                boolean extractSuccess = extractZipFile(fullLocalPath, localFilePath);
+                boolean extractSuccess = streamExtract || extractZipFile(fullLocalPath, localFilePath);
                 
                 if (extractSuccess) {
                     logger.info("Successfully extracted zip file: {}", filename);
                     statusDetail.setStatusDescription("File downloaded and extracted successfully");
-                    String notificationType = getRequiredProperty("api.notification.pickup");
-                    String senderRoutingId = getRequiredProperty("userinfo.mailboxid");
-                    NotificationsImpl notifications = new NotificationsImpl();
-                    // create Pickup Notification
-                    String pickupNotification = notifications.createPickupNotification(
-                            notificationType, senderRoutingId, esmdTransactionId, filename);
-                    logger.info("Successfully created Pickup Notification: {}", pickupNotification);
-                    // Submit Pickup Notification
-                   NotificationResponse notificationResponse = notifications.sendNotificationToESMD(environment,pickupNotification, notificationType);
-                    Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                    logger.info("Successfully submitted Pickup Notification to esMD: {}", gson.toJson(notificationResponse));
+                    if (pickupBatcher == null) {
+                        // Durable outbox: sent in the background, retried until accepted, survives restarts
+                        NotificationOutbox.getShared().enqueuePickup(environment, esmdTransactionId, filename);
+                        statusDetail.setStatusDescription("File downloaded and extracted successfully; pickup notification queued");
+                    } else {
+                        // Queue Pickup Notification; it is submitted with the next batch
+                        pickups.add(pickupBatcher.submit(esmdTransactionId, filename)
+                                .thenAccept(outcome -> applyPickupOutcome(statusDetail, filename, outcome)));
+                    }
+                    logger.info("Queued Pickup Notification for file: {}", filename);
                 } else {
                     logger.warn("Failed to extract zip file: {}", filename);
                     statusDetail.setStatus("PARTIAL_SUCCESS");
@@ -241,6 +297,48 @@ public class DownloadImpl {
         return statusDetail;
     }
 
+    /**
+     * Records the outcome of a file's pickup notification on its StatusDetail.
+     * A failed notification downgrades the file to PARTIAL_SUCCESS.
+     *
+     * @param statusDetail the file's StatusDetail
+     * @param filename the file name
+     * @param outcome the StatusDetail esMD returned for the notification
+     */
+    private void applyPickupOutcome(StatusDetail statusDetail, String filename, StatusDetail outcome) {
+        if ("FAILED".equalsIgnoreCase(outcome.getStatus())) {
+            logger.warn("Pickup Notification failed for file: {}: {}", filename, outcome.getStatusDescription());
+            statusDetail.setStatus("PARTIAL_SUCCESS");
+            statusDetail.setStatusDescription("File downloaded and extracted but pickup notification failed");
+            if (outcome.getErrorMessages() != null && !outcome.getErrorMessages().isEmpty()) {
+                statusDetail.getErrorMessages().addAll(outcome.getErrorMessages());
+            } else {
+                statusDetail.getErrorMessages().add(new ErrorMessage("NOTIFICATION_FAILED", "Notification Error",
+                        "Pickup notification rejected for file " + filename + ": " + outcome.getStatusDescription()));
+            }
+        } else {
+            logger.info("Pickup Notification submitted for file: {}", filename);
+        }
+    }
+
+    /**
+     * Builds the FAILED StatusDetail reported for a file whose worker terminated unexpectedly.
+     *
+     * @param filename the file name
+     * @param error the failure raised by the worker
+     * @return StatusDetail object describing the failure
+     */
+    private StatusDetail failedStatusDetail(String filename, Throwable error) {
+        StatusDetail statusDetail = new StatusDetail(new ArrayList<>());
+        statusDetail.setContenttypecd("ZIP");
+        statusDetail.setDeliveryType("DOWNLOAD");
+        statusDetail.setStatus("FAILED");
+        statusDetail.setStatusDescription("Error processing file: " + error.getMessage());
+        statusDetail.getErrorMessages().add(new ErrorMessage("PROCESSING_ERROR", "Processing Error",
+                "Error processing file " + filename + ": " + error.getMessage()));
+        return statusDetail;
+    }
+
     /**
      * Extracts the esMD transaction ID from a zip file name.
      * Expected format: ES9999.D.L1.EZKW0007260517EC.ESMD2.D071425.T2219020.zip
@@ -300,75 +398,46 @@ public class DownloadImpl {
      */
     private boolean extractZipFile(String zipFilePath, String extractToPath) {
         try {
-            File zipFile = new File(zipFilePath);
-            if (!zipFile.exists()) {
+            Path zipFile = Paths.get(zipFilePath);
+            if (!Files.exists(zipFile)) {
                 logger.error("Zip file does not exist: {}", zipFilePath);
                 return false;
             }
 
-            // Create extraction directory
-            Path extractDir = Paths.get(extractToPath);
-            Files.createDirectories(extractDir);
-
-            try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(zipFile))) {
-                ZipEntry entry;
-                while ((entry = zipInputStream.getNextEntry()) != null) {
-                    String entryName = entry.getName();
-                    Path entryPath = extractDir.resolve(entryName);
-                    
-                    // Security check to prevent zip slip attacks
-                    if (!entryPath.normalize().startsWith(extractDir.normalize())) {
-                        logger.warn("Skipping potentially malicious zip entry: {}", entryName);
-                        continue;
-                    }
-                    
-                    if (entry.isDirectory()) {
-                        Files.createDirectories(entryPath);
-                        logger.debug("Created directory: {}", entryPath);
-                    } else {
-                        // Create parent directories if they don't exist
-                        Files.createDirectories(entryPath.getParent());
-                        
-                        // Extract the file
-                        try (FileOutputStream fos = new FileOutputStream(entryPath.toFile())) {
-                            byte[] buffer = new byte[1024];
-                            int length;
-                            while ((length = zipInputStream.read(buffer)) > 0) {
-                                fos.write(buffer, 0, length);
-                            }
-                        }
-                        logger.debug("Extracted file: {}", entryPath);
-                    }
-                    zipInputStream.closeEntry();
-                }
-            }
-            
-            logger.info("Successfully extracted zip file: {} to: {}", zipFilePath, extractToPath);
+            int threads = configSource.get().getDownloadExtractThreads();
+            ZipUtils.ExtractionResult result = ZipUtils.extractParallel(zipFile, Paths.get(extractToPath), threads);
+            logger.info("Successfully extracted zip file: {} to: {} ({} files, {} bytes)",
+                    zipFilePath, extractToPath, result.getEntryCount(), result.getTotalBytes());
             return true;
-            
+
         } catch (IOException e) {
             logger.error("Failed to extract zip file: {} to: {}", zipFilePath, extractToPath, e);
             return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while extracting zip file: {}", zipFilePath);
+            return false;
         }
     }
 
     /**
-     * Gets a required property from the configuration.
-     * Throws an exception if the property is not found or empty.
+     * Parses the object size reported by the list API.
      *
-     * @param key the property key
-     * @return the property value
-     * @throws IllegalStateException if the property is not found or empty
+     * @param size the size string from DownloadObject
+     * @return the size in bytes, or -1 if it is missing or not a whole number of bytes
      */
-    private String getRequiredProperty(String key) {
-        String value = apiProperties.getProperty(key);
-        if (value == null || value.trim().isEmpty()) {
-            throw new IllegalStateException("Required property not found or empty: " + key);
+    private long parseExpectedSize(String size) {
+        if (size == null || size.trim().isEmpty()) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(size.trim());
+        } catch (NumberFormatException e) {
+            logger.debug("Unrecognized object size '{}'; skipping size verification", size);
+            return -1L;
         }
-        return value.trim();
     }
 
-
     public static void main(String[] args) throws Exception {
         DownloadImpl downloadImpl = new DownloadImpl();
         downloadImpl.downloadWiserRequestsFromesMD("dev");
@@ -0,0 +1,569 @@
+package gov.cms.esmd.rc.impl;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import gov.cms.esmd.bean.adminerror.AdminErrorNotificationRoot;
+import gov.cms.esmd.bean.adminerror.Notification;
+import gov.cms.esmd.bean.auth.response.AuthResponse;
+import gov.cms.esmd.bean.parejectjson.PARejectResponseRoot;
+import gov.cms.esmd.bean.response.PickupNotification;
+import gov.cms.esmd.rc.api.client.AuthTokenCache;
+import gov.cms.esmd.rc.api.client.NotificationApiClient;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.JsonCodec;
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.apache.http.client.HttpResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotificationOutbox
+ *
+ * Durable, asynchronous outbox for esMD notifications (pickup, admin error, PA reject).
+ * - Every enqueued payload is appended to a local JSON-lines journal before {@code enqueue} returns
+ * - A background sender drains the queue; successfully sent entries are acknowledged in the journal
+ * - Pending pickup notifications for the same sender are merged into one request of up to
+ *   {@code api.notification.outbox.batch-size} notifications
+ * - Failed sends are retried with exponential backoff and jitter; payloads esMD rejects outright
+ *   (HTTP 4xx other than 408/429) are moved to a dead-letter file instead of being retried forever
+ * - On startup, unacknowledged entries are replayed and the journal is compacted, so nothing queued
+ *   before a crash is lost
+ */
+public class NotificationOutbox implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    // Property keys
+    private static final String KEY_ENABLED             = "api.notification.outbox.enabled";
+    private static final String KEY_PATH                = "api.notification.outbox.path";
+    private static final String KEY_BATCH_SIZE          = "api.notification.outbox.batch-size";
+    private static final String KEY_POLL_INTERVAL_MS    = "api.notification.outbox.poll-interval-ms";
+    private static final String KEY_INITIAL_BACKOFF_MS  = "api.notification.outbox.initial-backoff-ms";
+    private static final String KEY_MAX_BACKOFF_MS      = "api.notification.outbox.max-backoff-ms";
+    private static final String KEY_FSYNC               = "api.notification.outbox.fsync";
+
+    // Defaults
+    private static final int DEF_BATCH_SIZE             = 50;
+    private static final long DEF_POLL_INTERVAL_MS      = 1_000L;
+    private static final long DEF_INITIAL_BACKOFF_MS    = 1_000L;
+    private static final long DEF_MAX_BACKOFF_MS        = 300_000L;
+
+    private static final String JOURNAL_FILE = "notification-outbox.jsonl";
+    private static final String DEAD_LETTER_FILE = "notification-outbox.dead.jsonl";
+    private static final String OP_ADD = "ADD";
+    private static final String OP_ACK = "ACK";
+
+    // Compact once this many acknowledgements have accumulated in the journal
+    private static final int COMPACT_AFTER_ACKS = 1_000;
+
+    /** Notification kinds and the endpoint each is posted to. */
+    public enum Type {
+        PICKUP("api.url.pickup-notification"),
+        ADMIN_ERROR("api.url.admin-error-notification"),
+        PA_REJECT("api.url.pareject-notification");
+
+        private final String urlKey;
+
+        Type(String urlKey) {
+            this.urlKey = urlKey;
+        }
+    }
+
+    /** Posts one notification JSON message to esMD; throws on failure. */
+    interface Sender {
+        void send(String environment, Type type, String json) throws Exception;
+    }
+
+    private static volatile NotificationOutbox shared;
+
+    private final Gson gson = JsonCodec.gson();
+    private final NotificationsImpl notifications = new NotificationsImpl();
+    private final Path journalPath;
+    private final Path deadLetterPath;
+    private final Sender sender;
+    private final int batchSize;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final boolean fsync;
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(ConcurrencyUtils.namedThreadFactory("esmd-notification-outbox", true));
+
+    private final Object lock = new Object();
+    private final Map<String, Entry> pending = new LinkedHashMap<>();
+    private FileChannel journal;
+    private int acksSinceCompaction;
+
+    NotificationOutbox(Path directory, Sender sender, int batchSize, long pollIntervalMs,
+                       long initialBackoffMs, long maxBackoffMs, boolean fsync) throws IOException {
+        Files.createDirectories(directory);
+        this.journalPath = directory.resolve(JOURNAL_FILE);
+        this.deadLetterPath = directory.resolve(DEAD_LETTER_FILE);
+        this.sender = Objects.requireNonNull(sender, "sender");
+        this.batchSize = Math.max(1, batchSize);
+        this.initialBackoffMs = Math.max(1L, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+        this.fsync = fsync;
+
+        replay();
+        compact();
+        executor.scheduleWithFixedDelay(this::drain, 0, Math.max(10L, pollIntervalMs), TimeUnit.MILLISECONDS);
+        logger.info("NotificationOutbox initialized: journal={}, pending={}", journalPath, pending.size());
+    }
+
+    /** True if {@code api.notification.outbox.enabled} is set. */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(PropertiesUtils.loadProperties().getProperty(KEY_ENABLED, "false").trim());
+    }
+
+    /** Process-wide outbox backed by {@code api.notification.outbox.path}; created on first use. */
+    public static NotificationOutbox getShared() {
+        NotificationOutbox o = shared;
+        if (o == null) {
+            synchronized (NotificationOutbox.class) {
+                o = shared;
+                if (o == null) {
+                    try {
+                        o = new NotificationOutbox(
+                                Paths.get(PropertiesUtils.getRequiredProperty(KEY_PATH)),
+                                new NotificationApiSender(),
+                                PropertiesUtils.getIntProperty(KEY_BATCH_SIZE, DEF_BATCH_SIZE),
+                                PropertiesUtils.getLongProperty(KEY_POLL_INTERVAL_MS, DEF_POLL_INTERVAL_MS),
+                                PropertiesUtils.getLongProperty(KEY_INITIAL_BACKOFF_MS, DEF_INITIAL_BACKOFF_MS),
+                                PropertiesUtils.getLongProperty(KEY_MAX_BACKOFF_MS, DEF_MAX_BACKOFF_MS),
+                                Boolean.parseBoolean(PropertiesUtils.loadProperties().getProperty(KEY_FSYNC, "true").trim()));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to open notification outbox", e);
+                    }
+                    shared = o;
+                }
+            }
+        }
+        return o;
+    }
+
+    /**
+     * Queues a SUCCESS pickup notification for a downloaded file.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     * @param esMDTransactionId the esMD transaction ID of the picked-up file
+     * @param filename the picked-up file name
+     */
+    public void enqueuePickup(String environment, String esMDTransactionId, String filename) {
+        List<Notification> entries = new ArrayList<>();
+        entries.add(notifications.createPickupNotificationEntry(esMDTransactionId, filename));
+        enqueue(environment, Type.PICKUP, notifications.createPickupNotification(
+                PropertiesUtils.getRequiredProperty("api.notification.pickup"),
+                PropertiesUtils.getRequiredProperty("userinfo.mailboxid"),
+                entries));
+    }
+
+    /**
+     * Queues a pickup notification.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     * @param pickupNotification the pickup notification; its notifications may be merged with others
+     */
+    public void enqueuePickup(String environment, PickupNotification pickupNotification) {
+        enqueue(environment, Type.PICKUP, gson.toJson(pickupNotification));
+    }
+
+    /**
+     * Queues an admin error notification.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     * @param adminErrorNotification the admin error notification
+     */
+    public void enqueueAdminError(String environment, AdminErrorNotificationRoot adminErrorNotification) {
+        enqueue(environment, Type.ADMIN_ERROR, gson.toJson(adminErrorNotification));
+    }
+
+    /**
+     * Queues a PA reject notification.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     * @param paRejectResponse the PA reject response
+     */
+    public void enqueuePaReject(String environment, PARejectResponseRoot paRejectResponse) {
+        enqueue(environment, Type.PA_REJECT, gson.toJson(paRejectResponse));
+    }
+
+    /**
+     * Durably queues a notification payload. Returns once the payload is in the journal.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     * @param type the notification type, which selects the endpoint
+     * @param json the notification JSON
+     * @throws IllegalArgumentException if any parameter is null or empty
+     * @throws IllegalStateException if the journal cannot be written
+     */
+    public void enqueue(String environment, Type type, String json) {
+        if (environment == null || environment.trim().isEmpty() || type == null || json == null || json.trim().isEmpty()) {
+            throw new IllegalArgumentException("Environment, type and payload are required");
+        }
+        Record record = new Record(OP_ADD, UUID.randomUUID().toString(), type.name(), environment.trim(), json, System.currentTimeMillis());
+        synchronized (lock) {
+            append(record);
+            pending.put(record.id, new Entry(record));
+        }
+        logger.debug("Queued {} notification {}", type, record.id);
+        executor.execute(this::drain);
+    }
+
+    /** Number of notifications not yet sent. */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Waits until every queued notification has been sent or dead-lettered.
+     *
+     * @param timeoutMs the maximum time to wait
+     * @return true if the outbox drained, false on timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitDrained(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (getPendingCount() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    /** Stops the sender and closes the journal; unsent notifications are replayed on next start. */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            closeJournal();
+        }
+        synchronized (NotificationOutbox.class) {
+            if (shared == this) {
+                shared = null;
+            }
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private void drain() {
+        try {
+            List<Entry> due;
+            synchronized (lock) {
+                long now = System.currentTimeMillis();
+                due = new ArrayList<>();
+                for (Entry entry : pending.values()) {
+                    if (entry.nextAttemptAt <= now) {
+                        due.add(entry);
+                    }
+                }
+            }
+            for (List<Entry> batch : toBatches(due)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                sendBatch(batch);
+            }
+        } catch (RuntimeException re) {
+            logger.warn("Notification outbox drain pass failed: {}", re.getMessage(), re);
+        }
+    }
+
+    /** Groups due entries into requests: pickups for the same environment and sender are merged. */
+    private List<List<Entry>> toBatches(List<Entry> due) {
+        Map<String, List<Entry>> pickups = new LinkedHashMap<>();
+        List<List<Entry>> batches = new ArrayList<>();
+        for (Entry entry : due) {
+            if (Type.PICKUP.name().equals(entry.record.type)) {
+                PickupNotification pickup = entry.pickup(gson);
+                String group = entry.record.env + '|' + pickup.getNotificationType() + '|' + pickup.getSenderRoutingId();
+                List<Entry> batch = pickups.computeIfAbsent(group, g -> new ArrayList<>());
+                batch.add(entry);
+                if (pickupCount(batch) >= batchSize) {
+                    batches.add(batch);
+                    pickups.remove(group);
+                }
+            } else {
+                List<Entry> single = new ArrayList<>();
+                single.add(entry);
+                batches.add(single);
+            }
+        }
+        batches.addAll(pickups.values());
+        return batches;
+    }
+
+    private int pickupCount(List<Entry> batch) {
+        int count = 0;
+        for (Entry entry : batch) {
+            List<Notification> notifications = entry.pickup(gson).getNotification();
+            count += notifications == null ? 0 : notifications.size();
+        }
+        return count;
+    }
+
+    private void sendBatch(List<Entry> batch) {
+        Record first = batch.get(0).record;
+        Type type = Type.valueOf(first.type);
+        String json = first.payload;
+        if (type == Type.PICKUP && batch.size() > 1) {
+            PickupNotification merged = batch.get(0).pickup(gson);
+            List<Notification> notifications = new ArrayList<>();
+            for (Entry entry : batch) {
+                List<Notification> items = entry.pickup(gson).getNotification();
+                if (items != null) {
+                    notifications.addAll(items);
+                }
+            }
+            merged.setNotification(notifications);
+            json = gson.toJson(merged);
+        }
+
+        try {
+            sender.send(first.env, type, json);
+            synchronized (lock) {
+                for (Entry entry : batch) {
+                    acknowledge(entry);
+                }
+            }
+            logger.info("Sent {} {} notification(s) from outbox", batch.size(), type);
+        } catch (Exception e) {
+            if (isPermanentRejection(e)) {
+                logger.error("esMD rejected {} notification(s) of type {}; moving to dead letter: {}", batch.size(), type, e.getMessage());
+                synchronized (lock) {
+                    for (Entry entry : batch) {
+                        deadLetter(entry);
+                    }
+                }
+                return;
+            }
+            synchronized (lock) {
+                for (Entry entry : batch) {
+                    entry.attempts++;
+                    entry.nextAttemptAt = System.currentTimeMillis() + backoff(entry.attempts);
+                }
+            }
+            logger.warn("Failed to send {} {} notification(s) (attempt {}); will retry: {}",
+                    batch.size(), type, batch.get(0).attempts, e.getMessage());
+        }
+    }
+
+    /** Full-jitter exponential backoff: random delay up to initial * 2^(attempts-1), capped. */
+    private long backoff(int attempts) {
+        long ceiling = initialBackoffMs << Math.min(attempts - 1, 20);
+        ceiling = Math.min(maxBackoffMs, ceiling <= 0 ? maxBackoffMs : ceiling);
+        return ThreadLocalRandom.current().nextLong(initialBackoffMs, ceiling + 1);
+    }
+
+    private static boolean isPermanentRejection(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof HttpResponseException) {
+                int status = ((HttpResponseException) t).getStatusCode();
+                return status >= 400 && status < 500 && status != 401 && status != 408 && status != 429;
+            }
+        }
+        return false;
+    }
+
+    /** Caller must hold {@code lock}. */
+    private void acknowledge(Entry entry) {
+        append(new Record(OP_ACK, entry.record.id, null, null, null, System.currentTimeMillis()));
+        pending.remove(entry.record.id);
+        if (++acksSinceCompaction >= COMPACT_AFTER_ACKS) {
+            try {
+                compact();
+            } catch (IOException e) {
+                logger.warn("Notification outbox compaction failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Caller must hold {@code lock}. */
+    private void deadLetter(Entry entry) {
+        try {
+            Files.write(deadLetterPath, (gson.toJson(entry.record) + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write notification dead letter", e);
+        }
+        acknowledge(entry);
+    }
+
+    private void replay() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Record record;
+                try {
+                    record = gson.fromJson(line, Record.class);
+                } catch (JsonSyntaxException e) {
+                    skipped++; // e.g., a line torn by a crash mid-write
+                    continue;
+                }
+                if (record == null || record.id == null) {
+                    skipped++;
+                } else if (OP_ADD.equals(record.op)) {
+                    pending.put(record.id, new Entry(record));
+                } else if (OP_ACK.equals(record.op)) {
+                    pending.remove(record.id);
+                }
+            }
+        }
+        if (skipped > 0) {
+            logger.warn("Skipped {} unreadable notification outbox journal line(s)", skipped);
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Replaying {} unsent notification(s) from outbox journal", pending.size());
+        }
+    }
+
+    /** Rewrites the journal with only the pending entries. */
+    private void compact() throws IOException {
+        synchronized (lock) {
+            closeJournal();
+            Path tmp = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Entry entry : pending.values()) {
+                    writeLine(out, entry.record);
+                }
+                out.force(true);
+            }
+            Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            acksSinceCompaction = 0;
+        }
+    }
+
+    /** Caller must hold {@code lock}. */
+    private void append(Record record) {
+        if (journal == null) {
+            throw new IllegalStateException("Notification outbox is closed");
+        }
+        try {
+            writeLine(journal, record);
+            if (fsync) {
+                journal.force(false);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write notification outbox journal", e);
+        }
+    }
+
+    private void writeLine(FileChannel channel, Record record) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((gson.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Error closing notification outbox journal", e);
+            }
+            journal = null;
+        }
+    }
+
+    /** One journal line. Payload is the notification JSON as sent to esMD. */
+    private static final class Record {
+        private final String op;
+        private final String id;
+        private final String type;
+        private final String env;
+        private final String payload;
+        private final long createdAt;
+
+        private Record(String op, String id, String type, String env, String payload, long createdAt) {
+            this.op = op;
+            this.id = id;
+            this.type = type;
+            this.env = env;
+            this.payload = payload;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class Entry {
+        private final Record record;
+        private PickupNotification pickup;
+        private int attempts;
+        private long nextAttemptAt;
+
+        private Entry(Record record) {
+            this.record = record;
+        }
+
+        private PickupNotification pickup(Gson gson) {
+            if (pickup == null) {
+                pickup = gson.fromJson(record.payload, PickupNotification.class);
+            }
+            return pickup;
+        }
+    }
+
+    /** Production sender: posts to the endpoint for the type using a cached token. */
+    private static final class NotificationApiSender implements Sender {
+        @Override
+        public void send(String environment, Type type, String json) throws Exception {
+            String scope = PropertiesUtils.getRequiredProperty("api.scope.status");
+            AuthResponse authResponse = AuthTokenCache.getInstance().getToken(environment, scope);
+            if (authResponse.getError() != null && !authResponse.getError().isEmpty()) {
+                throw new IllegalStateException("Authentication failed: " + authResponse.getError());
+            }
+
+            String url = PropertiesUtils.getRequiredProperty("api.environment." + environment)
+                    + PropertiesUtils.getRequiredProperty(type.urlKey);
+            try (NotificationApiClient client = new NotificationApiClient(url)) {
+                client.submitNotification(authResponse.getAccess_token(), json, type.name(), url);
+            } catch (IllegalStateException e) {
+                if (e.getCause() instanceof HttpResponseException
+                        && ((HttpResponseException) e.getCause()).getStatusCode() == 401) {
+                    AuthTokenCache.getInstance().invalidate(environment, scope);
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -5,10 +5,11 @@ import com.google.gson.GsonBuilder;
 import gov.cms.esmd.bean.adminerror.Notification;
 import gov.cms.esmd.bean.auth.response.AuthResponse;
 import gov.cms.esmd.bean.response.*;
-import gov.cms.esmd.rc.api.client.AuthApiClient;
+import gov.cms.esmd.rc.api.client.AuthTokenCache;
 import gov.cms.esmd.rc.api.client.NotificationApiClient;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.JsonCodec;
 import gov.cms.esmd.utility.NotificationUtility;
-import gov.cms.esmd.utility.PropertiesUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,7 +20,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Properties;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * NotificationsImpl handles the complete workflow for sending notification to esMD.
@@ -34,14 +36,25 @@ public class NotificationsImpl {
 
 
     private static final Logger logger = LoggerFactory.getLogger(gov.cms.esmd.rc.impl.DownloadImpl.class);
-    private final Properties apiProperties;
+    private final Supplier<EsmdConfig> configSource;
     private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSSXXX";
     /**
-     * Constructs a new NotificationsImpl instance.
-     * Loads the API properties from the YAML configuration file.
+     * Constructs a new NotificationsImpl instance that follows the current {@link EsmdConfig} snapshot,
+     * so a reloaded configuration applies from the next call.
      */
     public NotificationsImpl() {
-        this.apiProperties = PropertiesUtils.loadProperties();
+        this.configSource = EsmdConfig::get;
+        logger.info("StatusImpl initialized successfully");
+    }
+
+    /**
+     * Constructs a new NotificationsImpl instance pinned to a configuration snapshot.
+     *
+     * @param config the configuration snapshot
+     */
+    public NotificationsImpl(EsmdConfig config) {
+        Objects.requireNonNull(config, "config");
+        this.configSource = () -> config;
         logger.info("StatusImpl initialized successfully");
     }
 
@@ -63,8 +76,9 @@ public class NotificationsImpl {
         NotificationResponse notificationResponse = null;
 
         // Read configuration from YAML properties
-        String scope = getRequiredProperty("api.scope.status");
-        String mailboxId = apiProperties.getProperty("userinfo.mailboxid");
+        EsmdConfig config = configSource.get();
+        String scope = config.getStatusScope();
+        String mailboxId = config.getMailboxId();
 
         // Validate environment parameter
         if (environment == null || environment.trim().isEmpty()) {
@@ -72,11 +86,9 @@ public class NotificationsImpl {
         }
 
         try {
-            AuthApiClient authClient = new AuthApiClient(environment);
-
             // Step 1: Get authentication token
             logger.info("Step 1: Getting authentication token for scope: {}", scope);
-            AuthResponse authResponse = authClient.getToken(scope);
+            AuthResponse authResponse = AuthTokenCache.getInstance().getToken(environment, scope);
 
             if (authResponse.getError() != null && !authResponse.getError().isEmpty()) {
                 throw new IllegalStateException("Authentication failed: " + authResponse.getError());
@@ -112,15 +124,40 @@ public class NotificationsImpl {
 
     public String createPickupNotification(String notificationType, String senderRoutingID,
                                            String esMDTransactionId, String filename) throws ParseException {
-        String jsonString = null;
         List<Notification> notificationList = new ArrayList<Notification>();
+        notificationList.add(createPickupNotificationEntry(esMDTransactionId, filename));
+        String jsonString = createPickupNotification(notificationType, senderRoutingID, notificationList);
+        logger.info("createJsonPickupNotification,jsonString: " + jsonString);
+        return jsonString;
+    }
+
+    /**
+     * Builds a pickup notification message carrying several notifications, one per picked-up file.
+     *
+     * @param notificationType the notification type (e.g., PICKUP)
+     * @param senderRoutingID the sender routing (mailbox) ID
+     * @param notifications the notifications to include
+     * @return the pickup notification JSON
+     */
+    public String createPickupNotification(String notificationType, String senderRoutingID,
+                                           List<Notification> notifications) {
         PickupNotification pickupNotification = new PickupNotification();
         pickupNotification.setNotificationType(notificationType);
         pickupNotification.setSenderRoutingId(senderRoutingID);
-        Notification notification = new Notification();
+        pickupNotification.setNotification(notifications);
+        return JsonCodec.toJson(pickupNotification);
+    }
 
+    /**
+     * Builds a single SUCCESS pickup notification entry stamped with the current time.
+     *
+     * @param esMDTransactionId the esMD transaction ID of the picked-up file
+     * @param filename the picked-up file name
+     * @return the notification entry
+     */
+    public Notification createPickupNotificationEntry(String esMDTransactionId, String filename) {
+        Notification notification = new Notification();
         String formattedDate = new SimpleDateFormat(DATE_FORMAT).format(new Date());
-        Date parsedDate = new SimpleDateFormat(DATE_FORMAT).parse(formattedDate);
 
         notification.setPickupTime(formattedDate);
         notification.setSubmissionTime(formattedDate);
@@ -128,39 +165,14 @@ public class NotificationsImpl {
         notification.setEsMDTransactionId(esMDTransactionId);
         notification.setStatus("SUCCESS");
         notification.setErrorMessages(new ArrayList<>());
-        notificationList.add(notification);
-        pickupNotification.setNotification(notificationList);
-        jsonString = new Gson().toJson(pickupNotification);
-        logger.info("createJsonPickupNotification,jsonString: " + jsonString);
-        return jsonString;
+        return notification;
     }
 
 
     public String buildNotificationURL(String env) {
-        String baseUrl = apiProperties.getProperty("api.environment." + env);
-        String endpoint = apiProperties.getProperty("api.url.pickup-notification");
-
-        if (baseUrl == null || endpoint == null) {
-            throw new IllegalStateException("Missing required configuration for environment: " + env);
-        }
-
-        return baseUrl + endpoint;
-    }
-    /**
-     * Gets a required property from the configuration.
-     * Throws an exception if the property is not found or empty.
-     *
-     * @param key the property key
-     * @return the property value
-     * @throws IllegalStateException if the property is not found or empty
-     */
-    private String getRequiredProperty(String key) {
-        String value = apiProperties.getProperty(key);
-        if (value == null || value.trim().isEmpty()) {
-            throw new IllegalStateException("Required property not found or empty: " + key);
-        }
-        return value.trim();
+        return configSource.get().endpoints(env).getPickupNotificationUrl();
     }
+
     private static boolean isBlank(String s) {
         return s == null || s.trim().isEmpty();
     }
@@ -0,0 +1,239 @@
+package gov.cms.esmd.rc.impl;
+
+import gov.cms.esmd.bean.ErrorMessage;
+import gov.cms.esmd.bean.adminerror.Notification;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PickupNotificationBatcher
+ *
+ * Collects pickup events during a download run and submits them to esMD as batched
+ * pickup notifications instead of one POST per file.
+ * - A batch is flushed once it holds {@code api.notification.batch-size} notifications, or
+ *   {@code api.notification.batch-max-wait-ms} after its first notification, whichever comes first
+ * - Batches are sent one at a time on a single background thread
+ * - Each submitted notification gets its own future, completed with the StatusDetail esMD returned
+ *   for its esMD transaction ID, or with a FAILED StatusDetail if the batch could not be sent
+ * - {@link #close()} flushes whatever is still pending and waits for it to be sent
+ */
+public class PickupNotificationBatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PickupNotificationBatcher.class);
+
+    // Property keys
+    private static final String KEY_BATCH_SIZE      = "api.notification.batch-size";
+    private static final String KEY_BATCH_MAX_WAIT  = "api.notification.batch-max-wait-ms";
+
+    // Defaults
+    private static final int DEF_BATCH_SIZE         = 50;
+    private static final long DEF_BATCH_MAX_WAIT_MS = 2_000L;
+
+    /** Sends one pickup notification JSON message to esMD. */
+    interface BatchSender {
+        NotificationResponse send(String pickupNotificationJson) throws Exception;
+    }
+
+    private final NotificationsImpl notifications;
+    private final BatchSender sender;
+    private final String notificationType;
+    private final String senderRoutingId;
+    private final int batchSize;
+    private final long maxWaitMs;
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(ConcurrencyUtils.namedThreadFactory("esmd-pickup-batcher", true));
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    /**
+     * Creates a batcher that submits pickup notifications for the given environment.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     */
+    public PickupNotificationBatcher(String environment) {
+        this(new NotificationsImpl(), environment);
+    }
+
+    private PickupNotificationBatcher(NotificationsImpl notifications, String environment) {
+        this(notifications,
+                json -> notifications.sendNotificationToESMD(environment, json,
+                        PropertiesUtils.getRequiredProperty("api.notification.pickup")),
+                PropertiesUtils.getRequiredProperty("api.notification.pickup"),
+                PropertiesUtils.getRequiredProperty("userinfo.mailboxid"),
+                PropertiesUtils.getIntProperty(KEY_BATCH_SIZE, DEF_BATCH_SIZE),
+                PropertiesUtils.getLongProperty(KEY_BATCH_MAX_WAIT, DEF_BATCH_MAX_WAIT_MS));
+    }
+
+    PickupNotificationBatcher(NotificationsImpl notifications, BatchSender sender, String notificationType,
+                              String senderRoutingId, int batchSize, long maxWaitMs) {
+        this.notifications = notifications;
+        this.sender = sender;
+        this.notificationType = notificationType;
+        this.senderRoutingId = senderRoutingId;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxWaitMs = Math.max(0L, maxWaitMs);
+        logger.info("PickupNotificationBatcher initialized: batchSize={}, maxWaitMs={}", this.batchSize, this.maxWaitMs);
+    }
+
+    /**
+     * Queues a pickup notification for a downloaded file.
+     *
+     * @param esMDTransactionId the esMD transaction ID of the picked-up file
+     * @param filename the picked-up file name
+     * @return a future completed with the outcome of this notification once its batch is sent
+     * @throws IllegalStateException if the batcher has been closed
+     */
+    public CompletableFuture<StatusDetail> submit(String esMDTransactionId, String filename) {
+        Pending item = new Pending(notifications.createPickupNotificationEntry(esMDTransactionId, filename));
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("PickupNotificationBatcher is closed");
+            }
+            pending.add(item);
+            if (pending.size() >= batchSize) {
+                executor.execute(takeBatch()::send);
+            } else if (pending.size() == 1) {
+                scheduledFlush = executor.schedule(this::flushScheduled, maxWaitMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        return item.future;
+    }
+
+    /**
+     * Flushes pending notifications and waits until every submitted batch has been sent.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!pending.isEmpty()) {
+                executor.execute(takeBatch()::send);
+            }
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+                logger.warn("Timed out waiting for pickup notifications to be sent");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for pickup notifications to be sent");
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    /** Removes and returns the pending notifications as a batch. Caller must hold {@code lock}. */
+    private Batch takeBatch() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        Batch batch = new Batch(pending);
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void flushScheduled() {
+        Batch batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takeBatch();
+        }
+        batch.send();
+    }
+
+    private final class Batch {
+        private final List<Pending> items;
+
+        private Batch(List<Pending> items) {
+            this.items = items;
+        }
+
+        private void send() {
+            List<Notification> entries = new ArrayList<>(items.size());
+            for (Pending item : items) {
+                entries.add(item.notification);
+            }
+
+            NotificationResponse response;
+            try {
+                String json = notifications.createPickupNotification(notificationType, senderRoutingId, entries);
+                logger.info("Submitting pickup notification batch of {} notifications", items.size());
+                response = sender.send(json);
+            } catch (Exception e) {
+                logger.error("Failed to submit pickup notification batch of {} notifications", items.size(), e);
+                for (Pending item : items) {
+                    item.future.complete(failedStatusDetail(item.notification, e));
+                }
+                return;
+            }
+
+            // Map each returned status back to its notification by esMD transaction ID
+            Map<String, StatusDetail> byTransactionId = new HashMap<>();
+            if (response != null && response.getStatusDetails() != null) {
+                for (StatusDetail detail : response.getStatusDetails()) {
+                    if (detail != null && detail.getEsMDTransactionID() != null) {
+                        byTransactionId.put(detail.getEsMDTransactionID(), detail);
+                    }
+                }
+            }
+            for (Pending item : items) {
+                StatusDetail detail = byTransactionId.get(item.notification.getEsMDTransactionId());
+                item.future.complete(detail != null ? detail : acceptedStatusDetail(item.notification, response));
+            }
+            logger.info("Pickup notification batch of {} notifications submitted", items.size());
+        }
+    }
+
+    private static StatusDetail acceptedStatusDetail(Notification notification, NotificationResponse response) {
+        StatusDetail statusDetail = new StatusDetail(new ArrayList<>());
+        statusDetail.setEsMDTransactionID(notification.getEsMDTransactionId());
+        statusDetail.setStatus("SUCCESS");
+        statusDetail.setStatusDescription(response != null && response.getMessage() != null
+                ? response.getMessage()
+                : "Pickup notification accepted");
+        return statusDetail;
+    }
+
+    private static StatusDetail failedStatusDetail(Notification notification, Exception error) {
+        StatusDetail statusDetail = new StatusDetail(new ArrayList<>());
+        statusDetail.setEsMDTransactionID(notification.getEsMDTransactionId());
+        statusDetail.setStatus("FAILED");
+        statusDetail.setStatusDescription("Pickup notification failed: " + error.getMessage());
+        statusDetail.getErrorMessages().add(new ErrorMessage("NOTIFICATION_FAILED", "Notification Error",
+                "Failed to submit pickup notification for file " + notification.getFilename() + ": " + error.getMessage()));
+        return statusDetail;
+    }
+
+    private static final class Pending {
+        private final Notification notification;
+        private final CompletableFuture<StatusDetail> future = new CompletableFuture<>();
+
+        private Pending(Notification notification) {
+            this.notification = notification;
+        }
+    }
+}
@@ -5,13 +5,14 @@ import com.google.gson.GsonBuilder;
 import gov.cms.esmd.bean.ErrorMessage;
 import gov.cms.esmd.bean.auth.response.AuthResponse;
 import gov.cms.esmd.bean.response.*;
-import gov.cms.esmd.rc.api.client.AuthApiClient;
+import gov.cms.esmd.rc.api.client.AuthTokenCache;
 import gov.cms.esmd.rc.api.client.StatusApiClient;
-import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.EsmdConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Properties;
+import java.util.Objects;
+import java.util.function.Supplier;
 /**
  * StatusImpl handles the complete workflow for retrieving Wiser statuses from esMD.
  * This class orchestrates the authentication and retrieving the Wiser statuses.
@@ -25,14 +26,25 @@ public class StatusImpl {
 
 
         private static final Logger logger = LoggerFactory.getLogger(gov.cms.esmd.rc.impl.DownloadImpl.class);
-        private final Properties apiProperties;
+        private final Supplier<EsmdConfig> configSource;
 
         /**
-         * Constructs a new StatusImpl instance.
-         * Loads the API properties from the YAML configuration file.
+         * Constructs a new StatusImpl instance that follows the current {@link EsmdConfig} snapshot,
+         * so a reloaded configuration applies from the next call.
          */
         public StatusImpl() {
-            this.apiProperties = PropertiesUtils.loadProperties();
+            this.configSource = EsmdConfig::get;
+            logger.info("StatusImpl initialized successfully");
+        }
+
+        /**
+         * Constructs a new StatusImpl instance pinned to a configuration snapshot.
+         *
+         * @param config the configuration snapshot
+         */
+        public StatusImpl(EsmdConfig config) {
+            Objects.requireNonNull(config, "config");
+            this.configSource = () -> config;
             logger.info("StatusImpl initialized successfully");
         }
 
@@ -58,15 +70,14 @@ public class StatusImpl {
             }
 
             // Read configuration from YAML properties
-            String scope = getRequiredProperty("api.scope.status");
-            String clientId = getRequiredProperty("userinfo.clientid");
+            EsmdConfig config = configSource.get();
+            String scope = config.getStatusScope();
+            String clientId = config.getClientId();
 
             try {
-                AuthApiClient authClient = new AuthApiClient(environment);
-
                 // Step 1: Get authentication token
                 logger.info("Step 1: Getting authentication token for scope: {}", scope);
-                AuthResponse authResponse = authClient.getToken(scope);
+                AuthResponse authResponse = AuthTokenCache.getInstance().getToken(environment, scope);
 
                 if (authResponse.getError() != null && !authResponse.getError().isEmpty()) {
                     throw new IllegalStateException("Authentication failed: " + authResponse.getError());
@@ -77,9 +88,9 @@ public class StatusImpl {
 
                 // Step 2: Get Notification Statues
                 logger.info("Step 2: Retrieving notification statues: {}", clientId);
-                String statusURL = buildStatusURL(environment);
+                String statusURL = config.endpoints(environment).getStatusUrl();
                 StatusApiClient statusApiClient = new StatusApiClient(statusURL);
-                String mailboxId = apiProperties.getProperty("userinfo.mailboxid");
+                String mailboxId = config.getMailboxId();
 
                 notificationResponse =  statusApiClient.retrieveLatestStatus(
                         esMDTransactionId,mailboxId,token,statusURL);
@@ -100,31 +111,6 @@ public class StatusImpl {
             return notificationResponse;
         }
 
-    private String buildStatusURL(String env) {
-        String baseUrl = apiProperties.getProperty("api.environment." + env);
-        String endpoint = apiProperties.getProperty("api.url.notification-status");
-
-        if (baseUrl == null || endpoint == null) {
-            throw new IllegalStateException("Missing required configuration for environment: " + env);
-        }
-
-        return baseUrl + endpoint;
-    }
-        /**
-         * Gets a required property from the configuration.
-         * Throws an exception if the property is not found or empty.
-         *
-         * @param key the property key
-         * @return the property value
-         * @throws IllegalStateException if the property is not found or empty
-         */
-        private String getRequiredProperty(String key) {
-            String value = apiProperties.getProperty(key);
-            if (value == null || value.trim().isEmpty()) {
-                throw new IllegalStateException("Required property not found or empty: " + key);
-            }
-            return value.trim();
-        }
     private static boolean isBlank(String s) {
         return s == null || s.trim().isEmpty();
     }
@@ -0,0 +1,307 @@
+package gov.cms.esmd.rc.impl;
+
+import gov.cms.esmd.bean.ErrorMessage;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.ConfigWatcher;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * StatusPollingService
+ *
+ * Polls esMD for Wiser statuses on a schedule and reports only what changed since the last poll.
+ * - Keeps the last seen StatusDetail per esMD transaction ID in memory
+ * - Listeners are called only for transaction IDs that are new or whose status, description,
+ *   delivery type, unique tracking number or error messages differ from what was last seen
+ * - The interval starts at {@code api.status.polling.min-interval-ms}; it doubles after each poll that
+ *   finds no changes (or fails), up to {@code api.status.polling.max-interval-ms}, and drops back to the
+ *   minimum as soon as a poll finds a change
+ * - Polls run one at a time on a single background thread; listeners are called on that thread
+ */
+public class StatusPollingService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusPollingService.class);
+
+    // Property keys
+    private static final String KEY_MIN_INTERVAL = "api.status.polling.min-interval-ms";
+    private static final String KEY_MAX_INTERVAL = "api.status.polling.max-interval-ms";
+
+    // Defaults
+    private static final long DEF_MIN_INTERVAL_MS = 5_000L;
+    private static final long DEF_MAX_INTERVAL_MS = 300_000L;
+
+    /** Receives statuses that are new or changed since the previous poll. */
+    public interface Listener {
+        /**
+         * @param current the status just retrieved
+         * @param previous the status last seen for the same esMD transaction ID, or null if it is new
+         */
+        void onStatusChanged(StatusDetail current, StatusDetail previous);
+    }
+
+    /** Retrieves the latest statuses from esMD. */
+    interface StatusFetcher {
+        NotificationResponse fetch() throws Exception;
+    }
+
+    private final StatusFetcher fetcher;
+    private volatile long minIntervalMs;
+    private volatile long maxIntervalMs;
+    private final Map<String, Seen> lastSeen = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(ConcurrencyUtils.namedThreadFactory("esmd-status-poller", true));
+
+    private final Consumer<EsmdConfig> configListener = config -> setIntervals(
+            PropertiesUtils.getLongProperty(KEY_MIN_INTERVAL, DEF_MIN_INTERVAL_MS),
+            PropertiesUtils.getLongProperty(KEY_MAX_INTERVAL, DEF_MAX_INTERVAL_MS));
+
+    private volatile long currentIntervalMs;
+    private boolean watchConfig;
+    private boolean started;
+    private ScheduledFuture<?> nextPoll;
+
+    /**
+     * Creates a polling service for the given environment. The interval bounds follow
+     * configuration reloads until the service is closed, and {@link #start()} starts watching
+     * the external configuration file when {@link ConfigWatcher#isEnabled()}.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     */
+    public StatusPollingService(String environment) {
+        this(newStatusFetcher(environment),
+                PropertiesUtils.getLongProperty(KEY_MIN_INTERVAL, DEF_MIN_INTERVAL_MS),
+                PropertiesUtils.getLongProperty(KEY_MAX_INTERVAL, DEF_MAX_INTERVAL_MS));
+        EsmdConfig.addListener(configListener);
+        this.watchConfig = true;
+    }
+
+    StatusPollingService(StatusFetcher fetcher, long minIntervalMs, long maxIntervalMs) {
+        this.fetcher = Objects.requireNonNull(fetcher, "fetcher");
+        this.minIntervalMs = Math.max(1L, minIntervalMs);
+        this.maxIntervalMs = Math.max(this.minIntervalMs, maxIntervalMs);
+        this.currentIntervalMs = this.minIntervalMs;
+        logger.info("StatusPollingService initialized: minIntervalMs={}, maxIntervalMs={}",
+                this.minIntervalMs, this.maxIntervalMs);
+    }
+
+    /**
+     * Registers a listener for new or changed statuses.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts polling in the background; the first poll runs immediately.
+     *
+     * @throws IllegalStateException if the service has been closed
+     */
+    public synchronized void start() {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("StatusPollingService is closed");
+        }
+        if (!started) {
+            started = true;
+            if (watchConfig) {
+                ConfigWatcher.startSharedIfEnabled();
+            }
+            executor.execute(this::pollAndReschedule);
+        }
+    }
+
+    /**
+     * Stops tracking a transaction, e.g. once it has reached a final status.
+     *
+     * @param esMDTransactionId the esMD transaction ID to drop
+     */
+    public void forget(String esMDTransactionId) {
+        if (esMDTransactionId != null) {
+            lastSeen.remove(esMDTransactionId);
+        }
+    }
+
+    /**
+     * @param esMDTransactionId the esMD transaction ID
+     * @return the last status seen for the transaction, or null if it is not tracked
+     */
+    public StatusDetail getLastSeen(String esMDTransactionId) {
+        Seen seen = esMDTransactionId != null ? lastSeen.get(esMDTransactionId) : null;
+        return seen != null ? seen.detail : null;
+    }
+
+    /** The number of transactions whose last status is held in memory. */
+    public int getTrackedCount() {
+        return lastSeen.size();
+    }
+
+    /** The delay before the next scheduled poll. */
+    public long getCurrentIntervalMs() {
+        return currentIntervalMs;
+    }
+
+    /**
+     * Changes the interval bounds. A scheduled poll further away than the new maximum is brought forward.
+     *
+     * @param minIntervalMs the interval used after a poll that found changes
+     * @param maxIntervalMs the interval the back-off stops growing at
+     */
+    public synchronized void setIntervals(long minIntervalMs, long maxIntervalMs) {
+        long min = Math.max(1L, minIntervalMs);
+        long max = Math.max(min, maxIntervalMs);
+        if (min == this.minIntervalMs && max == this.maxIntervalMs) {
+            return;
+        }
+        this.minIntervalMs = min;
+        this.maxIntervalMs = max;
+        currentIntervalMs = Math.max(min, Math.min(max, currentIntervalMs));
+        if (nextPoll != null && nextPoll.getDelay(TimeUnit.MILLISECONDS) > max && nextPoll.cancel(false)) {
+            nextPoll = executor.schedule(this::pollAndReschedule, max, TimeUnit.MILLISECONDS);
+        }
+        logger.info("StatusPollingService intervals updated: minIntervalMs={}, maxIntervalMs={}", min, max);
+    }
+
+    /**
+     * Stops polling: cancels the next scheduled poll and interrupts one in progress.
+     */
+    @Override
+    public void close() {
+        EsmdConfig.removeListener(configListener);
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Timed out waiting for status poll to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for status poll to finish");
+        }
+    }
+
+    /**
+     * Runs a single poll and calls listeners for each new or changed status.
+     *
+     * @return the number of statuses reported to listeners
+     * @throws Exception if the statuses could not be retrieved
+     */
+    int pollOnce() throws Exception {
+        NotificationResponse response = fetcher.fetch();
+        if (response == null || response.getStatusDetails() == null) {
+            return 0;
+        }
+
+        int changed = 0;
+        for (StatusDetail detail : response.getStatusDetails()) {
+            if (detail == null || detail.getEsMDTransactionID() == null) {
+                continue;
+            }
+            String signature = signature(detail);
+            Seen previous = lastSeen.get(detail.getEsMDTransactionID());
+            if (previous != null && previous.signature.equals(signature)) {
+                continue;
+            }
+            lastSeen.put(detail.getEsMDTransactionID(), new Seen(detail, signature));
+            changed++;
+            notifyListeners(detail, previous != null ? previous.detail : null);
+        }
+        return changed;
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private void pollAndReschedule() {
+        boolean changedAny;
+        try {
+            int changed = pollOnce();
+            changedAny = changed > 0;
+            if (changedAny) {
+                logger.info("Status poll found {} new or changed statuses", changed);
+            } else {
+                logger.debug("Status poll found no changes");
+            }
+        } catch (Exception e) {
+            logger.warn("Status poll failed: {}", e.getMessage(), e);
+            changedAny = false;
+        }
+
+        synchronized (this) {
+            long nextIntervalMs = changedAny ? minIntervalMs : Math.min(maxIntervalMs, currentIntervalMs * 2);
+            currentIntervalMs = nextIntervalMs;
+            if (!executor.isShutdown() && !Thread.currentThread().isInterrupted()) {
+                try {
+                    nextPoll = executor.schedule(this::pollAndReschedule, nextIntervalMs, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ignored) {
+                    // Closed while polling
+                }
+            }
+        }
+    }
+
+    private void notifyListeners(StatusDetail current, StatusDetail previous) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onStatusChanged(current, previous);
+            } catch (RuntimeException e) {
+                logger.error("Status listener failed for esMD transaction ID {}", current.getEsMDTransactionID(), e);
+            }
+        }
+    }
+
+    /** The fields whose change is reported to listeners, joined into one comparable value. */
+    private static String signature(StatusDetail detail) {
+        StringBuilder sb = new StringBuilder(64)
+                .append(detail.getStatus()).append('|')
+                .append(detail.getStatusDescription()).append('|')
+                .append(detail.getDeliveryType()).append('|')
+                .append(detail.getUniqueTrackingNumber());
+        if (detail.getErrorMessages() != null) {
+            for (ErrorMessage error : detail.getErrorMessages()) {
+                if (error != null) {
+                    sb.append('|').append(error.getErrorCode()).append(':').append(error.getErrorDescription());
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static StatusFetcher newStatusFetcher(String environment) {
+        StatusImpl statusImpl = new StatusImpl();
+        return () -> statusImpl.getStatusFromesMD(environment, null);
+    }
+
+    private static final class Seen {
+        private final StatusDetail detail;
+        private final String signature;
+
+        private Seen(StatusDetail detail, String signature) {
+            this.detail = detail;
+            this.signature = signature;
+        }
+    }
+}
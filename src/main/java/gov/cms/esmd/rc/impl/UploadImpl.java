@@ -7,12 +7,14 @@ import gov.cms.esmd.bean.response.DownloadObject;
 import gov.cms.esmd.bean.response.DownloadResponse;
 import gov.cms.esmd.bean.response.PresignedUrlResponse;
 import gov.cms.esmd.bean.response.StatusDetail;
-import gov.cms.esmd.rc.api.client.AuthApiClient;
+import gov.cms.esmd.rc.api.client.AuthTokenCache;
 import gov.cms.esmd.rc.api.client.DownloadApiClient;
 import gov.cms.esmd.rc.api.client.UploadApiClient;
 import gov.cms.esmd.utility.ChecksumUtil;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.EsmdConfig;
 import gov.cms.esmd.utility.FileUtils;
-import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.JsonCodec;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,7 +28,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Properties;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -51,14 +54,20 @@ private static final String CONFIG_FILE_PATH = System.getProperty("user.dir") +
 private static final int HTTP_OK = 200;
 private static final int HTTP_ACCEPTED = 202;
 
-// Configuration properties
-private final Properties apiProperties;
+// Configuration snapshot source
+private final Supplier<EsmdConfig> configSource;
 // Gson instance for JSON processing
-private final Gson gson = new Gson();
+private final Gson gson = JsonCodec.gson();
 
     public UploadImpl() {
-        this.apiProperties = PropertiesUtils.loadProperties();
-        logger.info("DownloadImpl initialized successfully");
+        this.configSource = EsmdConfig::get;
+        logger.info("UploadImpl initialized successfully");
+    }
+
+    public UploadImpl(EsmdConfig config) {
+        Objects.requireNonNull(config, "config");
+        this.configSource = () -> config;
+        logger.info("UploadImpl initialized successfully");
     }
 
     /**
@@ -87,19 +96,19 @@ private final Gson gson = new Gson();
         }
 
         // Read configuration from YAML properties
-        String scope = PropertiesUtils.getRequiredProperty("api.scope.upload");
-        String clientId = PropertiesUtils.getRequiredProperty("userinfo.clientid");
-        String localFilePath = PropertiesUtils.getRequiredProperty("api.file-upload.local-path");
+        EsmdConfig config = configSource.get();
+        String scope = config.getUploadScope();
+        String clientId = config.getClientId();
+        String localFilePath = config.getUploadLocalPath();
 
         logger.debug("Configuration loaded - scope: {}, clientId: {}, localPath: {}",
                 scope, clientId, localFilePath);
 
-        try (AuthApiClient authClient = new AuthApiClient(environment);
-             UploadApiClient uploadApiClient = new UploadApiClient(environment)) {
+        try (UploadApiClient uploadApiClient = new UploadApiClient(config, environment)) {
 
             // Step 1: Get authentication token
             logger.info("Step 1: Getting authentication token for scope: {}", scope);
-            AuthResponse authResponse = authClient.getToken(scope);
+            AuthResponse authResponse = AuthTokenCache.getInstance().getToken(environment, scope);
 
             if (authResponse.getError() != null && !authResponse.getError().isEmpty()) {
                 throw new IllegalStateException("Authentication failed: " + authResponse.getError());
@@ -107,56 +116,170 @@ private final Gson gson = new Gson();
 
             String token = authResponse.getAccess_token();
             logger.info("Authentication successful, token acquired");
-            String uploadDirectory = apiProperties.getProperty("api.file-upload.local-path");
+            String uploadDirectory = config.getUploadLocalPath();
 
             List<Path> files = FileUtils.getFilesFromDirectory(uploadDirectory);
 
             for (Path path : files) {
-                File file = path.toFile();
-
-                // Step 3: Get presigned URL for the file
-                logger.debug("Getting presigned URL for file: {}", file);
-                String fileSizeInMB = FileUtils.getFileSize(file,"MB","0.0000");
-                //String md5Hex = ChecksumUtil.md5Hex(file.getAbsolutePath());
-                String md5Hex = ChecksumUtil.checkMD5(file.getAbsolutePath());
-                String filename = file.getName();
-                PresignedUrlResponse presignedUrlResponse = uploadApiClient.getUploadPresignedURL(
-                        filename, token, clientId,md5Hex, fileSizeInMB);
-
-                if (presignedUrlResponse.getContents() == null || presignedUrlResponse.getContents().isEmpty()) {
-                    logger.warn("No presigned URL content received for file: {}", filename);
-                    statusDetail.setStatus("FAILED");
-                    statusDetail.setStatusDescription("No presigned URL content received");
-                    statusDetail.getErrorMessages().add(new ErrorMessage(
-                            "NO_PRESIGNED_URL", "Missing URL", "No presigned URL content received for file: " + filename));
+                if (!uploadFile(path, uploadApiClient, token, clientId, statusDetail)) {
                     return statusDetail;
                 }
+            }
+            logger.info("Upload process completed for environment: {}", environment);
+        } catch (Exception e) {
+            logger.error("Upload process failed for environment: {}", environment, e);
+            throw e;
+        }
+        return statusDetail;
+    }
 
-                // Get the first content object (assuming one URL per file)
-                String presignedUrl = presignedUrlResponse.getContents().get(0).getUrl();
-                if (presignedUrl == null || presignedUrl.trim().isEmpty()) {
-                    logger.warn("Empty presigned URL received for file: {}", filename);
-                    statusDetail.setStatus("FAILED");
-                    statusDetail.setStatusDescription("Empty presigned URL received");
-                    statusDetail.getErrorMessages().add(new ErrorMessage("EMPTY_PRESIGNED_URL", "Empty URL", "Empty presigned URL received for file: " + filename));
-                    return statusDetail;
-                }
-                logger.debug("Presigned URL obtained for file: {}", filename);
-                boolean isUplaodSuccess = uploadApiClient.uploadFileWithPresignedURL(presignedUrl, file, token, md5Hex);
-
-                if (!isUplaodSuccess) {
-                    logger.error("Failed to upload file: {}", filename);
-                    statusDetail.setStatus("FAILED");
-                    statusDetail.setStatusDescription("upload failed");
-                    statusDetail.getErrorMessages().add(new ErrorMessage("UPLOAD_FAILED", "Upload Error", "Failed to upload file: " + filename));
-                    return statusDetail;
-                }
+
+    /**
+     * Uploads Wiser requests to esMD for the specified environment, processing up to
+     * {@code concurrency} files at the same time. Each worker hashes, presigns and uploads
+     * one file; a failing file is reported in its own StatusDetail and does not stop the others.
+     *
+     * @param environment the target environment (dev, val, uat, prod)
+     * @param concurrency the maximum number of files uploaded concurrently
+     * @return List of StatusDetail objects, one per file in the upload directory, in directory listing order
+     * @throws Exception if authentication or reading the upload directory fails
+     */
+    public List<StatusDetail> uploadWiserRequestsToesMD(String environment, int concurrency) throws Exception {
+        logger.info("Starting upload process for environment: {} (concurrency={})", environment, concurrency);
+
+        // Validate environment parameter
+        if (environment == null || environment.trim().isEmpty()) {
+            throw new IllegalArgumentException("Environment cannot be null or empty");
+        }
+
+        // Read configuration from YAML properties
+        EsmdConfig config = configSource.get();
+        String scope = config.getUploadScope();
+        String clientId = config.getClientId();
+        String uploadDirectory = config.getUploadLocalPath();
+
+        try (UploadApiClient uploadApiClient = new UploadApiClient(config, environment)) {
+
+            // Step 1: Get authentication token
+            logger.info("Step 1: Getting authentication token for scope: {}", scope);
+            AuthResponse authResponse = AuthTokenCache.getInstance().getToken(environment, scope);
+
+            if (authResponse.getError() != null && !authResponse.getError().isEmpty()) {
+                throw new IllegalStateException("Authentication failed: " + authResponse.getError());
             }
+
+            String token = authResponse.getAccess_token();
+            logger.info("Authentication successful, token acquired");
+
+            List<Path> files = FileUtils.getFilesFromDirectory(uploadDirectory);
+            logger.info("Found {} files to upload", files.size());
+
+            List<StatusDetail> statusDetails = ConcurrencyUtils.invokeAllInOrder(files, concurrency, "esmd-upload",
+                    path -> processFileUpload(path, uploadApiClient, token, clientId),
+                    (path, error) -> failedStatusDetail(path.getFileName().toString(), error));
+
             logger.info("Upload process completed for environment: {}", environment);
+            return statusDetails;
         } catch (Exception e) {
             logger.error("Upload process failed for environment: {}", environment, e);
             throw e;
         }
+    }
+
+    /**
+     * Uploads a single file and reports the outcome in its own StatusDetail.
+     *
+     * @param path the file to upload
+     * @param uploadApiClient the upload API client
+     * @param token the authentication token
+     * @param clientId the client identifier
+     * @return StatusDetail object containing the upload status for the file
+     */
+    private StatusDetail processFileUpload(Path path, UploadApiClient uploadApiClient, String token, String clientId) {
+        String filename = path.getFileName().toString();
+        StatusDetail statusDetail = new StatusDetail(new ArrayList<>());
+        statusDetail.setContenttypecd("ZIP");
+        statusDetail.setDeliveryType("UPLOAD");
+        statusDetail.setStatus("SUCCESS");
+        statusDetail.setStatusDescription("File Upload processing initiated");
+        try {
+            if (uploadFile(path, uploadApiClient, token, clientId, statusDetail)) {
+                statusDetail.setStatusDescription("File uploaded successfully: " + filename);
+            }
+        } catch (Exception e) {
+            logger.error("Error uploading file: {}", filename, e);
+            return failedStatusDetail(filename, e);
+        }
+        return statusDetail;
+    }
+
+    /**
+     * Hashes, presigns and uploads a single file. On failure the given StatusDetail is
+     * marked FAILED with the reason.
+     *
+     * @return true if the file was uploaded, false otherwise
+     * @throws IOException if the file cannot be read or sent
+     */
+    private boolean uploadFile(Path path, UploadApiClient uploadApiClient, String token, String clientId,
+                               StatusDetail statusDetail) throws IOException {
+        File file = path.toFile();
+
+        // Step 3: Get presigned URL for the file
+        logger.debug("Getting presigned URL for file: {}", file);
+        // Size, Content-MD5 and contentchecksum from a single streaming read of the file
+        ChecksumUtil.FileFingerprint fingerprint = ChecksumUtil.fingerprint(path);
+        String fileSizeInMB = FileUtils.formatFileSize(fingerprint.getSizeBytes(), "MB", "0.0000");
+        String md5Base64 = fingerprint.getMd5Base64();
+        String filename = file.getName();
+        PresignedUrlResponse presignedUrlResponse = uploadApiClient.getUploadPresignedURL(
+                filename, token, clientId, fingerprint.getSha256Hex(), fileSizeInMB);
+
+        if (presignedUrlResponse.getContents() == null || presignedUrlResponse.getContents().isEmpty()) {
+            logger.warn("No presigned URL content received for file: {}", filename);
+            statusDetail.setStatus("FAILED");
+            statusDetail.setStatusDescription("No presigned URL content received");
+            statusDetail.getErrorMessages().add(new ErrorMessage(
+                    "NO_PRESIGNED_URL", "Missing URL", "No presigned URL content received for file: " + filename));
+            return false;
+        }
+
+        // Get the first content object (assuming one URL per file)
+        String presignedUrl = presignedUrlResponse.getContents().get(0).getUrl();
+        if (presignedUrl == null || presignedUrl.trim().isEmpty()) {
+            logger.warn("Empty presigned URL received for file: {}", filename);
+            statusDetail.setStatus("FAILED");
+            statusDetail.setStatusDescription("Empty presigned URL received");
+            statusDetail.getErrorMessages().add(new ErrorMessage("EMPTY_PRESIGNED_URL", "Empty URL", "Empty presigned URL received for file: " + filename));
+            return false;
+        }
+        logger.debug("Presigned URL obtained for file: {}", filename);
+        boolean isUplaodSuccess = uploadApiClient.uploadFileWithPresignedURL(presignedUrl, file, token, md5Base64);
+
+        if (!isUplaodSuccess) {
+            logger.error("Failed to upload file: {}", filename);
+            statusDetail.setStatus("FAILED");
+            statusDetail.setStatusDescription("upload failed");
+            statusDetail.getErrorMessages().add(new ErrorMessage("UPLOAD_FAILED", "Upload Error", "Failed to upload file: " + filename));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Builds the FAILED StatusDetail reported for a file whose upload raised an error.
+     *
+     * @param filename the file name
+     * @param error the failure raised while uploading
+     * @return StatusDetail object describing the failure
+     */
+    private StatusDetail failedStatusDetail(String filename, Throwable error) {
+        StatusDetail statusDetail = new StatusDetail(new ArrayList<>());
+        statusDetail.setContenttypecd("ZIP");
+        statusDetail.setDeliveryType("UPLOAD");
+        statusDetail.setStatus("FAILED");
+        statusDetail.setStatusDescription("Error uploading file: " + error.getMessage());
+        statusDetail.getErrorMessages().add(new ErrorMessage("PROCESSING_ERROR", "Processing Error",
+                "Error uploading file " + filename + ": " + error.getMessage()));
         return statusDetail;
     }
 
@@ -1,17 +1,16 @@
 package gov.cms.esmd.utility;
 
-import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -34,6 +33,7 @@ public final class ChecksumUtil {
 
 	private static final String DEFAULT_ALG = "SHA-256";
 	private static final int BUFFER_SIZE = 8192;
+	private static final int FINGERPRINT_BUFFER_SIZE = 64 * 1024;
 
 	private ChecksumUtil() {}
 
@@ -54,6 +54,19 @@ public final class ChecksumUtil {
 		return sha256Hex(input.getBytes(StandardCharsets.UTF_8));
 	}
 
+	/** Calculate SHA-256 (hex) of the remaining bytes of a buffer; the buffer's position is not changed. */
+	public static String sha256Hex(ByteBuffer data) {
+		Objects.requireNonNull(data, "data");
+		logger.debug("Calculating SHA-256 for buffer size {}", data.remaining());
+		try {
+			MessageDigest md = MessageDigest.getInstance(DEFAULT_ALG);
+			md.update(data.duplicate());
+			return toHex(md.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Digest algorithm unavailable: " + DEFAULT_ALG, e);
+		}
+	}
+
 	/** Calculate SHA-256 (hex) of a file (streaming). */
 	public static String sha256Hex(Path file) {
 		Objects.requireNonNull(file, "file");
@@ -131,18 +144,75 @@ public final class ChecksumUtil {
 		return toHex(digest("MD5", input.getBytes(StandardCharsets.UTF_8)));
 	}
 
-    public static String checkMD5(String filePath) {
-        try {
-            File file = new File(filePath);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] enc = md.digest(FileUtils.readFileToByteArray(file));
-            String md5Sum = org.apache.commons.codec.binary.Base64.encodeBase64String(enc);
-            return md5Sum;
-        } catch (IOException | NoSuchAlgorithmException ex) {
-            System.out.println(((Exception)ex).getMessage());
-            return null;
-        }
-    }
+	/**
+	 * Calculate MD5 (Base64) of a file, as used for the Content-MD5 header.
+	 * Streams the file; returns null if it cannot be read.
+	 */
+	public static String checkMD5(String filePath) {
+		try {
+			return Base64.getEncoder().encodeToString(digestFile("MD5", Paths.get(filePath)));
+		} catch (UncheckedIOException ex) {
+			logger.error("Failed to calculate MD5 for file {}: {}", filePath, ex.getMessage());
+			return null;
+		}
+	}
+
+	/* ==============================
+	 * Single-pass file fingerprint
+	 * ============================== */
+
+	/**
+	 * Stream a file once and compute its exact byte length, MD5 (Base64, for Content-MD5)
+	 * and SHA-256 (hex, for contentchecksum) together.
+	 */
+	public static FileFingerprint fingerprint(Path file) {
+		Objects.requireNonNull(file, "file");
+		logger.debug("Calculating fingerprint for file {}", file);
+		try (InputStream in = Files.newInputStream(file)) {
+			MessageDigest md5 = MessageDigest.getInstance("MD5");
+			MessageDigest sha256 = MessageDigest.getInstance(DEFAULT_ALG);
+			byte[] buffer = new byte[FINGERPRINT_BUFFER_SIZE];
+			long size = 0;
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				md5.update(buffer, 0, read);
+				sha256.update(buffer, 0, read);
+				size += read;
+			}
+			return new FileFingerprint(size,
+					Base64.getEncoder().encodeToString(md5.digest()),
+					toHex(sha256.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Digest algorithm unavailable", e);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read file: " + file, e);
+		}
+	}
+
+	/** Size and digests of a file, computed in one read by {@link #fingerprint(Path)}. */
+	public static final class FileFingerprint {
+		private final long sizeBytes;
+		private final String md5Base64;
+		private final String sha256Hex;
+
+		public FileFingerprint(long sizeBytes, String md5Base64, String sha256Hex) {
+			this.sizeBytes = sizeBytes;
+			this.md5Base64 = md5Base64;
+			this.sha256Hex = sha256Hex;
+		}
+
+		public long getSizeBytes() {
+			return sizeBytes;
+		}
+
+		public String getMd5Base64() {
+			return md5Base64;
+		}
+
+		public String getSha256Hex() {
+			return sha256Hex;
+		}
+	}
 
 	/* ==============================
 	 * Internal helpers
@@ -0,0 +1,163 @@
+package gov.cms.esmd.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Concurrency helpers shared by the esMD clients and orchestrators.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ConcurrencyUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyUtils.class);
+
+    private ConcurrencyUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Creates a thread factory producing threads named {@code <prefix>-<n>}.
+     *
+     * @param prefix the thread name prefix
+     * @param daemon whether the threads should be daemon threads
+     * @return the thread factory
+     */
+    public static ThreadFactory namedThreadFactory(String prefix, boolean daemon) {
+        final AtomicInteger counter = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.getAndIncrement());
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
+
+    /**
+     * Applies a task to every item on a bounded pool of worker threads and returns the
+     * results in the same order as the input. A task failure never aborts the other tasks;
+     * it is converted into a result through {@code onError}.
+     *
+     * @param items the items to process
+     * @param parallelism the maximum number of items processed at the same time
+     * @param threadPrefix the worker thread name prefix
+     * @param task the work to perform for a single item
+     * @param onError maps an item and the failure it raised to a result
+     * @return the results, one per item, in input order
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static <T, R> List<R> invokeAllInOrder(List<T> items, int parallelism, String threadPrefix,
+                                                  Function<T, R> task, BiFunction<T, Throwable, R> onError)
+            throws InterruptedException {
+        List<R> results = new ArrayList<>(items.size());
+        if (items.isEmpty()) {
+            return results;
+        }
+
+        int threads = Math.max(1, Math.min(parallelism, items.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, namedThreadFactory(threadPrefix, true));
+        try {
+            List<Future<R>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(pool.submit(() -> task.apply(item)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    logger.error("Worker task failed for item {}", i, e.getCause());
+                    results.add(onError.apply(items.get(i), e.getCause()));
+                }
+            }
+            return results;
+        } catch (InterruptedException ie) {
+            pool.shutdownNow();
+            throw ie;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Applies a task to items pulled from an iterator on a bounded pool of worker threads and returns
+     * the results in iteration order. The next item is pulled only when fewer than {@code parallelism}
+     * items are in progress, so the input is never held in memory as a whole. A task failure never
+     * aborts the other tasks; it is converted into a result through {@code onError}.
+     *
+     * @param items the items to process, pulled lazily
+     * @param parallelism the maximum number of items pulled but not yet processed
+     * @param threadPrefix the worker thread name prefix
+     * @param task the work to perform for a single item
+     * @param onError maps an item and the failure it raised to a result
+     * @return the results, one per item, in iteration order
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static <T, R> List<R> invokeAllInOrder(Iterator<T> items, int parallelism, String threadPrefix,
+                                                  Function<T, R> task, BiFunction<T, Throwable, R> onError)
+            throws InterruptedException {
+        List<R> results = new ArrayList<>();
+        if (!items.hasNext()) {
+            return results;
+        }
+
+        int threads = Math.max(1, parallelism);
+        Semaphore window = new Semaphore(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, namedThreadFactory(threadPrefix, true));
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            while (true) {
+                // Take the slot first: a stream iterator already pulls the next item in hasNext()
+                window.acquire();
+                T item;
+                try {
+                    if (!items.hasNext()) {
+                        window.release();
+                        break;
+                    }
+                    item = items.next();
+                } catch (RuntimeException re) {
+                    window.release();
+                    throw re;
+                }
+                int index = futures.size();
+                futures.add(pool.submit(() -> {
+                    try {
+                        return task.apply(item);
+                    } catch (RuntimeException re) {
+                        logger.error("Worker task failed for item {}", index, re);
+                        return onError.apply(item, re);
+                    } finally {
+                        window.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Worker task failed for item " + i, e.getCause());
+                }
+            }
+            return results;
+        } catch (InterruptedException ie) {
+            pool.shutdownNow();
+            throw ie;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package gov.cms.esmd.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConfigWatcher
+ *
+ * Watches the external configuration file and swaps in the new configuration when it changes,
+ * so limits can be tightened or relaxed without restarting long-running workers.
+ * - The file comes from {@link PropertiesUtils#getExternalConfigFile()} and overlays api-properties.yml
+ * - Bursts of file events are debounced, then the bundled defaults and the file are re-read and
+ *   validated as a whole
+ * - A valid file replaces {@link PropertiesUtils#loadProperties()} and {@link EsmdConfig#get()} in a
+ *   single swap; an invalid or half-written one is logged and the running configuration is kept
+ * - {@link EsmdConfig} listeners push the new limits to the HTTP pool, rate limiters and pollers
+ */
+public final class ConfigWatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigWatcher.class);
+
+    // Property keys
+    private static final String KEY_ENABLED         = "api.config.watch.enabled";
+    private static final String KEY_DEBOUNCE_MS     = "api.config.watch.debounce-ms";
+
+    // Defaults
+    private static final long DEF_DEBOUNCE_MS       = 500L;
+
+    private static volatile ConfigWatcher shared;
+
+    private final Path file;
+    private final long debounceMs;
+    private final WatchService watchService;
+    private final Thread watcher;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+
+    private ConfigWatcher(Path file, long debounceMs) throws IOException {
+        this.file = file;
+        this.debounceMs = Math.max(0L, debounceMs);
+        this.watchService = FileSystems.getDefault().newWatchService();
+        // Watch the directory: editors and config management often replace the file instead of writing to it
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watcher = ConcurrencyUtils.namedThreadFactory("esmd-config-watcher", true).newThread(this::watch);
+        this.watcher.start();
+        log.info("ConfigWatcher watching {} (debounceMs={})", file, this.debounceMs);
+    }
+
+    /**
+     * Starts watching the external configuration file.
+     *
+     * @param debounceMs how long to wait after a file event for further events before reloading
+     * @return the running watcher
+     * @throws IllegalStateException if no external configuration file is configured
+     * @throws IOException if the file's directory cannot be watched
+     */
+    public static ConfigWatcher start(long debounceMs) throws IOException {
+        Path file = PropertiesUtils.getExternalConfigFile();
+        if (file == null) {
+            throw new IllegalStateException("No external configuration file is configured");
+        }
+        return new ConfigWatcher(file, debounceMs);
+    }
+
+    /**
+     * True if an external configuration file is configured and {@code api.config.watch.enabled} is not false.
+     * Nothing starts the watcher implicitly; long-running workers call {@link #startSharedIfEnabled()}.
+     */
+    public static boolean isEnabled() {
+        return PropertiesUtils.getExternalConfigFile() != null
+                && Boolean.parseBoolean(PropertiesUtils.loadProperties().getProperty(KEY_ENABLED, "true").trim());
+    }
+
+    /** Process-wide watcher of the external configuration file; started on first use. */
+    public static ConfigWatcher getShared() {
+        ConfigWatcher w = shared;
+        if (w == null) {
+            synchronized (ConfigWatcher.class) {
+                w = shared;
+                if (w == null) {
+                    try {
+                        w = start(PropertiesUtils.getLongProperty(KEY_DEBOUNCE_MS, DEF_DEBOUNCE_MS));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to watch configuration file", e);
+                    }
+                    shared = w;
+                }
+            }
+        }
+        return w;
+    }
+
+    /**
+     * Starts the shared watcher if {@link #isEnabled()}; the entry point for long-running workers such as
+     * StatusPollingService. Callers work without hot reload if the file cannot be watched.
+     *
+     * @return the shared watcher, or null if hot reload is disabled or not available
+     */
+    public static ConfigWatcher startSharedIfEnabled() {
+        if (!isEnabled()) {
+            return null;
+        }
+        try {
+            return getShared();
+        } catch (IllegalStateException ise) {
+            log.warn("Configuration hot reload is not available: {}", ise.getMessage(), ise);
+            return null;
+        }
+    }
+
+    /**
+     * Re-reads and validates the configuration and, if it is valid and has changed, makes it current.
+     *
+     * @return true if a new configuration was swapped in
+     */
+    public boolean reloadNow() {
+        try {
+            Properties fresh = PropertiesUtils.loadProperties(null);
+            if (fresh.equals(PropertiesUtils.loadProperties())) {
+                log.debug("Configuration file {} changed but the configuration did not", file);
+                return false;
+            }
+            // Validate before touching the running configuration
+            EsmdConfig config = EsmdConfig.from(fresh);
+            EsmdConfig.install(fresh, config);
+            reloads.incrementAndGet();
+            log.info("Configuration reloaded from {}", file);
+            return true;
+        } catch (RuntimeException re) {
+            failedReloads.incrementAndGet();
+            log.warn("Ignoring configuration change in {}: {}", file, re.getMessage());
+            return false;
+        }
+    }
+
+    /** The watched file. */
+    public Path getFile() {
+        return file;
+    }
+
+    /** Number of configuration changes swapped in. */
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    /** Number of changes rejected because the file could not be read or was invalid. */
+    public long getFailedReloadCount() {
+        return failedReloads.get();
+    }
+
+    /** Stops watching; the current configuration stays in place. */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Error closing configuration watch service", e);
+        }
+        watcher.interrupt();
+        synchronized (ConfigWatcher.class) {
+            if (shared == this) {
+                shared = null;
+            }
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key);
+                if (changed) {
+                    // Let the writer finish and collapse the burst of events into one reload
+                    WatchKey next;
+                    while ((next = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+                        drain(next);
+                    }
+                    reloadNow();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("ConfigWatcher for {} stopped", file);
+        }
+    }
+
+    /** Consumes the key's events and re-arms it; returns true if any of them concern the watched file. */
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || Objects.equals(event.context(), file.getFileName())) {
+                changed = true;
+            }
+        }
+        if (!key.reset()) {
+            log.warn("Directory of {} is no longer watchable; configuration changes will be ignored", file);
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,551 @@
+package gov.cms.esmd.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * EsmdConfig
+ *
+ * Typed, immutable snapshot of api-properties.yml, resolved and validated once.
+ * - Endpoint URLs are built per environment up front, so clients no longer look up keys or
+ *   concatenate URLs on construction
+ * - Required keys, URLs and numbers are checked eagerly; a broken file fails at load time with the
+ *   offending key, not on first use of a client
+ * - {@link #get()} returns the current process-wide snapshot; {@link #reload()} re-reads the configuration
+ *   files and swaps it atomically, together with the read-only {@link PropertiesUtils#loadProperties()}
+ * - Clients take a snapshot by injection; the {@code (String env)} constructors use {@link #get()}
+ * - Listeners registered with {@link #addListener(Consumer)} are told about every new snapshot, so
+ *   long-lived pools and limiters can pick up changed limits
+ */
+public final class EsmdConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EsmdConfig.class);
+
+    // Property keys
+    private static final String KEY_ENV_PREFIX              = "api.environment.";
+    private static final String KEY_MAILBOX_ID              = "userinfo.mailboxid";
+    private static final String KEY_CLIENT_ID               = "userinfo.clientid";
+    private static final String KEY_CLIENT_SECRET           = "userinfo.clientsecret";
+    private static final String KEY_LOB_ID                  = "application.linesofbusinessid";
+
+    private static final String KEY_URL_AUTH                = "api.url.auth";
+    private static final String KEY_URL_DOWNLOAD            = "api.url.download-url";
+    private static final String KEY_URL_UPLOAD              = "api.url.upload-url";
+    private static final String KEY_URL_REALTIME            = "api.url.pa-results-realtime";
+    private static final String KEY_URL_ADMIN_ERROR         = "api.url.admin-error-notification";
+    private static final String KEY_URL_PICKUP              = "api.url.pickup-notification";
+    private static final String KEY_URL_PAREJECT            = "api.url.pareject-notification";
+    private static final String KEY_URL_STATUS              = "api.url.notification-status";
+
+    private static final String KEY_SCOPE_NOTIFICATION      = "api.scope.notification";
+    private static final String KEY_SCOPE_STATUS            = "api.scope.status";
+    private static final String KEY_SCOPE_UPLOAD_REALTIME   = "api.scope.uploadrealtime";
+    private static final String KEY_SCOPE_UPLOAD            = "api.scope.upload";
+    private static final String KEY_SCOPE_DOWNLOAD          = "api.scope.download";
+
+    private static final String KEY_DL_LOCAL_PATH           = "api.file-download.local-path";
+    private static final String KEY_DL_CONCURRENCY          = "api.file-download.concurrency";
+    private static final String KEY_DL_RESUME_ATTEMPTS      = "api.file-download.resume-attempts";
+    private static final String KEY_DL_RESUME_BACKOFF_MS    = "api.file-download.resume-backoff-ms";
+    private static final String KEY_DL_CONNECT_TIMEOUT_MS   = "api.file-download.connect-timeout-ms";
+    private static final String KEY_DL_READ_TIMEOUT_MS      = "api.file-download.read-timeout-ms";
+    private static final String KEY_DL_SEGMENTS             = "api.file-download.segments";
+    private static final String KEY_DL_SEGMENT_THRESHOLD    = "api.file-download.segment-threshold-bytes";
+    private static final String KEY_DL_STREAM_EXTRACT       = "api.file-download.stream-extract";
+    private static final String KEY_DL_KEEP_ARCHIVE         = "api.file-download.keep-archive";
+    private static final String KEY_DL_EXTRACT_THREADS      = "api.file-download.extract-threads";
+
+    private static final String KEY_UL_LOCAL_PATH           = "api.file-upload.local-path";
+    private static final String KEY_UL_PART_SIZE            = "api.file-upload.partsize";
+    private static final String KEY_UL_BUFFER_SIZE          = "api.file-upload.buffer-size";
+
+    private static final String KEY_RT_BULK_CONCURRENCY     = "api.realtime.bulk.concurrency";
+    private static final String KEY_RT_BULK_RPS             = "api.realtime.bulk.requests-per-second";
+
+    private static final String KEY_HTTP_CONNECT_TIMEOUT    = "http.connect.timeout.ms";
+    private static final String KEY_HTTP_SOCKET_TIMEOUT     = "http.socket.timeout.ms";
+    private static final String KEY_HTTP_CONN_REQ_TIMEOUT   = "http.connection.request.timeout.ms";
+
+    // Defaults
+    private static final int DEF_DL_CONCURRENCY             = 1;
+    private static final int DEF_DL_RESUME_ATTEMPTS         = 5;
+    private static final long DEF_DL_RESUME_BACKOFF_MS      = 1_000L;
+    private static final int DEF_DL_CONNECT_TIMEOUT_MS      = 30_000;
+    private static final int DEF_DL_READ_TIMEOUT_MS         = 60_000;
+    private static final int DEF_DL_SEGMENTS                = 4;
+    private static final long DEF_DL_SEGMENT_THRESHOLD      = 64L * 1024 * 1024;
+    private static final int DEF_DL_EXTRACT_THREADS         = 4;
+    private static final int DEF_UL_BUFFER_SIZE             = 64 * 1024;
+    private static final int DEF_RT_BULK_CONCURRENCY        = 8;
+    private static final int DEF_RT_BULK_RPS                = 20;
+
+    // An unset HTTP timeout; each client applies its own default
+    private static final int UNSET = -1;
+
+    private static final List<Consumer<EsmdConfig>> listeners = new CopyOnWriteArrayList<>();
+
+    // Identity
+    private final String mailboxId;
+    private final String clientId;
+    private final String clientSecret;
+    private final String linesOfBusinessId;
+
+    // Endpoints, per environment
+    private final Map<String, Endpoints> environments;
+
+    // Scopes
+    private final String notificationScope;
+    private final String statusScope;
+    private final String uploadRealtimeScope;
+    private final String uploadScope;
+    private final String downloadScope;
+
+    // Download
+    private final String downloadLocalPath;
+    private final int downloadConcurrency;
+    private final int downloadResumeAttempts;
+    private final long downloadResumeBackoffMs;
+    private final int downloadConnectTimeoutMs;
+    private final int downloadReadTimeoutMs;
+    private final int downloadSegments;
+    private final long downloadSegmentThresholdBytes;
+    private final boolean downloadStreamExtract;
+    private final boolean downloadKeepArchive;
+    private final int downloadExtractThreads;
+
+    // Upload
+    private final String uploadLocalPath;
+    private final long uploadPartSize;
+    private final int uploadBufferSize;
+
+    // Real-time bulk upload
+    private final int realtimeBulkConcurrency;
+    private final int realtimeBulkRequestsPerSecond;
+
+    // HTTP request timeouts (ms), UNSET when not configured
+    private final int httpConnectTimeoutMs;
+    private final int httpSocketTimeoutMs;
+    private final int httpConnectionRequestTimeoutMs;
+
+    private EsmdConfig(Properties p) {
+        this.mailboxId = required(p, KEY_MAILBOX_ID);
+        this.clientId = required(p, KEY_CLIENT_ID);
+        this.clientSecret = required(p, KEY_CLIENT_SECRET);
+        this.linesOfBusinessId = required(p, KEY_LOB_ID);
+
+        this.environments = resolveEnvironments(p);
+
+        this.notificationScope = required(p, KEY_SCOPE_NOTIFICATION);
+        this.statusScope = required(p, KEY_SCOPE_STATUS);
+        this.uploadRealtimeScope = required(p, KEY_SCOPE_UPLOAD_REALTIME);
+        this.uploadScope = required(p, KEY_SCOPE_UPLOAD);
+        this.downloadScope = required(p, KEY_SCOPE_DOWNLOAD);
+
+        this.downloadLocalPath = required(p, KEY_DL_LOCAL_PATH);
+        this.downloadConcurrency = Math.max(1, intValue(p, KEY_DL_CONCURRENCY, DEF_DL_CONCURRENCY));
+        this.downloadResumeAttempts = Math.max(1, intValue(p, KEY_DL_RESUME_ATTEMPTS, DEF_DL_RESUME_ATTEMPTS));
+        this.downloadResumeBackoffMs = longValue(p, KEY_DL_RESUME_BACKOFF_MS, DEF_DL_RESUME_BACKOFF_MS);
+        this.downloadConnectTimeoutMs = intValue(p, KEY_DL_CONNECT_TIMEOUT_MS, DEF_DL_CONNECT_TIMEOUT_MS);
+        this.downloadReadTimeoutMs = intValue(p, KEY_DL_READ_TIMEOUT_MS, DEF_DL_READ_TIMEOUT_MS);
+        this.downloadSegments = intValue(p, KEY_DL_SEGMENTS, DEF_DL_SEGMENTS);
+        this.downloadSegmentThresholdBytes = longValue(p, KEY_DL_SEGMENT_THRESHOLD, DEF_DL_SEGMENT_THRESHOLD);
+        this.downloadStreamExtract = booleanValue(p, KEY_DL_STREAM_EXTRACT, false);
+        this.downloadKeepArchive = booleanValue(p, KEY_DL_KEEP_ARCHIVE, true);
+        this.downloadExtractThreads = Math.max(1, intValue(p, KEY_DL_EXTRACT_THREADS, DEF_DL_EXTRACT_THREADS));
+
+        this.uploadLocalPath = required(p, KEY_UL_LOCAL_PATH);
+        this.uploadPartSize = longValue(p, KEY_UL_PART_SIZE, null);
+        this.uploadBufferSize = intValue(p, KEY_UL_BUFFER_SIZE, DEF_UL_BUFFER_SIZE);
+
+        this.realtimeBulkConcurrency = Math.max(1, intValue(p, KEY_RT_BULK_CONCURRENCY, DEF_RT_BULK_CONCURRENCY));
+        this.realtimeBulkRequestsPerSecond = intValue(p, KEY_RT_BULK_RPS, DEF_RT_BULK_RPS);
+
+        this.httpConnectTimeoutMs = intValue(p, KEY_HTTP_CONNECT_TIMEOUT, UNSET);
+        this.httpSocketTimeoutMs = intValue(p, KEY_HTTP_SOCKET_TIMEOUT, UNSET);
+        this.httpConnectionRequestTimeoutMs = intValue(p, KEY_HTTP_CONN_REQ_TIMEOUT, UNSET);
+
+        if (uploadPartSize <= 0) {
+            throw new IllegalStateException("Property must be positive: " + KEY_UL_PART_SIZE);
+        }
+        if (uploadBufferSize <= 0) {
+            throw new IllegalStateException("Property must be positive: " + KEY_UL_BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Resolves and validates a snapshot from flattened properties.
+     *
+     * @param properties the flattened configuration, e.g. from {@link PropertiesUtils#loadProperties(String)}
+     * @return the snapshot
+     * @throws IllegalStateException if a required key is missing or a value is malformed
+     */
+    public static EsmdConfig from(Properties properties) {
+        Objects.requireNonNull(properties, "properties");
+        return new EsmdConfig(properties);
+    }
+
+    /**
+     * Returns the current process-wide snapshot, resolving it from {@link PropertiesUtils#loadProperties()}
+     * on first use.
+     *
+     * @return the current snapshot
+     * @throws IllegalStateException if the configuration is invalid
+     */
+    public static EsmdConfig get() {
+        return PropertiesUtils.currentConfig();
+    }
+
+    /**
+     * Re-reads the bundled api-properties.yml and the external configuration file, then makes the result
+     * current and notifies the listeners. Objects pinned to the previous snapshot keep using it.
+     *
+     * @return the new snapshot
+     * @throws IllegalStateException if the configuration cannot be read or is invalid; the current snapshot is kept
+     */
+    public static EsmdConfig reload() {
+        Properties properties = PropertiesUtils.loadProperties(null);
+        EsmdConfig config = from(properties);
+        install(properties, config);
+        return config;
+    }
+
+    /**
+     * Validates an in-memory configuration and makes it current, e.g. for embedding applications and
+     * tests that do not configure through files. The properties are copied; later changes to them are ignored.
+     *
+     * @param properties the flattened configuration
+     * @return the new snapshot
+     * @throws IllegalStateException if the configuration is invalid; the current snapshot is kept
+     */
+    public static EsmdConfig install(Properties properties) {
+        Properties copy = new Properties();
+        copy.putAll(Objects.requireNonNull(properties, "properties"));
+        EsmdConfig config = from(copy);
+        install(copy, config);
+        return config;
+    }
+
+    /**
+     * Registers a listener called with every snapshot made current after this call.
+     *
+     * @param listener callback; runs on the thread that swapped the snapshot and must be fast
+     */
+    public static void addListener(Consumer<EsmdConfig> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public static void removeListener(Consumer<EsmdConfig> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Makes properties and the snapshot validated from them current together, then notifies the listeners.
+     *
+     * @param properties the properties {@code config} was resolved from
+     * @param config the validated snapshot
+     */
+    static void install(Properties properties, EsmdConfig config) {
+        synchronized (EsmdConfig.class) {
+            PropertiesUtils.install(properties, config);
+        }
+        for (Consumer<EsmdConfig> listener : listeners) {
+            try {
+                listener.accept(config);
+            } catch (RuntimeException re) {
+                log.warn("Configuration listener failed: {}", re.getMessage(), re);
+            }
+        }
+    }
+
+    /**
+     * Returns the endpoints of an environment.
+     *
+     * @param env the environment key (e.g., "dev", "prod")
+     * @return the endpoints
+     * @throws IllegalStateException if the environment is not configured
+     */
+    public Endpoints endpoints(String env) {
+        Endpoints endpoints = env == null ? null : environments.get(env.trim());
+        if (endpoints == null) {
+            throw new IllegalStateException("Missing base URL for env='" + env + "' [" + KEY_ENV_PREFIX + env + "]");
+        }
+        return endpoints;
+    }
+
+    /** Configured environment keys. */
+    public Set<String> getEnvironments() {
+        return environments.keySet();
+    }
+
+    public String getMailboxId() {
+        return mailboxId;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getClientSecret() {
+        return clientSecret;
+    }
+
+    public String getLinesOfBusinessId() {
+        return linesOfBusinessId;
+    }
+
+    public String getNotificationScope() {
+        return notificationScope;
+    }
+
+    public String getStatusScope() {
+        return statusScope;
+    }
+
+    public String getUploadRealtimeScope() {
+        return uploadRealtimeScope;
+    }
+
+    public String getUploadScope() {
+        return uploadScope;
+    }
+
+    public String getDownloadScope() {
+        return downloadScope;
+    }
+
+    public String getDownloadLocalPath() {
+        return downloadLocalPath;
+    }
+
+    public int getDownloadConcurrency() {
+        return downloadConcurrency;
+    }
+
+    public int getDownloadResumeAttempts() {
+        return downloadResumeAttempts;
+    }
+
+    public long getDownloadResumeBackoffMs() {
+        return downloadResumeBackoffMs;
+    }
+
+    public int getDownloadConnectTimeoutMs() {
+        return downloadConnectTimeoutMs;
+    }
+
+    public int getDownloadReadTimeoutMs() {
+        return downloadReadTimeoutMs;
+    }
+
+    public int getDownloadSegments() {
+        return downloadSegments;
+    }
+
+    public long getDownloadSegmentThresholdBytes() {
+        return downloadSegmentThresholdBytes;
+    }
+
+    public boolean isDownloadStreamExtract() {
+        return downloadStreamExtract;
+    }
+
+    public boolean isDownloadKeepArchive() {
+        return downloadKeepArchive;
+    }
+
+    public int getDownloadExtractThreads() {
+        return downloadExtractThreads;
+    }
+
+    public String getUploadLocalPath() {
+        return uploadLocalPath;
+    }
+
+    public long getUploadPartSize() {
+        return uploadPartSize;
+    }
+
+    public int getUploadBufferSize() {
+        return uploadBufferSize;
+    }
+
+    public int getRealtimeBulkConcurrency() {
+        return realtimeBulkConcurrency;
+    }
+
+    public int getRealtimeBulkRequestsPerSecond() {
+        return realtimeBulkRequestsPerSecond;
+    }
+
+    /** {@code http.connect.timeout.ms}, or {@code defaultValue} when not configured. */
+    public int getHttpConnectTimeoutMs(int defaultValue) {
+        return httpConnectTimeoutMs == UNSET ? defaultValue : httpConnectTimeoutMs;
+    }
+
+    /** {@code http.socket.timeout.ms}, or {@code defaultValue} when not configured. */
+    public int getHttpSocketTimeoutMs(int defaultValue) {
+        return httpSocketTimeoutMs == UNSET ? defaultValue : httpSocketTimeoutMs;
+    }
+
+    /** {@code http.connection.request.timeout.ms}, or {@code defaultValue} when not configured. */
+    public int getHttpConnectionRequestTimeoutMs(int defaultValue) {
+        return httpConnectionRequestTimeoutMs == UNSET ? defaultValue : httpConnectionRequestTimeoutMs;
+    }
+
+    /**
+     * Fully built endpoint URLs of one environment.
+     */
+    public static final class Endpoints {
+        private final String environment;
+        private final String baseUrl;
+        private final String authUrl;
+        private final String downloadUrl;
+        private final String uploadUrl;
+        private final String realtimeUrl;
+        private final String adminErrorNotificationUrl;
+        private final String pickupNotificationUrl;
+        private final String paRejectNotificationUrl;
+        private final String statusUrl;
+
+        private Endpoints(String environment, String baseUrl, Properties p) {
+            this.environment = environment;
+            this.baseUrl = baseUrl;
+            this.authUrl = url(baseUrl, p, KEY_URL_AUTH);
+            this.downloadUrl = url(baseUrl, p, KEY_URL_DOWNLOAD);
+            this.uploadUrl = url(baseUrl, p, KEY_URL_UPLOAD);
+            this.realtimeUrl = url(baseUrl, p, KEY_URL_REALTIME);
+            this.adminErrorNotificationUrl = url(baseUrl, p, KEY_URL_ADMIN_ERROR);
+            this.pickupNotificationUrl = url(baseUrl, p, KEY_URL_PICKUP);
+            this.paRejectNotificationUrl = url(baseUrl, p, KEY_URL_PAREJECT);
+            this.statusUrl = url(baseUrl, p, KEY_URL_STATUS);
+        }
+
+        public String getEnvironment() {
+            return environment;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public String getAuthUrl() {
+            return authUrl;
+        }
+
+        /** Object listing and download presign endpoint ({@code api.url.download-url}). */
+        public String getDownloadUrl() {
+            return downloadUrl;
+        }
+
+        /** Upload presign endpoint ({@code api.url.upload-url}). */
+        public String getUploadUrl() {
+            return uploadUrl;
+        }
+
+        public String getRealtimeUrl() {
+            return realtimeUrl;
+        }
+
+        public String getAdminErrorNotificationUrl() {
+            return adminErrorNotificationUrl;
+        }
+
+        public String getPickupNotificationUrl() {
+            return pickupNotificationUrl;
+        }
+
+        public String getPaRejectNotificationUrl() {
+            return paRejectNotificationUrl;
+        }
+
+        public String getStatusUrl() {
+            return statusUrl;
+        }
+
+        private static String url(String baseUrl, Properties p, String key) {
+            String url = baseUrl + required(p, key);
+            try {
+                new URL(url);
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException("Invalid URL '" + url + "' built from " + key, e);
+            }
+            return url;
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static Map<String, Endpoints> resolveEnvironments(Properties p) {
+        Map<String, Endpoints> environments = new TreeMap<>();
+        for (String key : p.stringPropertyNames()) {
+            if (key.startsWith(KEY_ENV_PREFIX)) {
+                String env = key.substring(KEY_ENV_PREFIX.length());
+                environments.put(env, new Endpoints(env, required(p, key), p));
+            }
+        }
+        if (environments.isEmpty()) {
+            throw new IllegalStateException("No environments configured under " + KEY_ENV_PREFIX + "*");
+        }
+        return Collections.unmodifiableMap(environments);
+    }
+
+    private static String required(Properties p, String key) {
+        String value = p.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalStateException("Required property not found or empty: " + key);
+        }
+        return value.trim();
+    }
+
+    private static int intValue(Properties p, String key, int defaultValue) {
+        String value = p.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException nfe) {
+            throw new IllegalStateException("Invalid integer for " + key + ": '" + value + "'", nfe);
+        }
+    }
+
+    /** A null {@code defaultValue} makes the key required. */
+    private static long longValue(Properties p, String key, Long defaultValue) {
+        String value = p.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            if (defaultValue == null) {
+                throw new IllegalStateException("Required property not found or empty: " + key);
+            }
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException nfe) {
+            throw new IllegalStateException("Invalid number for " + key + ": '" + value + "'", nfe);
+        }
+    }
+
+    private static boolean booleanValue(Properties p, String key, boolean defaultValue) {
+        String value = p.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        String trimmed = value.trim();
+        if (!trimmed.equalsIgnoreCase("true") && !trimmed.equalsIgnoreCase("false")) {
+            throw new IllegalStateException("Invalid boolean for " + key + ": '" + value + "'");
+        }
+        return Boolean.parseBoolean(trimmed);
+    }
+}
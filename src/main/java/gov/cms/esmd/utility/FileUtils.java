@@ -38,6 +38,10 @@ public class FileUtils {
         }
     }
     public static String getFileSize(File file_, String conversionType_, String decimalFormat_) {
+        return formatFileSize(org.apache.commons.io.FileUtils.sizeOf(file_), conversionType_, decimalFormat_);
+    }
+
+    public static String formatFileSize(long fileSizeBytes, String conversionType_, String decimalFormat_) {
 
         DecimalFormat df = null;
         float sizeKB = 1024.0f;
@@ -49,8 +53,6 @@ public class FileUtils {
         else
             df = new DecimalFormat(decimalFormat_);
 
-        long fileSizeBytes = org.apache.commons.io.FileUtils.sizeOf(file_);
-
         if (StringUtils.equalsIgnoreCase(conversionType_,"KB")) {
             return df.format(fileSizeBytes/sizeKB);
         } else if (StringUtils.equalsIgnoreCase(conversionType_,"MB")) {
@@ -0,0 +1,402 @@
+package gov.cms.esmd.utility;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import gov.cms.esmd.bean.ErrorMessage;
+import gov.cms.esmd.bean.adminerror.Notification;
+import gov.cms.esmd.bean.response.BeneInformation;
+import gov.cms.esmd.bean.response.DownloadObject;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.PickupNotification;
+import gov.cms.esmd.bean.response.StatusDetail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JsonCodec
+ *
+ * Shared, thread-safe JSON codec for esMD messages.
+ * - Compact output (no pretty printing); null fields are omitted, as with a default Gson
+ * - Hand-written TypeAdapters for the beans on the hot path (StatusDetail, Notification, PickupNotification,
+ *   NotificationResponse, DownloadObject, ErrorMessage) avoid reflection; field names and order match
+ *   the reflective output, so the wire format is unchanged
+ * - Other types fall back to Gson's reflective binding
+ * - Can write straight to a Writer or OutputStream and read from a Reader or InputStream (UTF-8)
+ */
+public final class JsonCodec {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new BeanAdapterFactory())
+            .create();
+
+    private JsonCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    /** The shared Gson instance, with the bean adapters registered. */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    public static String toJson(Object value) {
+        return GSON.toJson(value);
+    }
+
+    /**
+     * Writes the value to the writer; the writer is flushed but not closed.
+     *
+     * @throws IOException if the writer fails
+     */
+    public static void toJson(Object value, Writer writer) throws IOException {
+        JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+        if (value == null) {
+            jsonWriter.nullValue();
+        } else {
+            GSON.toJson(value, value.getClass(), jsonWriter);
+        }
+        jsonWriter.flush();
+    }
+
+    /**
+     * Writes the value to the stream as UTF-8; the stream is flushed but not closed.
+     *
+     * @throws IOException if the stream fails
+     */
+    public static void toJson(Object value, OutputStream out) throws IOException {
+        toJson(value, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public static <T> T fromJson(String json, Class<T> type) {
+        return GSON.fromJson(json, type);
+    }
+
+    public static <T> T fromJson(Reader reader, Class<T> type) {
+        return GSON.fromJson(reader, type);
+    }
+
+    /** Reads a UTF-8 JSON value from the stream; the stream is not closed. */
+    public static <T> T fromJson(InputStream in, Class<T> type) {
+        return GSON.fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), type);
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static final class BeanAdapterFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<? super T> raw = type.getRawType();
+            TypeAdapter<?> adapter;
+            if (raw == ErrorMessage.class) {
+                adapter = new ErrorMessageAdapter();
+            } else if (raw == StatusDetail.class) {
+                adapter = new StatusDetailAdapter(gson.getAdapter(ErrorMessage.class), gson.getAdapter(BeneInformation.class));
+            } else if (raw == NotificationResponse.class) {
+                adapter = new NotificationResponseAdapter(gson.getAdapter(StatusDetail.class));
+            } else if (raw == Notification.class) {
+                adapter = new NotificationAdapter(gson.getAdapter(ErrorMessage.class));
+            } else if (raw == PickupNotification.class) {
+                adapter = new PickupNotificationAdapter(gson.getAdapter(Notification.class),
+                        gson.getAdapter(PickupNotification.ErrorInfo.class));
+            } else if (raw == DownloadObject.class) {
+                adapter = new DownloadObjectAdapter();
+            } else {
+                return null;
+            }
+            return (TypeAdapter<T>) adapter.nullSafe();
+        }
+    }
+
+    private static final class ErrorMessageAdapter extends TypeAdapter<ErrorMessage> {
+        @Override
+        public void write(JsonWriter out, ErrorMessage value) throws IOException {
+            out.beginObject();
+            out.name("errorCode").value(value.getErrorCode());
+            out.name("errorName").value(value.getErrorName());
+            out.name("errorDescription").value(value.getErrorDescription());
+            out.endObject();
+        }
+
+        @Override
+        public ErrorMessage read(JsonReader in) throws IOException {
+            ErrorMessage value = new ErrorMessage(null, null, null);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "errorCode": value.setErrorCode(readString(in)); break;
+                    case "errorName": value.setErrorName(readString(in)); break;
+                    case "errorDescription": value.setErrorDescription(readString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class StatusDetailAdapter extends TypeAdapter<StatusDetail> {
+        private final TypeAdapter<ErrorMessage> errorAdapter;
+        private final TypeAdapter<BeneInformation> beneAdapter;
+
+        private StatusDetailAdapter(TypeAdapter<ErrorMessage> errorAdapter, TypeAdapter<BeneInformation> beneAdapter) {
+            this.errorAdapter = errorAdapter;
+            this.beneAdapter = beneAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, StatusDetail value) throws IOException {
+            out.beginObject();
+            out.name("esMDTransactionId").value(value.getEsMDTransactionID());
+            out.name("contenttypecd").value(value.getContenttypecd());
+            out.name("parentTransactionId").value(value.getParentTransactionID());
+            out.name("deliveryType").value(value.getDeliveryType());
+            out.name("uniqueTrackingNumber").value(value.getUniqueTrackingNumber());
+            out.name("beneInformation");
+            beneAdapter.write(out, value.getBeneInformation());
+            out.name("uniqueId").value(value.getUniqueId());
+            out.name("carrierId").value(value.getCarrierId());
+            out.name("transactionType").value(value.getTransactionType());
+            out.name("status").value(value.getStatus());
+            out.name("statusDescription").value(value.getStatusDescription());
+            out.name("errorMessages");
+            writeList(out, value.getErrorMessages(), errorAdapter);
+            out.endObject();
+        }
+
+        @Override
+        public StatusDetail read(JsonReader in) throws IOException {
+            // Fields absent from the message stay null, as with reflective binding
+            StatusDetail value = new StatusDetail(null);
+            value.setStatus(null);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "esMDTransactionId": value.setEsMDTransactionID(readString(in)); break;
+                    case "contenttypecd": value.setContenttypecd(readString(in)); break;
+                    case "parentTransactionId": value.setParentTransactionID(readString(in)); break;
+                    case "deliveryType": value.setDeliveryType(readString(in)); break;
+                    case "uniqueTrackingNumber": value.setUniqueTrackingNumber(readString(in)); break;
+                    case "beneInformation": value.setBeneInformation(beneAdapter.read(in)); break;
+                    case "uniqueId": value.setUniqueId(readString(in)); break;
+                    case "carrierId": value.setCarrierId(readString(in)); break;
+                    case "transactionType": value.setTransactionType(readString(in)); break;
+                    case "status": value.setStatus(readString(in)); break;
+                    case "statusDescription": value.setStatusDescription(readString(in)); break;
+                    case "errorMessages": value.setErrorMessages(readList(in, errorAdapter)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class NotificationResponseAdapter extends TypeAdapter<NotificationResponse> {
+        private final TypeAdapter<StatusDetail> detailAdapter;
+
+        private NotificationResponseAdapter(TypeAdapter<StatusDetail> detailAdapter) {
+            this.detailAdapter = detailAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, NotificationResponse value) throws IOException {
+            out.beginObject();
+            out.name("senderRoutingID").value(value.getSenderRoutingID());
+            out.name("message").value(value.getMessage());
+            out.name("senderRoutingId").value(value.getSenderRoutingId());
+            out.name("statusDetails");
+            writeList(out, value.getStatusDetails(), detailAdapter);
+            out.endObject();
+        }
+
+        @Override
+        public NotificationResponse read(JsonReader in) throws IOException {
+            NotificationResponse value = new NotificationResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "senderRoutingID": value.setSenderRoutingID(readString(in)); break;
+                    case "message": value.setMessage(readString(in)); break;
+                    case "senderRoutingId": value.setSenderRoutingId(readString(in)); break;
+                    case "statusDetails": value.setStatusDetails(readList(in, detailAdapter)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class NotificationAdapter extends TypeAdapter<Notification> {
+        private final TypeAdapter<ErrorMessage> errorAdapter;
+
+        private NotificationAdapter(TypeAdapter<ErrorMessage> errorAdapter) {
+            this.errorAdapter = errorAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, Notification value) throws IOException {
+            out.beginObject();
+            out.name("esMDTransactionId").value(value.getEsMDTransactionId());
+            out.name("creationTime").value(value.getCreationTime());
+            out.name("submissionTime").value(value.getSubmissionTime());
+            out.name("pickupTime").value(value.getPickupTime());
+            out.name("status").value(value.getStatus());
+            out.name("filename").value(value.getFilename());
+            out.name("errorMessages");
+            writeList(out, value.getErrorMessages(), errorAdapter);
+            out.endObject();
+        }
+
+        @Override
+        public Notification read(JsonReader in) throws IOException {
+            Notification value = new Notification();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "esMDTransactionId": value.setEsMDTransactionId(readString(in)); break;
+                    case "creationTime": value.setCreationTime(readString(in)); break;
+                    case "submissionTime": value.setSubmissionTime(readString(in)); break;
+                    case "pickupTime": value.setPickupTime(readString(in)); break;
+                    case "status": value.setStatus(readString(in)); break;
+                    case "filename": value.setFilename(readString(in)); break;
+                    case "errorMessages": value.setErrorMessages(readList(in, errorAdapter)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class PickupNotificationAdapter extends TypeAdapter<PickupNotification> {
+        private final TypeAdapter<Notification> notificationAdapter;
+        private final TypeAdapter<PickupNotification.ErrorInfo> errorInfoAdapter;
+
+        private PickupNotificationAdapter(TypeAdapter<Notification> notificationAdapter,
+                                          TypeAdapter<PickupNotification.ErrorInfo> errorInfoAdapter) {
+            this.notificationAdapter = notificationAdapter;
+            this.errorInfoAdapter = errorInfoAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, PickupNotification value) throws IOException {
+            out.beginObject();
+            out.name("notificationType").value(value.getNotificationType());
+            out.name("esMDTransactionId").value(value.getEsMDTransactionId());
+            out.name("senderRoutingId").value(value.getSenderRoutingId());
+            out.name("pickupTime").value(value.getPickupTime());
+            out.name("submissionTime").value(value.getSubmissionTime());
+            out.name("fileName").value(value.getFileName());
+            out.name("notification");
+            writeList(out, value.getNotification(), notificationAdapter);
+            out.name("errorInfo");
+            errorInfoAdapter.write(out, value.getErrorInfo());
+            out.endObject();
+        }
+
+        @Override
+        public PickupNotification read(JsonReader in) throws IOException {
+            PickupNotification value = new PickupNotification();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "notificationType": value.setNotificationType(readString(in)); break;
+                    case "esMDTransactionId": value.setEsMDTransactionId(readString(in)); break;
+                    case "senderRoutingId": value.setSenderRoutingId(readString(in)); break;
+                    case "pickupTime": value.setPickupTime(readString(in)); break;
+                    case "submissionTime": value.setSubmissionTime(readString(in)); break;
+                    case "fileName": value.setFileName(readString(in)); break;
+                    case "notification": value.setNotification(readList(in, notificationAdapter)); break;
+                    case "errorInfo": value.setErrorInfo(errorInfoAdapter.read(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    private static final class DownloadObjectAdapter extends TypeAdapter<DownloadObject> {
+        @Override
+        public void write(JsonWriter out, DownloadObject value) throws IOException {
+            out.beginObject();
+            out.name("filename").value(value.getFilename());
+            out.name("size").value(value.getSize());
+            out.name("createdOn").value(value.getCreatedOn());
+            out.name("lastDownloaded").value(value.getLastDownloaded());
+            out.endObject();
+        }
+
+        @Override
+        public DownloadObject read(JsonReader in) throws IOException {
+            DownloadObject value = new DownloadObject();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "filename": value.setFilename(readString(in)); break;
+                    case "size": value.setSize(readString(in)); break;
+                    case "createdOn": value.setCreatedOn(readString(in)); break;
+                    case "lastDownloaded": value.setLastDownloaded(readString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /** Reads a string field the way Gson's reflective binding does: numbers and booleans become text. */
+    private static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    private static <E> ArrayList<E> readList(JsonReader in, TypeAdapter<E> elementAdapter) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ArrayList<E> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(elementAdapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static <E> void writeList(JsonWriter out, List<E> list, TypeAdapter<E> elementAdapter) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (E element : list) {
+            elementAdapter.write(out, element);
+        }
+        out.endArray();
+    }
+}
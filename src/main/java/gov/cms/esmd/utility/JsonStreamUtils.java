@@ -0,0 +1,174 @@
+package gov.cms.esmd.utility;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * JsonStreamUtils
+ *
+ * Parses JSON response bodies straight from the HTTP entity stream, without first copying
+ * the whole body into a String.
+ * - {@link #read} binds a whole body to a type
+ * - {@link #readEnvelope} hands the elements of one array field to a callback as they are parsed,
+ *   so only one element is in memory at a time; the other fields are bound to the envelope type
+ * - {@link #snippet} reads at most a bounded prefix of a body for logging
+ */
+public final class JsonStreamUtils {
+
+    /** Default number of characters of a body that may be logged. */
+    public static final int DEFAULT_SNIPPET_CHARS = 1024;
+
+    private JsonStreamUtils() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Parses the whole entity body into the given type.
+     *
+     * @param entity the response entity; may be null
+     * @param type the target type
+     * @param gson the Gson instance to bind with
+     * @return the parsed value, or null for a missing or empty body
+     * @throws IOException if the body cannot be read
+     * @throws JsonSyntaxException if the body is not valid JSON for the type
+     */
+    public static <T> T read(HttpEntity entity, Class<T> type, Gson gson) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        try (JsonReader reader = newReader(entity)) {
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
+                return null;
+            }
+            return gson.fromJson(reader, type);
+        } catch (JsonIOException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Parses a JSON object body, passing each element of {@code arrayField} to {@code elementConsumer}
+     * as soon as it is parsed. The remaining fields are bound to {@code envelopeType}; the array field
+     * itself is left unset on the returned envelope.
+     *
+     * @param entity the response entity; may be null
+     * @param envelopeType the type the other top-level fields are bound to
+     * @param arrayField the name of the top-level array to stream
+     * @param elementType the array element type
+     * @param gson the Gson instance to bind with
+     * @param elementConsumer receives each array element in order
+     * @return the envelope, or null for a missing or empty body
+     * @throws IOException if the body cannot be read
+     * @throws JsonSyntaxException if the body is not valid JSON for the types
+     */
+    public static <E, T> E readEnvelope(HttpEntity entity, Class<E> envelopeType, String arrayField,
+                                        Class<T> elementType, Gson gson, Consumer<? super T> elementConsumer)
+            throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        try (JsonReader reader = newReader(entity)) {
+            return readEnvelope(reader, envelopeType, arrayField, elementType, gson, elementConsumer);
+        } catch (JsonIOException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Same as {@link #readEnvelope(HttpEntity, Class, String, Class, Gson, Consumer)} for an open reader.
+     */
+    public static <E, T> E readEnvelope(JsonReader reader, Class<E> envelopeType, String arrayField,
+                                        Class<T> elementType, Gson gson, Consumer<? super T> elementConsumer)
+            throws IOException {
+        if (reader.peek() == JsonToken.END_DOCUMENT || reader.peek() == JsonToken.NULL) {
+            return null;
+        }
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new JsonSyntaxException("Expected a JSON object but was " + reader.peek());
+        }
+
+        JsonObject envelope = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals(arrayField) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    T element = gson.fromJson(reader, elementType);
+                    elementConsumer.accept(element);
+                }
+                reader.endArray();
+            } else {
+                envelope.add(name, JsonParser.parseReader(reader));
+            }
+        }
+        reader.endObject();
+        return gson.fromJson(envelope, envelopeType);
+    }
+
+    /**
+     * Reads at most {@code maxChars} characters of the entity body, for logging error responses.
+     * The rest of the body is left unread; closing the response releases it.
+     *
+     * @param entity the response entity; may be null
+     * @param maxChars the maximum number of characters to return
+     * @return the body prefix, marked when truncated; empty for a missing body
+     */
+    public static String snippet(HttpEntity entity, int maxChars) {
+        if (entity == null) {
+            return "";
+        }
+        try (Reader reader = new InputStreamReader(entity.getContent(), charsetOf(entity))) {
+            char[] buffer = new char[maxChars + 1];
+            int total = 0;
+            int read;
+            while (total < buffer.length && (read = reader.read(buffer, total, buffer.length - total)) != -1) {
+                total += read;
+            }
+            return total <= maxChars
+                    ? new String(buffer, 0, total)
+                    : new String(buffer, 0, maxChars) + "...(truncated)";
+        } catch (IOException | RuntimeException e) {
+            return "(unreadable body: " + e.getMessage() + ")";
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static JsonReader newReader(HttpEntity entity) throws IOException {
+        InputStream in = entity.getContent();
+        return new JsonReader(new InputStreamReader(in, charsetOf(entity)));
+    }
+
+    private static Charset charsetOf(HttpEntity entity) {
+        try {
+            ContentType contentType = ContentType.get(entity);
+            if (contentType != null && contentType.getCharset() != null) {
+                return contentType.getCharset();
+            }
+        } catch (RuntimeException ignored) {
+            // Malformed or unsupported charset; fall back to UTF-8
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /** Gson wraps read failures in JsonIOException; surface them as the IOException they are. */
+    private static IOException unwrap(JsonIOException e) {
+        return e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getMessage(), e);
+    }
+}
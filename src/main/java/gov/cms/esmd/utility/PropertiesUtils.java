@@ -7,48 +7,253 @@ import static org.apache.commons.io.IOUtils.resourceToString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 
 
 public class PropertiesUtils {
 
-    private static Properties properties ;
+    // External configuration file overlaid on the bundled defaults
+    private static final String SYS_CONFIG_FILE = "esmd.config.file";
+    private static final String ENV_CONFIG_FILE = "ESMD_CONFIG_FILE";
+
+    // Current properties and the EsmdConfig resolved from them, always published together
+    private static volatile Snapshot snapshot;
+
+    /**
+     * Returns the shared configuration, parsing api-properties.yml on first use.
+     * Safe to call from several threads; the file is parsed exactly once.
+     * The returned properties are read-only; change the configuration through
+     * {@link EsmdConfig#install(Properties)} or the external configuration file instead.
+     *
+     * @return the shared, read-only properties
+     */
     public static Properties loadProperties() {
-        if( properties == null ){
-            properties = loadProperties(null);
-        }
-        return properties;
+        return snapshot().properties;
     }
 
+    /**
+     * Parses the bundled api-properties.yml and, when one is configured, overlays the external
+     * configuration file on top of it. Every call returns a new, independent Properties instance.
+     *
+     * @param profile unused, kept for compatibility
+     * @return the flattened configuration
+     * @throws IllegalStateException if a file cannot be read or is not a valid YAML map
+     */
     public static Properties loadProperties(String profile) {
         try {
-            String yamlContent = resourceToString("/api-properties.yml", defaultCharset());
-            if (isBlank(yamlContent)) {
-                throw new IllegalStateException("Configuration file is empty");
-            }
-            
-            Yaml yaml = new Yaml();
-            Object loaded = yaml.load(yamlContent);
-            
-            if (loaded == null) {
-                throw new IllegalStateException("Invalid YAML configuration");
-            }
-            
-            if (!(loaded instanceof Map)) {
-                throw new IllegalStateException("Configuration must be a valid YAML map");
-            }
-            
             Properties properties = new Properties();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> loadedMap = (Map<String, Object>) loaded;
-            properties.putAll(getFlattenedMap(loadedMap));
+            properties.putAll(parseYaml(resourceToString("/api-properties.yml", defaultCharset()), "api-properties.yml"));
+
+            Path external = getExternalConfigFile();
+            if (external != null) {
+                String yamlContent = new String(Files.readAllBytes(external), StandardCharsets.UTF_8);
+                properties.putAll(parseYaml(yamlContent, external.toString()));
+            }
             return properties;
         } catch (IOException e) {
             throw new IllegalStateException("Cannot load properties: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Returns the external configuration file overlaid on the bundled defaults, taken from the
+     * {@code esmd.config.file} system property or the {@code ESMD_CONFIG_FILE} environment variable.
+     *
+     * @return the external file, or null if none is configured
+     */
+    public static Path getExternalConfigFile() {
+        String location = System.getProperty(SYS_CONFIG_FILE);
+        if (isBlank(location)) {
+            location = System.getenv(ENV_CONFIG_FILE);
+        }
+        return isBlank(location) ? null : Paths.get(location.trim()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Replaces the shared configuration returned by {@link #loadProperties()} and the snapshot returned by
+     * {@link EsmdConfig#get()} with one write, so no reader sees the new properties with the old snapshot.
+     */
+    static void install(Properties loaded, EsmdConfig config) {
+        snapshot = new Snapshot(Objects.requireNonNull(loaded, "properties"), Objects.requireNonNull(config, "config"));
+    }
+
+    /** The snapshot for {@link EsmdConfig#get()}, resolved from the current properties on first use. */
+    static EsmdConfig currentConfig() {
+        return snapshot().config();
+    }
+
+    private static Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (PropertiesUtils.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot(loadProperties(null), null);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Properties and the typed snapshot of exactly those properties. */
+    private static final class Snapshot {
+        private final Properties properties;
+        private volatile EsmdConfig config;
+
+        private Snapshot(Properties properties, EsmdConfig config) {
+            this.properties = new ReadOnlyProperties(properties);
+            this.config = config;
+        }
+
+        // Resolved lazily so that callers of loadProperties() alone are not held to EsmdConfig's validation
+        private EsmdConfig config() {
+            EsmdConfig resolved = config;
+            if (resolved == null) {
+                synchronized (this) {
+                    resolved = config;
+                    if (resolved == null) {
+                        resolved = EsmdConfig.from(properties);
+                        config = resolved;
+                    }
+                }
+            }
+            return resolved;
+        }
+    }
+
+    /** Copy of a configuration that rejects changes, so the installed snapshot cannot drift from EsmdConfig. */
+    private static final class ReadOnlyProperties extends Properties {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean sealed;
+
+        private ReadOnlyProperties(Properties source) {
+            super.putAll(source);
+            this.sealed = true;
+        }
+
+        private UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("The shared configuration is read-only");
+        }
+
+        @Override
+        public synchronized Object put(Object key, Object value) {
+            if (sealed) {
+                throw readOnly();
+            }
+            return super.put(key, value);
+        }
+
+        @Override
+        public synchronized void putAll(Map<?, ?> t) {
+            if (sealed) {
+                throw readOnly();
+            }
+            super.putAll(t);
+        }
+
+        @Override
+        public synchronized Object remove(Object key) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized boolean remove(Object key, Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized void clear() {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized Object putIfAbsent(Object key, Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized Object replace(Object key, Object value) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized void replaceAll(java.util.function.BiFunction<? super Object, ? super Object, ?> function) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized Object compute(Object key,
+                java.util.function.BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized Object computeIfAbsent(Object key,
+                java.util.function.Function<? super Object, ?> mappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized Object computeIfPresent(Object key,
+                java.util.function.BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized Object merge(Object key, Object value,
+                java.util.function.BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+            throw readOnly();
+        }
+
+        @Override
+        public Set<Object> keySet() {
+            return Collections.unmodifiableSet(super.keySet());
+        }
+
+        @Override
+        public Set<Map.Entry<Object, Object>> entrySet() {
+            return Collections.unmodifiableSet(super.entrySet());
+        }
+
+        @Override
+        public Collection<Object> values() {
+            return Collections.unmodifiableCollection(super.values());
+        }
+    }
+
+    private static Map<String, Object> parseYaml(String yamlContent, String source) {
+        if (isBlank(yamlContent)) {
+            throw new IllegalStateException("Configuration file is empty: " + source);
+        }
+
+        Yaml yaml = new Yaml();
+        Object loaded = yaml.load(yamlContent);
+
+        if (loaded == null) {
+            throw new IllegalStateException("Invalid YAML configuration: " + source);
+        }
+
+        if (!(loaded instanceof Map)) {
+            throw new IllegalStateException("Configuration must be a valid YAML map: " + source);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> loadedMap = (Map<String, Object>) loaded;
+        return getFlattenedMap(loadedMap);
+    }
+
     private static final Map<String, Object> getFlattenedMap(Map<String, Object> source) {
         Map<String, Object> result = new LinkedHashMap<>();
         buildFlattenedMap(result, source, null);
@@ -82,12 +287,73 @@ public class PropertiesUtils {
      * @throws IllegalStateException if the property is not found or empty
      */
     public static  String getRequiredProperty(String key) {
-        String value = properties.getProperty(key);
+        String value = loadProperties().getProperty(key);
         if (value == null || value.trim().isEmpty()) {
             throw new IllegalStateException("Required property not found or empty: " + key);
         }
         return value.trim();
     }
+
+    /**
+     * Gets an optional integer property from the configuration.
+     * Falls back to the default when the property is missing, blank or not a number.
+     *
+     * @param key the property key
+     * @param defaultValue the value to use when the property is not usable
+     * @return the property value or the default
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = loadProperties().getProperty(key);
+        if (isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets an optional long property from the configuration.
+     * Falls back to the default when the property is missing, blank or not a number.
+     *
+     * @param key the property key
+     * @param defaultValue the value to use when the property is not usable
+     * @return the property value or the default
+     */
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = loadProperties().getProperty(key);
+        if (isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets an optional decimal property from the configuration.
+     * Falls back to the default when the property is missing, blank or not a number.
+     *
+     * @param key the property key
+     * @param defaultValue the value to use when the property is not usable
+     * @return the property value or the default
+     */
+    public static double getDoubleProperty(String key, double defaultValue) {
+        String value = loadProperties().getProperty(key);
+        if (isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+
     public static void main(String []args)throws Exception{
         Properties properties = loadProperties();
         System.out.println(properties.get("api.environment.uat"));
@@ -0,0 +1,124 @@
+package gov.cms.esmd.utility;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * RateLimiter
+ *
+ * Thread-safe token bucket that spaces out requests to a configured rate.
+ * - Callers that find no permit available wait for their own reserved slot, in arrival order
+ * - Up to one second's worth of unused permits is kept, so short bursts after an idle period pass at once
+ * - A rate of zero or less disables limiting
+ * - The rate can be changed at runtime with {@link #setRate(double)}
+ */
+public final class RateLimiter {
+
+    private final LongSupplier nanoClock;
+
+    private double permitsPerSecond;
+    private long intervalNanos;
+    private double maxStoredPermits;
+    private double storedPermits;
+    private long nextFreeNanos;
+
+    /**
+     * @param permitsPerSecond the sustained rate; zero or less means unlimited
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.nextFreeNanos = nanoClock.getAsLong();
+        setRate(permitsPerSecond);
+    }
+
+    /**
+     * Blocks until a permit is available.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes a permit only if one is available right now.
+     *
+     * @return true if a permit was taken
+     */
+    public synchronized boolean tryAcquire() {
+        if (intervalNanos == 0) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        refill(now);
+        if (nextFreeNanos > now) {
+            return false;
+        }
+        take(now);
+        return true;
+    }
+
+    /**
+     * Changes the rate; waiters already holding a reserved slot keep it.
+     *
+     * @param permitsPerSecond the new sustained rate; zero or less means unlimited
+     */
+    public synchronized void setRate(double permitsPerSecond) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+        this.permitsPerSecond = permitsPerSecond;
+        if (permitsPerSecond <= 0) {
+            this.intervalNanos = 0;
+            this.maxStoredPermits = 0;
+            this.storedPermits = 0;
+        } else {
+            this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.maxStoredPermits = Math.max(1.0, permitsPerSecond);
+            this.storedPermits = Math.min(storedPermits, maxStoredPermits);
+        }
+    }
+
+    /** The configured rate in permits per second; zero or less means unlimited. */
+    public synchronized double getRate() {
+        return permitsPerSecond;
+    }
+
+    /* ============================== Helpers ============================== */
+
+    /** Reserves the next permit and returns how long the caller must wait for it. */
+    private synchronized long reserve() {
+        if (intervalNanos == 0) {
+            return 0L;
+        }
+        long now = nanoClock.getAsLong();
+        refill(now);
+        long wait = Math.max(0L, nextFreeNanos - now);
+        take(now);
+        return wait;
+    }
+
+    private void take(long now) {
+        if (storedPermits >= 1.0) {
+            storedPermits -= 1.0;
+        } else {
+            nextFreeNanos = Math.max(nextFreeNanos, now) + intervalNanos;
+        }
+    }
+
+    /** Converts idle time since the last reserved slot into stored permits. */
+    private void refill(long now) {
+        if (now > nextFreeNanos) {
+            if (intervalNanos > 0) {
+                storedPermits = Math.min(maxStoredPermits, storedPermits + (double) (now - nextFreeNanos) / intervalNanos);
+            }
+            nextFreeNanos = now;
+        }
+    }
+}
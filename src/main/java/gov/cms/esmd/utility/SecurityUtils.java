@@ -109,6 +109,23 @@ public final class SecurityUtils {
         }
     }
     
+    /**
+     * Validates JSON payload size given in bytes (e.g., of a file or buffer).
+     *
+     * @param sizeBytes the payload size in bytes
+     * @param fieldName the name of the field for error messages
+     * @throws IllegalArgumentException if the payload is empty or too large
+     */
+    public static void validateJsonSize(long sizeBytes, String fieldName) {
+        if (sizeBytes <= 0) {
+            throw new IllegalArgumentException(fieldName + " cannot be empty");
+        }
+
+        if (sizeBytes > MAX_JSON_SIZE) {
+            throw new IllegalArgumentException(fieldName + " exceeds maximum size of " + MAX_JSON_SIZE + " bytes");
+        }
+    }
+
     /**
      * Validates filename format and length.
      * 
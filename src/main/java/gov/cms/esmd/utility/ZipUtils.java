@@ -0,0 +1,220 @@
+package gov.cms.esmd.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * ZipUtils
+ *
+ * Extraction of esMD ZIP packages.
+ * - Extracts from any InputStream, so a package can be unzipped while it is still downloading
+ * - Extracts ZIP files on disk in parallel through ZipFile random access, into preallocated files
+ * - Skips entries that would resolve outside the target directory (zip slip)
+ */
+public final class ZipUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZipUtils.class);
+
+    private static final int EXTRACT_BUFFER_SIZE = 64 * 1024;
+    private static final int PARALLEL_EXTRACT_BUFFER_SIZE = 256 * 1024;
+
+    private ZipUtils() {
+    }
+
+    /**
+     * Extracts a ZIP file into the target directory.
+     *
+     * @param zipFile the ZIP file
+     * @param targetDir the directory to extract into; created if missing
+     * @return the number of files extracted
+     * @throws IOException if the archive cannot be read or an entry cannot be written
+     */
+    public static int extract(Path zipFile, Path targetDir) throws IOException {
+        try (InputStream in = Files.newInputStream(zipFile)) {
+            return extract(in, targetDir);
+        }
+    }
+
+    /**
+     * Extracts a ZIP stream into the target directory, entry by entry as bytes arrive.
+     * The stream is read up to the end of the last entry and is not closed.
+     *
+     * @param in the ZIP stream
+     * @param targetDir the directory to extract into; created if missing
+     * @return the number of files extracted
+     * @throws IOException if the stream cannot be read or an entry cannot be written
+     */
+    public static int extract(InputStream in, Path targetDir) throws IOException {
+        Path extractDir = targetDir.normalize();
+        Files.createDirectories(extractDir);
+
+        int files = 0;
+        byte[] buffer = new byte[EXTRACT_BUFFER_SIZE];
+        ZipInputStream zipInputStream = new ZipInputStream(in);
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            String entryName = entry.getName();
+            Path entryPath = extractDir.resolve(entryName).normalize();
+
+            // Security check to prevent zip slip attacks
+            if (!entryPath.startsWith(extractDir)) {
+                logger.warn("Skipping potentially malicious zip entry: {}", entryName);
+                continue;
+            }
+
+            if (entry.isDirectory()) {
+                Files.createDirectories(entryPath);
+                logger.debug("Created directory: {}", entryPath);
+            } else {
+                Files.createDirectories(entryPath.getParent());
+                try (OutputStream out = Files.newOutputStream(entryPath)) {
+                    int length;
+                    while ((length = zipInputStream.read(buffer)) > 0) {
+                        out.write(buffer, 0, length);
+                    }
+                }
+                files++;
+                logger.debug("Extracted file: {}", entryPath);
+            }
+            zipInputStream.closeEntry();
+        }
+        return files;
+    }
+
+    /**
+     * Extracts a ZIP file into the target directory, inflating up to {@code threads} entries at once.
+     * Entry sizes are read from the central directory so each file is preallocated before it is written.
+     *
+     * @param zipFile the ZIP file
+     * @param targetDir the directory to extract into; created if missing
+     * @param threads the maximum number of entries inflated concurrently
+     * @return the number of files extracted and their total size
+     * @throws IOException if the archive cannot be read or an entry cannot be written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static ExtractionResult extractParallel(Path zipFile, Path targetDir, int threads)
+            throws IOException, InterruptedException {
+        Path extractDir = targetDir.normalize();
+        Files.createDirectories(extractDir);
+
+        try (ZipFile zip = new ZipFile(zipFile.toFile())) {
+            // Create the directory tree up front so workers only write files
+            List<ZipEntry> fileEntries = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path entryPath = extractDir.resolve(entry.getName()).normalize();
+
+                // Security check to prevent zip slip attacks
+                if (!entryPath.startsWith(extractDir)) {
+                    logger.warn("Skipping potentially malicious zip entry: {}", entry.getName());
+                    continue;
+                }
+
+                if (entry.isDirectory()) {
+                    Files.createDirectories(entryPath);
+                } else {
+                    Files.createDirectories(entryPath.getParent());
+                    fileEntries.add(entry);
+                }
+            }
+
+            List<Throwable> failures = new CopyOnWriteArrayList<>();
+            List<Long> written = ConcurrencyUtils.invokeAllInOrder(fileEntries, threads, "esmd-unzip",
+                    entry -> {
+                        try {
+                            return extractEntry(zip, entry, extractDir.resolve(entry.getName()).normalize());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    (entry, error) -> {
+                        failures.add(error);
+                        return 0L;
+                    });
+
+            if (!failures.isEmpty()) {
+                Throwable first = failures.get(0);
+                throw new IOException("Failed to extract " + failures.size() + " entries from " + zipFile
+                        + ": " + first.getMessage(), first);
+            }
+
+            long totalBytes = 0;
+            for (Long bytes : written) {
+                totalBytes += bytes;
+            }
+            return new ExtractionResult(fileEntries.size(), totalBytes);
+        }
+    }
+
+    private static long extractEntry(ZipFile zip, ZipEntry entry, Path entryPath) throws IOException {
+        long size = entry.getSize();
+        try (InputStream in = zip.getInputStream(entry);
+             RandomAccessFile file = new RandomAccessFile(entryPath.toFile(), "rw")) {
+            if (size > 0) {
+                file.setLength(size);
+            }
+            FileChannel channel = file.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(PARALLEL_EXTRACT_BUFFER_SIZE);
+            byte[] array = buffer.array();
+            long position = 0;
+            int length;
+            while ((length = in.read(array)) > 0) {
+                buffer.clear();
+                buffer.limit(length);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            // The central directory size is advisory; never leave preallocated bytes behind
+            channel.truncate(position);
+            logger.debug("Extracted file: {} ({} bytes)", entryPath, position);
+            return position;
+        }
+    }
+
+    /**
+     * Outcome of extracting one archive.
+     */
+    public static final class ExtractionResult {
+        private final int entryCount;
+        private final long totalBytes;
+
+        ExtractionResult(int entryCount, long totalBytes) {
+            this.entryCount = entryCount;
+            this.totalBytes = totalBytes;
+        }
+
+        /** Number of files extracted (directories and skipped entries are not counted). */
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        /** Total uncompressed bytes written. */
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "ExtractionResult{entryCount=" + entryCount + ", totalBytes=" + totalBytes + "}";
+        }
+    }
+}
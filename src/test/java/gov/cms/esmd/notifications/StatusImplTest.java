@@ -0,0 +1,120 @@
+package gov.cms.esmd.notifications;
+
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StatusImpl class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class StatusImplTest {
+
+    private final StatusImpl statusImpl = new StatusImpl();
+
+    private static NotificationResponse response(String transactionId, String status) {
+        StatusDetail detail = new StatusDetail(new ArrayList<>());
+        detail.setEsMDTransactionID(transactionId);
+        detail.setStatus(status);
+        NotificationResponse response = new NotificationResponse();
+        response.setStatusDetails(new ArrayList<>(Collections.singletonList(detail)));
+        return response;
+    }
+
+    @Test
+    void testRetrieveConcurrently_WithManyIds_ShouldNotExceedParallelism() {
+        // Given
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ids.add("TXN" + i);
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // When
+        Map<String, NotificationResponse> responses = statusImpl.retrieveConcurrently(ids, "dev", id -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return response(id, "DELIVERED");
+        }, 4);
+
+        // Then
+        assertThat(responses.keySet()).containsExactlyElementsOf(ids);
+        assertThat(maxRunning.get()).isBetween(1, 4);
+        assertThat(responses.get("TXN7").getStatusDetails().get(0).getEsMDTransactionID()).isEqualTo("TXN7");
+    }
+
+    @Test
+    void testRetrieveConcurrently_WithDuplicateInFlightIds_ShouldSendOneRequest() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StatusImpl.TransactionLookup slow = id -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response(id, "DELIVERED");
+        };
+
+        // When
+        CompletableFuture<Map<String, NotificationResponse>> first = CompletableFuture.supplyAsync(
+                () -> statusImpl.retrieveConcurrently(Arrays.asList("TXN1", "TXN1"), "dev", slow, 4));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Map<String, NotificationResponse>> second = CompletableFuture.supplyAsync(
+                () -> statusImpl.retrieveConcurrently(Collections.singletonList("TXN1"), "dev", slow, 4));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsOnlyKeys("TXN1");
+        assertThat(second.get(5, TimeUnit.SECONDS).get("TXN1")).isSameAs(first.get().get("TXN1"));
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testRetrieveConcurrently_WhenLookupFails_ShouldReportFailedStatusForThatId() {
+        // Given
+        StatusImpl.TransactionLookup lookup = id -> {
+            if (id.equals("BAD")) {
+                throw new IllegalStateException("I/O error during status request");
+            }
+            return response(id, "DELIVERED");
+        };
+
+        // When
+        Map<String, NotificationResponse> responses =
+                statusImpl.retrieveConcurrently(Arrays.asList("GOOD", "BAD"), "dev", lookup, 2);
+
+        // Then
+        assertThat(responses.get("GOOD").getStatusDetails().get(0).getStatus()).isEqualTo("DELIVERED");
+        StatusDetail failed = responses.get("BAD").getStatusDetails().get(0);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getEsMDTransactionID()).isEqualTo("BAD");
+        assertThat(failed.getErrorMessages()).extracting("errorCode").containsExactly("STATUS_LOOKUP_FAILED");
+    }
+}
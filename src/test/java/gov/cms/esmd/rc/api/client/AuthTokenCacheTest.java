@@ -0,0 +1,163 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.bean.auth.response.AuthResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AuthTokenCache class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class AuthTokenCacheTest {
+
+    private static AuthResponse token(String value, int expiresIn) {
+        AuthResponse response = new AuthResponse();
+        response.setAccess_token("Bearer " + value);
+        response.setExpires_in(expiresIn);
+        return response;
+    }
+
+    @Test
+    void testGetToken_WithValidCachedToken_ShouldNotFetchAgain() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        AuthTokenCache cache = new AuthTokenCache(
+                (env, scope) -> token("t" + calls.incrementAndGet(), 3600),
+                () -> "MAILBOX", 300_000, 60_000, System::currentTimeMillis);
+
+        // When
+        AuthResponse first = cache.getToken("dev", "wiser/download");
+        AuthResponse second = cache.getToken("dev", "wiser/download");
+
+        // Then
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second.getAccess_token()).isEqualTo(first.getAccess_token());
+    }
+
+    @Test
+    void testGetToken_WithDifferentScopes_ShouldCacheSeparately() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        AuthTokenCache cache = new AuthTokenCache(
+                (env, scope) -> token(scope + calls.incrementAndGet(), 3600),
+                () -> "MAILBOX", 300_000, 60_000, System::currentTimeMillis);
+
+        // When
+        AuthResponse download = cache.getToken("dev", "wiser/download");
+        AuthResponse upload = cache.getToken("dev", "wiser/upload");
+
+        // Then
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(download.getAccess_token()).isNotEqualTo(upload.getAccess_token());
+    }
+
+    @Test
+    void testGetToken_WhenExpired_ShouldFetchNewToken() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        AtomicLong now = new AtomicLong(1_000_000L);
+        AuthTokenCache cache = new AuthTokenCache(
+                (env, scope) -> token("t" + calls.incrementAndGet(), 60),
+                () -> "MAILBOX", 300_000, 10_000, now::get);
+        cache.getToken("dev", "wiser/status");
+
+        // When
+        now.addAndGet(TimeUnit.SECONDS.toMillis(61));
+        AuthResponse refreshed = cache.getToken("dev", "wiser/status");
+
+        // Then
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(refreshed.getAccess_token()).isEqualTo("Bearer t2");
+    }
+
+    @Test
+    void testGetToken_WithErrorResponse_ShouldNotCache() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        AuthTokenCache cache = new AuthTokenCache(
+                (env, scope) -> {
+                    calls.incrementAndGet();
+                    AuthResponse error = new AuthResponse();
+                    error.setStatusCode("401");
+                    error.setError("Unauthorized");
+                    return error;
+                },
+                () -> "MAILBOX", 300_000, 60_000, System::currentTimeMillis);
+
+        // When
+        AuthResponse first = cache.getToken("dev", "wiser/download");
+        cache.getToken("dev", "wiser/download");
+
+        // Then
+        assertThat(first.getError()).isEqualTo("Unauthorized");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testGetToken_WithConcurrentCallers_ShouldShareSingleRequest() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        AuthTokenCache cache = new AuthTokenCache(
+                (env, scope) -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return token("shared", 3600);
+                },
+                () -> "MAILBOX", 300_000, 60_000, System::currentTimeMillis);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            List<Future<AuthResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> cache.getToken("dev", "wiser/download")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            for (Future<AuthResponse> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS).getAccess_token()).isEqualTo("Bearer shared");
+            }
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidate_ShouldForceNewFetch() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        AuthTokenCache cache = new AuthTokenCache(
+                (env, scope) -> token("t" + calls.incrementAndGet(), 3600),
+                () -> "MAILBOX", 300_000, 60_000, System::currentTimeMillis);
+        cache.getToken("dev", "wiser/download");
+
+        // When
+        cache.invalidate("dev", "wiser/download");
+        cache.getToken("dev", "wiser/download");
+
+        // Then
+        assertThat(calls.get()).isEqualTo(2);
+    }
+}
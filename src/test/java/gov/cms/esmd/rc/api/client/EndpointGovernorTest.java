@@ -0,0 +1,156 @@
+package gov.cms.esmd.rc.api.client;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for EndpointGovernor class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class EndpointGovernorTest {
+
+    private static final HttpGet REQUEST = new HttpGet("http://gw/status");
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private EndpointGovernor governor(int initial, int min, int max, long latencyThresholdMs) {
+        Map<RetryPolicy.Operation, EndpointGovernor.Settings> settings = new EnumMap<>(RetryPolicy.Operation.class);
+        for (RetryPolicy.Operation operation : RetryPolicy.Operation.values()) {
+            settings.put(operation, new EndpointGovernor.Settings(0, initial, min, max, latencyThresholdMs, 0.5));
+        }
+        return EndpointGovernor.of(settings, clock::get);
+    }
+
+    private static CloseableHttpResponse status(int code) {
+        return new StubResponse(code);
+    }
+
+    private static int limit(EndpointGovernor governor) {
+        return governor.getLimits().get(RetryPolicy.Operation.STATUS).getConcurrencyLimit();
+    }
+
+    @Test
+    void testExecute_WhenThrottled_ShouldHalveLimitOncePerEvent() throws Exception {
+        // Given
+        EndpointGovernor governor = governor(16, 1, 64, 0);
+        clock.set(1);
+
+        // When
+        governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> status(429));
+        governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> status(503));
+        int afterFirstEvent = limit(governor);
+        clock.set(2);
+        governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> status(429));
+
+        // Then
+        assertThat(afterFirstEvent).isEqualTo(8);
+        EndpointGovernor.Limits limits = governor.getLimits().get(RetryPolicy.Operation.STATUS);
+        assertThat(limits.getConcurrencyLimit()).isEqualTo(4);
+        assertThat(limits.getOverloadCount()).isEqualTo(3);
+        assertThat(limits.getDecreaseCount()).isEqualTo(2);
+        assertThat(limits.getInFlight()).isZero();
+    }
+
+    @Test
+    void testExecute_WithSuccessesAndTimeouts_ShouldStayWithinBounds() throws Exception {
+        // Given
+        EndpointGovernor governor = governor(2, 2, 3, 0);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> status(200));
+        }
+        int grown = limit(governor);
+        for (int i = 0; i < 5; i++) {
+            clock.incrementAndGet();
+            catchThrowable(() -> governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> {
+                throw new SocketTimeoutException("read timed out");
+            }));
+        }
+
+        // Then
+        assertThat(grown).isEqualTo(3);
+        assertThat(limit(governor)).isEqualTo(2);
+        assertThat(limit(governor(1, 1, 64, 0))).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_WithSlowResponse_ShouldLowerLimit() throws Exception {
+        // Given
+        EndpointGovernor governor = governor(8, 1, 64, 100);
+        clock.set(1);
+
+        // When
+        governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+            return status(200);
+        });
+
+        // Then
+        assertThat(limit(governor)).isEqualTo(4);
+        assertThat(governor.getLimits().get(RetryPolicy.Operation.AUTH).getConcurrencyLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void testExecute_AtConcurrencyLimit_ShouldWaitForFreeSlot() throws Exception {
+        // Given
+        EndpointGovernor governor = governor(1, 1, 1, 0);
+        CountDownLatch sending = new CountDownLatch(1);
+        Semaphore release = new Semaphore(0);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> {
+                sending.countDown();
+                release.acquireUninterruptibly();
+                return status(200);
+            }));
+            sending.await();
+
+            // When
+            Future<?> second = pool.submit(() -> governor.execute(RetryPolicy.Operation.STATUS, REQUEST, r -> status(200)));
+
+            // Then
+            assertThatThrownBy(() -> second.get(200, TimeUnit.MILLISECONDS))
+                    .isInstanceOf(TimeoutException.class);
+            assertThat(governor.getLimits().get(RetryPolicy.Operation.STATUS).getInFlight()).isEqualTo(1);
+            release.release();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertThat(governor.getLimits().get(RetryPolicy.Operation.STATUS).getInFlight()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static final class StubResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        StubResponse(int code) {
+            super(HttpVersion.HTTP_1_1, code, null);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.PropertiesUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for HttpTransport class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class HttpTransportTest {
+
+    @AfterEach
+    void tearDown() {
+        EsmdConfig.reload();
+    }
+
+    @Test
+    void testDefaultRequestConfig_AfterConfigInstall_ShouldApplyNewTimeouts() {
+        // Given
+        HttpTransport transport = HttpTransport.getShared();
+        Properties properties = PropertiesUtils.loadProperties(null);
+        properties.setProperty("http.connect.timeout.ms", "1234");
+        properties.setProperty("http.socket.timeout.ms", "2345");
+        properties.setProperty("http.connection.request.timeout.ms", "3456");
+
+        // When
+        EsmdConfig.install(properties);
+
+        // Then
+        RequestConfig config = transport.defaultRequestConfig();
+        assertThat(config.getConnectTimeout()).isEqualTo(1234);
+        assertThat(config.getSocketTimeout()).isEqualTo(2345);
+        assertThat(config.getConnectionRequestTimeout()).isEqualTo(3456);
+    }
+}
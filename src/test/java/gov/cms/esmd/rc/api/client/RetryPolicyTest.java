@@ -0,0 +1,222 @@
+package gov.cms.esmd.rc.api.client;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RetryPolicy class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class RetryPolicyTest {
+
+    private final List<Long> sleeps = new ArrayList<>();
+
+    private RetryPolicy policy(int maxAttempts, double budgetRatio, double budgetMinPerSecond) {
+        return new RetryPolicy(maxAttempts, 100, 1_000, 5_000, budgetRatio, budgetMinPerSecond,
+                sleeps::add, () -> 0.5, () -> 0L, () -> 0L);
+    }
+
+    private static ScriptedClient script(Object... outcomes) {
+        return new ScriptedClient(Arrays.asList(outcomes));
+    }
+
+    private static CloseableHttpResponse status(int code, String... retryAfter) {
+        StubResponse response = new StubResponse(code);
+        if (retryAfter.length > 0) {
+            response.addHeader("Retry-After", retryAfter[0]);
+        }
+        return response;
+    }
+
+    @Test
+    void testExecute_WithTransientStatuses_ShouldRetryWithJitteredBackoff() throws Exception {
+        // Given
+        ScriptedClient client = script(status(503), status(502), status(200));
+        RetryPolicy policy = policy(3, 1.0, 10);
+
+        // When
+        CloseableHttpResponse response = policy.execute(RetryPolicy.Operation.STATUS, new HttpGet("http://gw/status"), client);
+
+        // Then
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(200);
+        assertThat(client.calls).isEqualTo(3);
+        assertThat(sleeps).containsExactly(50L, 100L);
+        RetryPolicy.Metrics metrics = policy.getMetrics(RetryPolicy.Operation.STATUS);
+        assertThat(metrics.getCallCount()).isEqualTo(1);
+        assertThat(metrics.getAttemptCount()).isEqualTo(3);
+        assertThat(metrics.getRetryCount()).isEqualTo(2);
+        assertThat(metrics.getExhaustedCount()).isZero();
+    }
+
+    @Test
+    void testExecute_WithRetryAfter_ShouldWaitAtLeastThatLong() throws Exception {
+        // Given
+        ScriptedClient client = script(status(429, "2"), status(200));
+
+        // When
+        policy(3, 1.0, 10).execute(RetryPolicy.Operation.LIST_OBJECTS, new HttpGet("http://gw/objects"), client);
+
+        // Then
+        assertThat(sleeps).containsExactly(2_000L);
+    }
+
+    @Test
+    void testExecute_WithRetryAfterBeyondLimit_ShouldReturnResponseWithoutWaiting() throws Exception {
+        // Given
+        ScriptedClient client = script(status(503, "60"), status(200));
+
+        // When
+        CloseableHttpResponse response = policy(3, 1.0, 10)
+                .execute(RetryPolicy.Operation.STATUS, new HttpGet("http://gw/status"), client);
+
+        // Then
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(503);
+        assertThat(client.calls).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    void testExecute_WithNonIdempotentOperation_ShouldRetryOnlyWhenNotProcessed() throws Exception {
+        // Given
+        RetryPolicy policy = policy(3, 1.0, 10);
+        HttpPost post = new HttpPost("http://gw/objects/realtime");
+        post.setEntity(new StringEntity("{}"));
+
+        // When
+        ScriptedClient timedOut = script(new SocketTimeoutException("read timed out"), status(200));
+        Throwable error = catchThrowable(() -> policy.execute(RetryPolicy.Operation.REALTIME_UPLOAD, post, timedOut));
+        ScriptedClient bad = script(status(502), status(200));
+        CloseableHttpResponse badResponse = policy.execute(RetryPolicy.Operation.REALTIME_UPLOAD, post, bad);
+        ScriptedClient refused = script(new ConnectException("refused"), status(429), status(200));
+        CloseableHttpResponse refusedResponse = policy.execute(RetryPolicy.Operation.REALTIME_UPLOAD, post, refused);
+
+        // Then
+        assertThat(error).isInstanceOf(SocketTimeoutException.class);
+        assertThat(timedOut.calls).isEqualTo(1);
+        assertThat(badResponse.getStatusLine().getStatusCode()).isEqualTo(502);
+        assertThat(bad.calls).isEqualTo(1);
+        assertThat(refusedResponse.getStatusLine().getStatusCode()).isEqualTo(200);
+        assertThat(refused.calls).isEqualTo(3);
+    }
+
+    @Test
+    void testExecute_WithStreamingEntity_ShouldSendOnce() throws Exception {
+        // Given
+        HttpPost post = new HttpPost("http://gw/objects");
+        post.setEntity(new InputStreamEntity(new ByteArrayInputStream(new byte[8])));
+        ScriptedClient client = script(status(503), status(200));
+
+        // When
+        CloseableHttpResponse response = policy(3, 1.0, 10).execute(RetryPolicy.Operation.PRESIGN, post, client);
+
+        // Then
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(503);
+        assertThat(client.calls).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_WhenBudgetSpent_ShouldStopRetrying() throws Exception {
+        // Given
+        RetryPolicy policy = policy(5, 0.0, 1);
+        ScriptedClient client = script(status(503), status(503), status(503), status(200));
+
+        // When
+        CloseableHttpResponse response = policy.execute(RetryPolicy.Operation.AUTH, new HttpPost("http://gw/auth"), client);
+
+        // Then
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(503);
+        assertThat(client.calls).isEqualTo(2);
+        assertThat(policy.getMetrics(RetryPolicy.Operation.AUTH).getBudgetRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testExecute_WhenAttemptsRunOut_ShouldReturnLastResponse() throws Exception {
+        // Given
+        RetryPolicy policy = policy(2, 1.0, 10);
+        ScriptedClient client = script(status(504), status(504), status(200));
+
+        // When
+        CloseableHttpResponse response = policy.execute(RetryPolicy.Operation.STATUS, new HttpGet("http://gw/status"), client);
+
+        // Then
+        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(504);
+        assertThat(client.calls).isEqualTo(2);
+        assertThat(policy.getMetrics(RetryPolicy.Operation.STATUS).getExhaustedCount()).isEqualTo(1);
+    }
+
+    /* ============================== Helpers ============================== */
+
+    /** Returns the scripted responses, or throws the scripted exceptions, in order. */
+    private static final class ScriptedClient extends CloseableHttpClient {
+        private final Deque<Object> outcomes;
+        private int calls;
+
+        ScriptedClient(List<Object> outcomes) {
+            this.outcomes = new ArrayDeque<>(outcomes);
+        }
+
+        @Override
+        protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+                throws IOException {
+            calls++;
+            Object outcome = outcomes.removeFirst();
+            if (outcome instanceof IOException) {
+                throw (IOException) outcome;
+            }
+            return (CloseableHttpResponse) outcome;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public HttpParams getParams() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public ClientConnectionManager getConnectionManager() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class StubResponse extends BasicHttpResponse implements CloseableHttpResponse {
+        StubResponse(int code) {
+            super(HttpVersion.HTTP_1_1, code, null);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
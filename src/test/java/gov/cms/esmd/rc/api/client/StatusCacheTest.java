@@ -0,0 +1,129 @@
+package gov.cms.esmd.rc.api.client;
+
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StatusCache class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class StatusCacheTest {
+
+    private static final String URL = "https://gateway/objects/status/rc";
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private StatusCache cache(int maxEntries) {
+        return new StatusCache(maxEntries, 30_000, 3_600_000, new HashSet<>(Arrays.asList("SUCCESS", "FAILED")), now::get);
+    }
+
+    private NotificationResponse load(String transactionId, String status) {
+        calls.incrementAndGet();
+        StatusDetail detail = new StatusDetail(new ArrayList<>());
+        detail.setEsMDTransactionID(transactionId);
+        detail.setStatus(status);
+        NotificationResponse response = new NotificationResponse();
+        response.setStatusDetails(new ArrayList<>(Collections.singletonList(detail)));
+        return response;
+    }
+
+    @Test
+    void testGet_WithinTtl_ShouldServeFromCache() {
+        // Given
+        StatusCache cache = cache(100);
+
+        // When
+        NotificationResponse first = cache.get(URL, "TXN1", () -> load("TXN1", "RECEIVED"));
+        now.addAndGet(10_000);
+        NotificationResponse second = cache.get(URL, "TXN1", () -> load("TXN1", "RECEIVED"));
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_WithTerminalStatus_ShouldOutliveInFlightTtl() {
+        // Given
+        StatusCache cache = cache(100);
+        cache.get(URL, "DONE", () -> load("DONE", "SUCCESS"));
+        cache.get(URL, "BUSY", () -> load("BUSY", "RECEIVED"));
+
+        // When
+        now.addAndGet(60_000);
+        cache.get(URL, "DONE", () -> load("DONE", "SUCCESS"));
+        cache.get(URL, "BUSY", () -> load("BUSY", "RECEIVED"));
+
+        // Then
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_AboveMaxEntries_ShouldEvictLeastRecentlyUsed() {
+        // Given
+        StatusCache cache = cache(2);
+        cache.get(URL, "TXN1", () -> load("TXN1", "RECEIVED"));
+        cache.get(URL, "TXN2", () -> load("TXN2", "RECEIVED"));
+        cache.get(URL, "TXN1", () -> load("TXN1", "RECEIVED"));
+
+        // When
+        cache.get(URL, "TXN3", () -> load("TXN3", "RECEIVED"));
+        cache.get(URL, "TXN1", () -> load("TXN1", "RECEIVED"));
+        cache.get(URL, "TXN2", () -> load("TXN2", "RECEIVED"));
+
+        // Then
+        assertThat(calls.get()).isEqualTo(4);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidate_ShouldForceReload() {
+        // Given
+        StatusCache cache = cache(100);
+        cache.get(URL, "TXN1", () -> load("TXN1", "SUCCESS"));
+
+        // When
+        cache.invalidate("TXN1");
+        cache.get(URL, "TXN1", () -> load("TXN1", "SUCCESS"));
+
+        // Then
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testGet_WhenInvalidatedDuringLoad_ShouldNotCacheLoadedResponse() {
+        // Given
+        StatusCache cache = cache(100);
+
+        // When
+        NotificationResponse stale = cache.get(URL, "TXN1", () -> {
+            NotificationResponse response = load("TXN1", "SUCCESS");
+            cache.invalidate("TXN1");
+            return response;
+        });
+        NotificationResponse fresh = cache.get(URL, "TXN1", () -> load("TXN1", "SUCCESS"));
+
+        // Then
+        assertThat(fresh).isNotSameAs(stale);
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,104 @@
+package gov.cms.esmd.rc.impl;
+
+import com.google.gson.Gson;
+import gov.cms.esmd.bean.response.PickupNotification;
+import org.apache.http.client.HttpResponseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for NotificationOutbox class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class NotificationOutboxTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String pickup(String transactionId) {
+        return "{\"notificationType\":\"PICKUP\",\"senderRoutingId\":\"PT9993\",\"notification\":[{\"esMDTransactionId\":\""
+                + transactionId + "\",\"status\":\"SUCCESS\"}]}";
+    }
+
+    @Test
+    void testEnqueue_WhenSenderFailsUntilRestart_ShouldReplayUnsentNotifications() throws Exception {
+        // Given
+        NotificationOutbox failing = new NotificationOutbox(tempDir, (env, type, json) -> {
+            throw new IllegalStateException("Gateway unavailable");
+        }, 50, 60_000, 60_000, 60_000, true);
+        failing.enqueue("dev", NotificationOutbox.Type.ADMIN_ERROR, "{\"a\":1}");
+        failing.enqueue("dev", NotificationOutbox.Type.PA_REJECT, "{\"b\":2}");
+        failing.close();
+
+        // When
+        List<String> sent = new CopyOnWriteArrayList<>();
+        NotificationOutbox restarted = new NotificationOutbox(tempDir, (env, type, json) -> sent.add(type + ":" + json),
+                50, 20, 10, 100, true);
+
+        // Then
+        try {
+            assertThat(restarted.awaitDrained(5_000)).isTrue();
+            assertThat(sent).containsExactlyInAnyOrder("ADMIN_ERROR:{\"a\":1}", "PA_REJECT:{\"b\":2}");
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void testEnqueue_WithSeveralPendingPickups_ShouldMergeIntoOneRequest() throws Exception {
+        // Given
+        NotificationOutbox failing = new NotificationOutbox(tempDir, (env, type, json) -> {
+            throw new IllegalStateException("Gateway unavailable");
+        }, 50, 60_000, 60_000, 60_000, false);
+        failing.enqueue("dev", NotificationOutbox.Type.PICKUP, pickup("TXN1"));
+        failing.enqueue("dev", NotificationOutbox.Type.PICKUP, pickup("TXN2"));
+        failing.enqueue("dev", NotificationOutbox.Type.PICKUP, pickup("TXN3"));
+        failing.close();
+
+        // When
+        List<PickupNotification> sent = new CopyOnWriteArrayList<>();
+        NotificationOutbox outbox = new NotificationOutbox(tempDir,
+                (env, type, json) -> sent.add(new Gson().fromJson(json, PickupNotification.class)),
+                50, 60_000, 10, 100, false);
+
+        // Then
+        try {
+            assertThat(outbox.awaitDrained(5_000)).isTrue();
+            assertThat(sent).hasSize(1);
+            assertThat(sent.get(0).getNotification()).extracting("esMDTransactionId")
+                    .containsExactly("TXN1", "TXN2", "TXN3");
+        } finally {
+            outbox.close();
+        }
+    }
+
+    @Test
+    void testEnqueue_WhenRejectedWithClientError_ShouldDeadLetter() throws Exception {
+        // Given
+        NotificationOutbox outbox = new NotificationOutbox(tempDir, (env, type, json) -> {
+            throw new IllegalStateException("I/O error during notification", new HttpResponseException(400, "Bad Request"));
+        }, 50, 20, 10, 100, true);
+
+        // When
+        outbox.enqueue("dev", NotificationOutbox.Type.ADMIN_ERROR, "{\"bad\":true}");
+
+        // Then
+        try {
+            assertThat(outbox.awaitDrained(5_000)).isTrue();
+            assertThat(tempDir.resolve("notification-outbox.dead.jsonl")).exists();
+            assertThat(new String(Files.readAllBytes(tempDir.resolve("notification-outbox.dead.jsonl")))).contains("bad");
+        } finally {
+            outbox.close();
+        }
+    }
+}
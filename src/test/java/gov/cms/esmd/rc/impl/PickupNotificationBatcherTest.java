@@ -0,0 +1,101 @@
+package gov.cms.esmd.rc.impl;
+
+import com.google.gson.Gson;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.PickupNotification;
+import gov.cms.esmd.bean.response.StatusDetail;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PickupNotificationBatcher class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class PickupNotificationBatcherTest {
+
+    private final NotificationsImpl notifications = new NotificationsImpl();
+
+    private static NotificationResponse echo(String json, String status) {
+        PickupNotification sent = new Gson().fromJson(json, PickupNotification.class);
+        ArrayList<StatusDetail> details = new ArrayList<>();
+        sent.getNotification().forEach(n -> {
+            StatusDetail detail = new StatusDetail(new ArrayList<>());
+            detail.setEsMDTransactionID(n.getEsMDTransactionId());
+            detail.setStatus(status);
+            details.add(detail);
+        });
+        NotificationResponse response = new NotificationResponse();
+        response.setStatusDetails(details);
+        return response;
+    }
+
+    @Test
+    void testSubmit_WhenBatchSizeReached_ShouldSendOneRequestPerBatch() throws Exception {
+        // Given
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        PickupNotificationBatcher batcher = new PickupNotificationBatcher(notifications, json -> {
+            batchSizes.add(new Gson().fromJson(json, PickupNotification.class).getNotification().size());
+            return echo(json, "SUCCESS");
+        }, "PICKUP", "PT9993", 3, 60_000);
+
+        // When
+        List<CompletableFuture<StatusDetail>> futures = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            futures.add(batcher.submit("TXN" + i, "file" + i + ".zip"));
+        }
+        batcher.close();
+
+        // Then
+        assertThat(batchSizes).containsExactly(3, 3, 1);
+        for (int i = 0; i < 7; i++) {
+            StatusDetail outcome = futures.get(i).get(1, TimeUnit.SECONDS);
+            assertThat(outcome.getEsMDTransactionID()).isEqualTo("TXN" + i);
+            assertThat(outcome.getStatus()).isEqualTo("SUCCESS");
+        }
+    }
+
+    @Test
+    void testSubmit_WhenMaxWaitElapses_ShouldFlushPartialBatch() throws Exception {
+        // Given
+        PickupNotificationBatcher batcher = new PickupNotificationBatcher(notifications,
+                json -> echo(json, "SUCCESS"), "PICKUP", "PT9993", 100, 50);
+
+        try {
+            // When
+            CompletableFuture<StatusDetail> future = batcher.submit("TXN1", "file1.zip");
+
+            // Then
+            assertThat(future.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("SUCCESS");
+        } finally {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void testSubmit_WhenSendFails_ShouldCompleteEachNotificationAsFailed() throws Exception {
+        // Given
+        PickupNotificationBatcher batcher = new PickupNotificationBatcher(notifications, json -> {
+            throw new IllegalStateException("Gateway unavailable");
+        }, "PICKUP", "PT9993", 10, 60_000);
+
+        // When
+        CompletableFuture<StatusDetail> first = batcher.submit("TXN1", "file1.zip");
+        CompletableFuture<StatusDetail> second = batcher.submit("TXN2", "file2.zip");
+        batcher.close();
+
+        // Then
+        assertThat(first.get(1, TimeUnit.SECONDS).getStatus()).isEqualTo("FAILED");
+        assertThat(second.get(1, TimeUnit.SECONDS).getErrorMessages())
+                .extracting("errorCode").containsExactly("NOTIFICATION_FAILED");
+    }
+}
@@ -0,0 +1,129 @@
+package gov.cms.esmd.rc.impl;
+
+import gov.cms.esmd.bean.ErrorMessage;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StatusPollingService class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class StatusPollingServiceTest {
+
+    private static StatusDetail detail(String transactionId, String status) {
+        StatusDetail detail = new StatusDetail(new ArrayList<>());
+        detail.setEsMDTransactionID(transactionId);
+        detail.setStatus(status);
+        return detail;
+    }
+
+    private static NotificationResponse response(StatusDetail... details) {
+        NotificationResponse response = new NotificationResponse();
+        response.setStatusDetails(new ArrayList<>(Arrays.asList(details)));
+        return response;
+    }
+
+    @Test
+    void testPollOnce_WithUnchangedStatuses_ShouldNotifyOnlyNewAndChanged() throws Exception {
+        // Given
+        AtomicReference<NotificationResponse> next = new AtomicReference<>();
+        List<String> changes = new ArrayList<>();
+        StatusPollingService service = new StatusPollingService(next::get, 1_000, 8_000);
+        service.addListener((current, previous) -> changes.add(current.getEsMDTransactionID() + ":"
+                + (previous != null ? previous.getStatus() : "NEW") + "->" + current.getStatus()));
+
+        // When
+        next.set(response(detail("TXN1", "RECEIVED"), detail("TXN2", "RECEIVED")));
+        int first = service.pollOnce();
+        next.set(response(detail("TXN1", "RECEIVED"), detail("TXN2", "DELIVERED")));
+        int second = service.pollOnce();
+        int third = service.pollOnce();
+
+        // Then
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+        assertThat(third).isZero();
+        assertThat(changes).containsExactly("TXN1:NEW->RECEIVED", "TXN2:NEW->RECEIVED", "TXN2:RECEIVED->DELIVERED");
+        assertThat(service.getTrackedCount()).isEqualTo(2);
+        service.close();
+    }
+
+    @Test
+    void testPollOnce_WhenErrorMessagesChange_ShouldNotify() throws Exception {
+        // Given
+        StatusDetail withoutError = detail("TXN1", "FAILED");
+        StatusDetail withError = detail("TXN1", "FAILED");
+        withError.getErrorMessages().add(new ErrorMessage("E01", "Error", "Virus scan failed"));
+        AtomicReference<NotificationResponse> next = new AtomicReference<>(response(withoutError));
+        List<StatusDetail> changes = new ArrayList<>();
+        StatusPollingService service = new StatusPollingService(next::get, 1_000, 8_000);
+        service.addListener((current, previous) -> changes.add(current));
+        service.pollOnce();
+
+        // When
+        next.set(response(withError));
+        int changed = service.pollOnce();
+
+        // Then
+        assertThat(changed).isEqualTo(1);
+        assertThat(changes).containsExactly(withoutError, withError);
+        assertThat(service.getLastSeen("TXN1")).isSameAs(withError);
+        service.close();
+    }
+
+    @Test
+    void testStart_WithoutChanges_ShouldBackOffToMaxInterval() throws Exception {
+        // Given
+        StatusPollingService service = new StatusPollingService(() -> response(), 10, 40);
+
+        // When
+        service.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getCurrentIntervalMs() < 40 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        service.close();
+
+        // Then
+        assertThat(service.getCurrentIntervalMs()).isEqualTo(40);
+    }
+
+    @Test
+    void testSetIntervals_WithLowerMaximum_ShouldBringScheduledPollForward() throws Exception {
+        // Given
+        AtomicInteger polls = new AtomicInteger();
+        StatusPollingService service = new StatusPollingService(() -> {
+            polls.incrementAndGet();
+            return response();
+        }, 60_000, 60_000);
+        service.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (polls.get() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // When
+        service.setIntervals(10, 20);
+        deadline = System.currentTimeMillis() + 5_000;
+        while (polls.get() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        service.close();
+
+        // Then
+        assertThat(polls.get()).isGreaterThanOrEqualTo(3);
+        assertThat(service.getCurrentIntervalMs()).isBetween(10L, 20L);
+    }
+}
@@ -0,0 +1,651 @@
+package gov.cms.esmd.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.cms.esmd.bean.adminerror.Notification;
+import gov.cms.esmd.bean.auth.response.AuthResponse;
+import gov.cms.esmd.bean.response.Content;
+import gov.cms.esmd.bean.response.DownloadObject;
+import gov.cms.esmd.bean.response.DownloadResponse;
+import gov.cms.esmd.bean.response.EsmdStatusResponse;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.PickupNotification;
+import gov.cms.esmd.bean.response.PresignedUrlResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import gov.cms.esmd.utility.ConcurrencyUtils;
+import gov.cms.esmd.utility.JsonCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * EsmdGatewaySimulator
+ *
+ * Embedded stand-in for the esMD API gateway and its object store, built on the JDK {@link HttpServer},
+ * for offline end-to-end and throughput tests. Point a client at it by setting
+ * {@code api.environment.<env>} to {@link #getBaseUrl()}.
+ * - Serves {@code /auth/generate}, {@code /objects} (list and upload presign), {@code /objects/{key}},
+ *   {@code /objects/realtime}, {@code /objects/notification/*} and {@code /objects/status/rc}
+ * - Presigned URLs point back at the simulator ({@code /s3/upload/*}, {@code /s3/download/*}); downloads
+ *   honor {@code Range} requests unless told to ignore them, and can be cut off mid-transfer
+ * - Gateway routes can be slowed down, failed with a 5xx or throttled with 429 at configurable rates;
+ *   the object store routes only see the latency
+ * - Counts requests, faults and peak concurrency per route, so concurrency changes can be measured
+ * - Keeps the headers of the last request per route and the last real-time upload body for assertions
+ */
+public final class EsmdGatewaySimulator implements AutoCloseable {
+
+    // Route names, used for counters and fault selection
+    public static final String ROUTE_AUTH = "auth";
+    public static final String ROUTE_OBJECTS_LIST = "objects.list";
+    public static final String ROUTE_PRESIGN_UPLOAD = "objects.presign-upload";
+    public static final String ROUTE_PRESIGN_DOWNLOAD = "objects.presign-download";
+    public static final String ROUTE_REALTIME = "realtime";
+    public static final String ROUTE_NOTIFICATION = "notification";
+    public static final String ROUTE_STATUS = "status";
+    public static final String ROUTE_S3_UPLOAD = "s3.upload";
+    public static final String ROUTE_S3_DOWNLOAD = "s3.download";
+
+    private static final Set<String> GATEWAY_ROUTES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ROUTE_AUTH, ROUTE_OBJECTS_LIST, ROUTE_PRESIGN_UPLOAD, ROUTE_PRESIGN_DOWNLOAD,
+            ROUTE_REALTIME, ROUTE_NOTIFICATION, ROUTE_STATUS)));
+
+    private static final String OBJECTS = "/objects";
+    private static final String S3_UPLOAD = "/s3/upload/";
+    private static final String S3_DOWNLOAD = "/s3/download/";
+
+    private final Builder config;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Random random;
+    private final Map<String, byte[]> objects;
+    private final String baseUrl;
+
+    private final Map<String, AtomicLong> requests = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> peakInFlight = new ConcurrentHashMap<>();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicLong downloadedBytes = new AtomicLong();
+    private final AtomicLong transactionSeq = new AtomicLong();
+    private final Map<String, AtomicLong> notifications = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> lastHeaders = new ConcurrentHashMap<>();
+    private volatile byte[] lastRealtimeBody;
+    private final AtomicInteger interruptedDownloads = new AtomicInteger();
+
+    private EsmdGatewaySimulator(Builder config) throws IOException {
+        this.config = config;
+        this.random = new Random(config.seed);
+        this.objects = createObjects(config.fileCount, config.fileSizeBytes, random);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.port), 0);
+        this.executor = Executors.newFixedThreadPool(config.threads,
+                ConcurrencyUtils.namedThreadFactory("esmd-simulator", true));
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+        this.baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Base URL to use as {@code api.environment.<env>}, e.g. {@code http://127.0.0.1:54321}. */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /** Names of the files listed by {@code GET /objects}, in listing order. */
+    public List<String> getObjectNames() {
+        return new ArrayList<>(objects.keySet());
+    }
+
+    /** Bytes of a listed file, as served by {@code /s3/download/*}. */
+    public byte[] getObject(String name) {
+        byte[] body = objects.get(name);
+        return body == null ? null : body.clone();
+    }
+
+    /** A header of the last request received on a route, or null if it had none. */
+    public String getLastRequestHeader(String route, String name) {
+        Map<String, String> headers = lastHeaders.get(route);
+        return headers == null ? null : headers.get(name.toLowerCase());
+    }
+
+    /** Body of the last real-time upload that was not faulted, or null if none was received. */
+    public byte[] getLastRealtimeBody() {
+        byte[] body = lastRealtimeBody;
+        return body == null ? null : body.clone();
+    }
+
+    /** Number of requests received on a route, including faulted ones. */
+    public long getRequestCount(String route) {
+        AtomicLong count = requests.get(route);
+        return count == null ? 0 : count.get();
+    }
+
+    /** Highest number of requests that were being served on a route at the same time. */
+    public int getPeakConcurrency(String route) {
+        AtomicInteger peak = peakInFlight.get(route);
+        return peak == null ? 0 : peak.get();
+    }
+
+    /** Number of notifications of a type (e.g., "pickup") accepted; a pickup batch counts each entry. */
+    public long getNotificationCount(String type) {
+        AtomicLong count = notifications.get(type);
+        return count == null ? 0 : count.get();
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    public long getUploadedBytes() {
+        return uploadedBytes.get();
+    }
+
+    public long getDownloadedBytes() {
+        return downloadedBytes.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /* ============================== Routing ============================== */
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String route = route(method, path);
+
+        try {
+            if (route == null) {
+                sendJson(exchange, 404, error("Not Found", "No simulated route for " + method + " " + path));
+                return;
+            }
+            requests.computeIfAbsent(route, r -> new AtomicLong()).incrementAndGet();
+            lastHeaders.put(route, headers(exchange));
+            int current = inFlight.computeIfAbsent(route, r -> new AtomicInteger()).incrementAndGet();
+            peakInFlight.computeIfAbsent(route, r -> new AtomicInteger()).accumulateAndGet(current, Math::max);
+            try {
+                serve(exchange, route, path);
+            } finally {
+                inFlight.get(route).decrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            sendJson(exchange, 500, error("Internal Server Error", e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String route(String method, String path) {
+        boolean get = "GET".equals(method);
+        boolean post = "POST".equals(method);
+        if (post && path.equals("/auth/generate")) {
+            return ROUTE_AUTH;
+        } else if (path.equals(OBJECTS)) {
+            return get ? ROUTE_OBJECTS_LIST : post ? ROUTE_PRESIGN_UPLOAD : null;
+        } else if (post && path.equals(OBJECTS + "/realtime")) {
+            return ROUTE_REALTIME;
+        } else if (post && path.startsWith(OBJECTS + "/notification/")) {
+            return ROUTE_NOTIFICATION;
+        } else if (get && path.equals(OBJECTS + "/status/rc")) {
+            return ROUTE_STATUS;
+        } else if (get && path.startsWith(OBJECTS + "/") && path.length() > OBJECTS.length() + 1) {
+            return ROUTE_PRESIGN_DOWNLOAD;
+        } else if ((post || "PUT".equals(method)) && path.startsWith(S3_UPLOAD)) {
+            return ROUTE_S3_UPLOAD;
+        } else if (get && path.startsWith(S3_DOWNLOAD)) {
+            return ROUTE_S3_DOWNLOAD;
+        }
+        return null;
+    }
+
+    private void serve(HttpExchange exchange, String route, String path) throws IOException {
+        sleepLatency();
+
+        if (GATEWAY_ROUTES.contains(route) && config.faultRoutes.contains(route)) {
+            double roll;
+            synchronized (random) {
+                roll = random.nextDouble();
+            }
+            if (roll < config.throttleRate) {
+                throttled.incrementAndGet();
+                drain(exchange);
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(config.retryAfterSeconds));
+                sendJson(exchange, 429, error("Too Many Requests", "Rate limit exceeded"));
+                return;
+            }
+            if (roll < config.throttleRate + config.errorRate) {
+                errors.incrementAndGet();
+                drain(exchange);
+                sendJson(exchange, config.errorStatus, error("Server Error", "Simulated failure"));
+                return;
+            }
+        }
+
+        switch (route) {
+            case ROUTE_AUTH:
+                drain(exchange);
+                sendJson(exchange, 200, authResponse());
+                break;
+            case ROUTE_OBJECTS_LIST:
+                sendJson(exchange, 200, listResponse());
+                break;
+            case ROUTE_PRESIGN_UPLOAD:
+                drain(exchange);
+                sendJson(exchange, 200, presignedResponse(S3_UPLOAD, header(exchange, "filename", "upload.zip")));
+                break;
+            case ROUTE_PRESIGN_DOWNLOAD:
+                String key = path.substring(OBJECTS.length() + 1);
+                if (!objects.containsKey(key)) {
+                    sendJson(exchange, 404, error("Not Found", "No such object: " + key));
+                } else {
+                    sendJson(exchange, 200, presignedResponse(S3_DOWNLOAD, key));
+                }
+                break;
+            case ROUTE_REALTIME:
+                try (InputStream in = exchange.getRequestBody()) {
+                    lastRealtimeBody = in.readAllBytes();
+                }
+                sendJson(exchange, 200, realtimeResponse(header(exchange, "letterid", null)));
+                break;
+            case ROUTE_NOTIFICATION:
+                sendJson(exchange, 200, notificationResponse(exchange, path.substring(path.lastIndexOf('/') + 1)));
+                break;
+            case ROUTE_STATUS:
+                sendJson(exchange, 200, statusResponse(header(exchange, "esMDTransactionId", null)));
+                break;
+            case ROUTE_S3_UPLOAD:
+                uploadedBytes.addAndGet(drain(exchange));
+                sendJson(exchange, 200, "{}");
+                break;
+            case ROUTE_S3_DOWNLOAD:
+                sendObject(exchange, path.substring(S3_DOWNLOAD.length()));
+                break;
+            default:
+                sendJson(exchange, 404, error("Not Found", route));
+        }
+    }
+
+    /* ============================== Responses ============================== */
+
+    private String authResponse() {
+        AuthResponse response = new AuthResponse();
+        response.setAccess_token("sim-" + Long.toHexString(transactionSeq.incrementAndGet()));
+        response.setExpires_in(config.tokenTtlSeconds);
+        response.setToken_type("Bearer");
+        return JsonCodec.toJson(response);
+    }
+
+    private String listResponse() {
+        List<DownloadObject> files = new ArrayList<>();
+        for (Map.Entry<String, byte[]> object : objects.entrySet()) {
+            DownloadObject file = new DownloadObject();
+            file.setFilename(object.getKey());
+            file.setSize(String.valueOf(object.getValue().length));
+            files.add(file);
+        }
+        DownloadResponse response = new DownloadResponse();
+        response.setStatus("SUCCESS");
+        response.setMessage(files.size() + " files available");
+        response.setObjects(files);
+        return JsonCodec.toJson(response);
+    }
+
+    private String presignedResponse(String prefix, String key) {
+        Content content = new Content();
+        content.setFilename(key);
+        content.setUrl(baseUrl + prefix + key + "?X-Amz-Signature=simulated");
+        PresignedUrlResponse response = new PresignedUrlResponse();
+        response.setStatus("SUCCESS");
+        response.setMessage("Presigned URL generated");
+        response.setContents(new ArrayList<>(Collections.singletonList(content)));
+        return JsonCodec.toJson(response);
+    }
+
+    private String realtimeResponse(String letterId) {
+        EsmdStatusResponse response = new EsmdStatusResponse();
+        response.setEsmdTransactionId(nextTransactionId());
+        response.setLetterId(letterId);
+        response.setStatus("RECEIVED");
+        response.setStatusDescription("Letter received");
+        return JsonCodec.toJson(response);
+    }
+
+    private String notificationResponse(HttpExchange exchange, String type) throws IOException {
+        NotificationResponse response = new NotificationResponse();
+        response.setMessage("Notification accepted");
+        ArrayList<StatusDetail> details = new ArrayList<>();
+        if ("pickup".equals(type)) {
+            PickupNotification pickup;
+            try (InputStream in = exchange.getRequestBody()) {
+                pickup = JsonCodec.fromJson(in, PickupNotification.class);
+            }
+            List<Notification> entries = pickup == null || pickup.getNotification() == null
+                    ? Collections.emptyList() : pickup.getNotification();
+            for (Notification entry : entries) {
+                details.add(statusDetail(entry.getEsMDTransactionId(), "SUCCESS", "Pickup recorded"));
+            }
+            notifications.computeIfAbsent(type, t -> new AtomicLong()).addAndGet(entries.size());
+        } else {
+            drain(exchange);
+            notifications.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+        }
+        response.setStatusDetails(details);
+        return JsonCodec.toJson(response);
+    }
+
+    private String statusResponse(String transactionId) {
+        NotificationResponse response = new NotificationResponse();
+        response.setMessage("Status retrieved");
+        ArrayList<StatusDetail> details = new ArrayList<>();
+        if (transactionId != null) {
+            details.add(statusDetail(transactionId, "SUCCESS", "Delivered"));
+        }
+        response.setStatusDetails(details);
+        return JsonCodec.toJson(response);
+    }
+
+    private void sendObject(HttpExchange exchange, String key) throws IOException {
+        byte[] body = objects.get(key);
+        if (body == null) {
+            sendJson(exchange, 404, error("Not Found", "No such object: " + key));
+            return;
+        }
+        int start = 0;
+        int end = body.length - 1;
+        int status = 200;
+        String range = config.ignoreRanges ? null : exchange.getRequestHeaders().getFirst("Range");
+        if (range != null && range.startsWith("bytes=")) {
+            String[] bounds = range.substring("bytes=".length()).split("-", 2);
+            start = Integer.parseInt(bounds[0].trim());
+            if (bounds.length > 1 && !bounds[1].trim().isEmpty()) {
+                end = Math.min(end, Integer.parseInt(bounds[1].trim()));
+            }
+            if (start >= body.length) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes */" + body.length);
+                exchange.sendResponseHeaders(416, -1);
+                return;
+            }
+            status = 206;
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + body.length);
+        }
+        int length = end - start + 1;
+        exchange.getResponseHeaders().set("Content-Type", "application/zip");
+        exchange.getResponseHeaders().set("Accept-Ranges", config.ignoreRanges ? "none" : "bytes");
+        if (interruptedDownloads.getAndIncrement() < config.interruptCount) {
+            // Promise more than is sent, so the server drops the connection once the bytes run out
+            int sent = Math.min(length, config.interruptAfterBytes);
+            exchange.sendResponseHeaders(status, sent < length ? length : length + 1L);
+            downloadedBytes.addAndGet(sent);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body, start, sent);
+            out.flush();
+            return;
+        }
+        // Counted before sending, so the count is final by the time the client has the bytes
+        downloadedBytes.addAndGet(length);
+        exchange.sendResponseHeaders(status, length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body, start, length);
+        }
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static Map<String, byte[]> createObjects(int fileCount, int fileSizeBytes, Random random) {
+        byte[] payload = new byte[fileSizeBytes];
+        random.nextBytes(payload);
+        Map<String, byte[]> objects = new LinkedHashMap<>();
+        for (int i = 1; i <= fileCount; i++) {
+            String transactionId = String.format("SIM%08dEC", i);
+            String name = "PT9993.D.L1.M" + transactionId + ".ESMD2.D071425.T2219020";
+            objects.put(name + ".zip", zip(transactionId + ".pdf", payload));
+        }
+        return Collections.unmodifiableMap(objects);
+    }
+
+    /** A ZIP holding one STORED entry, so its size is the payload size plus a small fixed overhead. */
+    private static byte[] zip(String entryName, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ZipEntry entry = new ZipEntry(entryName);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(payload.length);
+        entry.setCompressedSize(payload.length);
+        entry.setCrc(crc.getValue());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 256);
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(entry);
+            zip.write(payload);
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to build simulated object", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void sleepLatency() {
+        long delay = config.latencyMs;
+        if (config.latencyJitterMs > 0) {
+            delay += ThreadLocalRandom.current().nextLong(config.latencyJitterMs + 1);
+        }
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String nextTransactionId() {
+        return String.format("RT%010d", transactionSeq.incrementAndGet());
+    }
+
+    private static StatusDetail statusDetail(String transactionId, String status, String description) {
+        StatusDetail detail = new StatusDetail(new ArrayList<>());
+        detail.setEsMDTransactionID(transactionId);
+        detail.setStatus(status);
+        detail.setStatusDescription(description);
+        return detail;
+    }
+
+    private static String error(String error, String message) {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("error", error);
+        body.put("message", message);
+        return JsonCodec.toJson(body);
+    }
+
+    private static Map<String, String> headers(HttpExchange exchange) {
+        Map<String, String> headers = new HashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> headers.put(name.toLowerCase(), values.get(0)));
+        return headers;
+    }
+
+    private static String header(HttpExchange exchange, String name, String defaultValue) {
+        String value = exchange.getRequestHeaders().getFirst(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /** Reads and discards the request body, returning its length. */
+    private static long drain(HttpExchange exchange) throws IOException {
+        long total = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /* ============================== Builder ============================== */
+
+    /** Simulator settings; every setting has a default suitable for functional tests. */
+    public static final class Builder {
+        private int port = 0;
+        private int threads = 32;
+        private long seed = 42L;
+        private long latencyMs = 0;
+        private long latencyJitterMs = 0;
+        private double errorRate = 0.0;
+        private int errorStatus = 500;
+        private double throttleRate = 0.0;
+        private int retryAfterSeconds = 1;
+        private Set<String> faultRoutes = GATEWAY_ROUTES;
+        private int fileCount = 5;
+        private int fileSizeBytes = 4096;
+        private int tokenTtlSeconds = 3600;
+        private boolean ignoreRanges = false;
+        private int interruptCount = 0;
+        private int interruptAfterBytes = 0;
+
+        private Builder() {
+        }
+
+        /** Port to listen on; 0 (the default) picks a free port. */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /** Number of server threads, i.e. the most requests served at the same time. */
+        public Builder threads(int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        /** Seed for the fault rolls and the generated payloads. */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Fixed delay added to every response, plus a uniformly distributed extra of up to {@code jitterMs}. */
+        public Builder latency(long latencyMs, long jitterMs) {
+            this.latencyMs = Math.max(0, latencyMs);
+            this.latencyJitterMs = Math.max(0, jitterMs);
+            return this;
+        }
+
+        /** Fraction (0..1) of gateway requests answered with 500. */
+        public Builder errorRate(double errorRate) {
+            return errorRate(errorRate, 500);
+        }
+
+        /** Fraction (0..1) of gateway requests answered with the given 5xx status. */
+        public Builder errorRate(double errorRate, int status) {
+            if (status < 500 || status > 599) {
+                throw new IllegalArgumentException("status must be a 5xx code");
+            }
+            this.errorRate = rate(errorRate, "errorRate");
+            this.errorStatus = status;
+            return this;
+        }
+
+        /** Fraction (0..1) of gateway requests answered with 429 and a {@code Retry-After} header. */
+        public Builder throttleRate(double throttleRate, int retryAfterSeconds) {
+            this.throttleRate = rate(throttleRate, "throttleRate");
+            this.retryAfterSeconds = Math.max(0, retryAfterSeconds);
+            return this;
+        }
+
+        /** Restricts the error and throttle rates to the given gateway routes (all gateway routes by default). */
+        public Builder faultRoutes(String... routes) {
+            this.faultRoutes = new HashSet<>(Arrays.asList(routes));
+            return this;
+        }
+
+        /** Number of ZIP files listed for download and the size of the payload inside each. */
+        public Builder files(int fileCount, int fileSizeBytes) {
+            this.fileCount = Math.max(0, fileCount);
+            this.fileSizeBytes = Math.max(0, fileSizeBytes);
+            return this;
+        }
+
+        /** Answers every object-store download with the whole object and a 200, as if {@code Range} were unsupported. */
+        public Builder ignoreRanges() {
+            this.ignoreRanges = true;
+            return this;
+        }
+
+        /**
+         * Drops the connection of the first {@code count} object-store downloads after {@code afterBytes}
+         * bytes of the body. A response whose body fits in {@code afterBytes} is sent in full before the
+         * connection is dropped, as when a transfer breaks off just before it completes.
+         */
+        public Builder interruptDownloads(int count, int afterBytes) {
+            this.interruptCount = Math.max(0, count);
+            this.interruptAfterBytes = Math.max(0, afterBytes);
+            return this;
+        }
+
+        /** {@code expires_in} returned with every token. */
+        public Builder tokenTtlSeconds(int tokenTtlSeconds) {
+            this.tokenTtlSeconds = tokenTtlSeconds;
+            return this;
+        }
+
+        /** Starts the simulator. */
+        public EsmdGatewaySimulator start() throws IOException {
+            if (errorRate + throttleRate > 1.0) {
+                throw new IllegalArgumentException("errorRate + throttleRate must not exceed 1.0");
+            }
+            return new EsmdGatewaySimulator(this);
+        }
+
+        private static double rate(double value, String name) {
+            if (value < 0.0 || value > 1.0) {
+                throw new IllegalArgumentException(name + " must be between 0.0 and 1.0");
+            }
+            return value;
+        }
+    }
+}
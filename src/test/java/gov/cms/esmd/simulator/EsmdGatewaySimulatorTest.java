@@ -0,0 +1,517 @@
+package gov.cms.esmd.simulator;
+
+import gov.cms.esmd.bean.response.DownloadResponse;
+import gov.cms.esmd.bean.response.EsmdStatusResponse;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import gov.cms.esmd.rc.api.client.AuthTokenCache;
+import gov.cms.esmd.rc.api.client.DownloadApiClient;
+import gov.cms.esmd.rc.api.client.StatusApiClient;
+import gov.cms.esmd.rc.api.client.UploadRealtimeApiClient;
+import gov.cms.esmd.rc.impl.DownloadImpl;
+import gov.cms.esmd.rc.impl.UploadImpl;
+import gov.cms.esmd.utility.ChecksumUtil;
+import gov.cms.esmd.utility.EsmdConfig;
+import gov.cms.esmd.utility.PropertiesUtils;
+import gov.cms.esmd.utility.ZipUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * End-to-end tests running the download, upload, real-time and status clients against EsmdGatewaySimulator class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class EsmdGatewaySimulatorTest {
+
+    // Auth clients are cached per environment, so every simulator gets an environment of its own
+    private static final AtomicInteger ENV_SEQ = new AtomicInteger();
+
+    @TempDir
+    Path tempDir;
+
+    private final Properties properties = PropertiesUtils.loadProperties(null);
+    private final String env = "sim" + ENV_SEQ.incrementAndGet();
+    private EsmdGatewaySimulator simulator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path downloads = Files.createDirectories(tempDir.resolve("downloads"));
+        Path uploads = Files.createDirectories(tempDir.resolve("uploads"));
+        override("api.file-download.local-path", downloads.toString());
+        override("api.file-download.stream-extract", "true");
+        override("api.file-download.keep-archive", "false");
+        override("api.file-upload.local-path", uploads.toString());
+        override("api.file-download.resume-backoff-ms", "10");
+        EsmdConfig.install(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (simulator != null) {
+            simulator.close();
+        }
+        EsmdConfig.reload();
+    }
+
+    private void start(EsmdGatewaySimulator.Builder builder) throws Exception {
+        simulator = builder.start();
+        override("api.environment." + env, simulator.getBaseUrl());
+        EsmdConfig.install(properties);
+    }
+
+    private void override(String key, String value) {
+        properties.setProperty(key, value);
+    }
+
+    private Supplier<String> tokens() {
+        return () -> AuthTokenCache.getInstance().getToken(env, "wiser/uploadrealtime").getAccess_token();
+    }
+
+    /** Presigns the first listed file. */
+    private String presignFirstFile(DownloadApiClient client) {
+        String name = simulator.getObjectNames().get(0);
+        return client.getDownloadPresignedURL(name, "token", "WSDEV101").getContents().get(0).getUrl();
+    }
+
+    /** Presigns the first listed file and downloads it with {@code expectedSize} to {@code target}. */
+    private boolean downloadFirstFile(Path target, long expectedSize) {
+        DownloadApiClient client = new DownloadApiClient(env);
+        return client.downloadFileWithPresignedURL(presignFirstFile(client), target.toString(), "token", expectedSize);
+    }
+
+    /** Presigns the first listed file and streams it into {@code extractDir}, keeping the ZIP at {@code archive} if given. */
+    private boolean extractFirstFile(Path extractDir, Path archive, long expectedSize) {
+        DownloadApiClient client = new DownloadApiClient(env);
+        return client.downloadAndExtractWithPresignedURL(presignFirstFile(client), extractDir.toString(), "token",
+                archive == null ? null : archive.toString(), expectedSize);
+    }
+
+    /** Asserts that the last real-time upload carried {@code expected} with a matching checksum and size header. */
+    private void assertRealtimeBody(byte[] expected) {
+        byte[] body = simulator.getLastRealtimeBody();
+        assertThat(body).isEqualTo(expected);
+        assertThat(simulator.getLastRequestHeader(EsmdGatewaySimulator.ROUTE_REALTIME, "contentchecksum"))
+                .isEqualTo(ChecksumUtil.sha256Hex(body));
+        assertThat(simulator.getLastRequestHeader(EsmdGatewaySimulator.ROUTE_REALTIME, "size"))
+                .isEqualTo(String.valueOf(body.length));
+    }
+
+    private static List<String> listNames(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private byte[] firstFile() {
+        return simulator.getObject(simulator.getObjectNames().get(0));
+    }
+
+    private static Path partFile(Path target) {
+        return target.resolveSibling(target.getFileName() + ".part");
+    }
+
+    @Test
+    void testDownload_WithConcurrentWorkers_ShouldExtractEveryFileAndSendPickups() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(8, 64 * 1024).latency(20, 10));
+
+        // When
+        List<StatusDetail> details = new DownloadImpl().downloadWiserRequestsFromesMD(env, 4);
+
+        // Then
+        assertThat(details).hasSize(8);
+        assertThat(details).extracting(StatusDetail::getStatus).containsOnly("SUCCESS");
+        try (Stream<Path> extracted = Files.list(tempDir.resolve("downloads"))) {
+            assertThat(extracted.filter(p -> p.toString().endsWith(".pdf")).count()).isEqualTo(8);
+        }
+        assertThat(simulator.getNotificationCount("pickup")).isEqualTo(8);
+        assertThat(simulator.getPeakConcurrency(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isBetween(2, 4);
+    }
+
+    @Test
+    void testUpload_WithConcurrentWorkers_ShouldPresignAndSendEveryFile() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().latency(10, 0));
+        long total = 0;
+        for (int i = 0; i < 6; i++) {
+            byte[] body = new byte[10_000 + i];
+            Files.write(tempDir.resolve("uploads").resolve("PT9993.U" + i + ".zip"), body);
+            total += body.length;
+        }
+
+        // When
+        List<StatusDetail> details = new UploadImpl().uploadWiserRequestsToesMD(env, 3);
+
+        // Then
+        assertThat(details).hasSize(6);
+        assertThat(details).extracting(StatusDetail::getStatus).containsOnly("SUCCESS");
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_PRESIGN_UPLOAD)).isEqualTo(6);
+        assertThat(simulator.getUploadedBytes()).isEqualTo(total);
+    }
+
+    @Test
+    void testRealtime_WithBulkLetters_ShouldReturnTransactionIdPerLetter() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().latency(5, 5));
+        List<UploadRealtimeApiClient.Letter> letters = IntStream.range(0, 12)
+                .mapToObj(i -> UploadRealtimeApiClient.Letter.of("LTR" + i, "{\"letter\":" + i + "}"))
+                .collect(Collectors.toList());
+
+        // When
+        List<EsmdStatusResponse> responses = new UploadRealtimeApiClient(env)
+                .uploadLettersToEsmd(letters.stream(), tokens(), "WSDEV101");
+
+        // Then
+        assertThat(responses).extracting(EsmdStatusResponse::getStatus).containsOnly("RECEIVED");
+        assertThat(responses).extracting(EsmdStatusResponse::getLetterId)
+                .containsExactlyElementsOf(letters.stream().map(UploadRealtimeApiClient.Letter::getLetterId)
+                        .collect(Collectors.toList()));
+        assertThat(responses).extracting(EsmdStatusResponse::getEsmdTransactionId).doesNotContainNull().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testRealtime_WithLetterDirectory_ShouldUploadMatchingFilesInNameOrder() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().latency(5, 5));
+        Path letters = Files.createDirectories(tempDir.resolve("letters").resolve("nested"));
+        for (int i = 5; i >= 0; i--) {
+            Files.write(letters.resolve("LTR" + i + ".json"), ("{\"letter\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(letters.resolve("LTR9.txt"), "ignored".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<EsmdStatusResponse> responses = new UploadRealtimeApiClient(env)
+                .uploadLettersToEsmd(tempDir.resolve("letters").toString(), ".json", tokens(), "WSDEV101");
+
+        // Then
+        assertThat(responses).extracting(EsmdStatusResponse::getLetterId)
+                .containsExactly("LTR0", "LTR1", "LTR2", "LTR3", "LTR4", "LTR5");
+        assertThat(responses).extracting(EsmdStatusResponse::getStatus).containsOnly("RECEIVED");
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_REALTIME)).isEqualTo(6);
+    }
+
+    @Test
+    void testRealtime_WithJsonFile_ShouldSendChecksumAndSizeOfFile() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder());
+        byte[] json = "{\"letter\":\"file\",\"text\":\"\u00e9t\u00e9\"}".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("letter.json"), json);
+
+        // When
+        EsmdStatusResponse response = new UploadRealtimeApiClient(env).uploadJsonToEsmd(file, "LTRFILE", "token", "WSDEV101");
+
+        // Then
+        assertThat(response.getLetterId()).isEqualTo("LTRFILE");
+        assertRealtimeBody(json);
+    }
+
+    @Test
+    void testRealtime_WithSlicedHeapBuffer_ShouldSendOnlyRemainingBytesAndKeepPosition() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder());
+        byte[] json = "{\"letter\":\"heap\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] backing = new byte[json.length + 16];
+        Arrays.fill(backing, (byte) '#');
+        System.arraycopy(json, 0, backing, 8, json.length);
+        ByteBuffer slice = ByteBuffer.wrap(backing, 4, json.length + 8).slice();
+        slice.position(4).limit(4 + json.length);
+
+        // When
+        new UploadRealtimeApiClient(env).uploadJsonToEsmd(slice, "LTRHEAP", "token", "WSDEV101");
+
+        // Then
+        assertThat(slice.arrayOffset()).isEqualTo(4);
+        assertThat(slice.position()).isEqualTo(4);
+        assertThat(slice.remaining()).isEqualTo(json.length);
+        assertRealtimeBody(json);
+    }
+
+    @Test
+    void testRealtime_WithDirectBuffer_ShouldCopyRemainingBytesAndKeepPosition() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder());
+        byte[] json = "{\"letter\":\"direct\"}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(json.length + 3);
+        direct.put(new byte[] {'#', '#', '#'}).put(json).flip().position(3);
+
+        // When
+        new UploadRealtimeApiClient(env).uploadJsonToEsmd(direct, "LTRDIRECT", "token", "WSDEV101");
+
+        // Then
+        assertThat(direct.hasArray()).isFalse();
+        assertThat(direct.position()).isEqualTo(3);
+        assertThat(direct.remaining()).isEqualTo(json.length);
+        assertRealtimeBody(json);
+    }
+
+    @Test
+    void testRealtime_WhenAlwaysThrottled_ShouldRetryThenReportEachLetterAsFailed() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder()
+                .throttleRate(1.0, 0)
+                .faultRoutes(EsmdGatewaySimulator.ROUTE_REALTIME));
+
+        // When
+        List<EsmdStatusResponse> responses = new UploadRealtimeApiClient(env).uploadLettersToEsmd(
+                Stream.of(UploadRealtimeApiClient.Letter.of("LTR1", "{}"), UploadRealtimeApiClient.Letter.of("LTR2", "{}")),
+                tokens(), "WSDEV101");
+
+        // Then
+        long requests = simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_REALTIME);
+        assertThat(responses).extracting(EsmdStatusResponse::getStatus).containsOnly("FAILED");
+        assertThat(requests).isGreaterThan(2).isLessThanOrEqualTo(6);
+        assertThat(simulator.getThrottledCount()).isEqualTo(requests);
+    }
+
+    @Test
+    void testDownload_WithTransientGatewayErrors_ShouldRetryAndSucceed() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(4, 16 * 1024).seed(7).errorRate(0.3, 503)
+                .faultRoutes(EsmdGatewaySimulator.ROUTE_PRESIGN_DOWNLOAD, EsmdGatewaySimulator.ROUTE_OBJECTS_LIST));
+
+        // When
+        List<StatusDetail> details = new DownloadImpl().downloadWiserRequestsFromesMD(env, 1);
+
+        // Then
+        assertThat(details).hasSize(4);
+        assertThat(simulator.getErrorCount()).isPositive();
+        assertThat(details).extracting(StatusDetail::getStatus).containsOnly("SUCCESS");
+    }
+
+    @Test
+    void testDownloadFile_WhenInterrupted_ShouldResumeWithRangeRequest() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(1, 32 * 1024).interruptDownloads(1, 10_000));
+        Path target = tempDir.resolve("resumed.zip");
+        byte[] expected = firstFile();
+
+        // When
+        boolean downloaded = downloadFirstFile(target, expected.length);
+
+        // Then
+        assertThat(downloaded).isTrue();
+        assertThat(Files.readAllBytes(target)).isEqualTo(expected);
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(2);
+        assertThat(simulator.getDownloadedBytes()).isEqualTo(expected.length);
+        assertThat(partFile(target)).doesNotExist();
+    }
+
+    @Test
+    void testDownloadFile_WhenServerIgnoresRange_ShouldRestartFromFirstByte() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(1, 32 * 1024).interruptDownloads(1, 10_000).ignoreRanges());
+        Path target = tempDir.resolve("restarted.zip");
+        byte[] expected = firstFile();
+
+        // When
+        boolean downloaded = downloadFirstFile(target, expected.length);
+
+        // Then
+        assertThat(downloaded).isTrue();
+        assertThat(Files.readAllBytes(target)).isEqualTo(expected);
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(2);
+        assertThat(simulator.getDownloadedBytes()).isEqualTo(10_000L + expected.length);
+    }
+
+    @Test
+    void testDownloadFile_WhenDroppedAfterLastByte_ShouldCompleteOnRangeNotSatisfiable() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(1, 8 * 1024).interruptDownloads(1, Integer.MAX_VALUE));
+        Path target = tempDir.resolve("complete.zip");
+        byte[] expected = firstFile();
+
+        // When
+        boolean downloaded = downloadFirstFile(target, -1L);
+
+        // Then
+        assertThat(downloaded).isTrue();
+        assertThat(Files.readAllBytes(target)).isEqualTo(expected);
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(2);
+        assertThat(simulator.getDownloadedBytes()).isEqualTo(expected.length);
+    }
+
+    @Test
+    void testDownloadFile_WithSizeMismatch_ShouldDeletePartFileAndFail() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(1, 8 * 1024));
+        Path target = tempDir.resolve("mismatch.zip");
+
+        // When
+        boolean downloaded = downloadFirstFile(target, firstFile().length + 100L);
+
+        // Then
+        assertThat(downloaded).isFalse();
+        assertThat(target).doesNotExist();
+        assertThat(partFile(target)).doesNotExist();
+    }
+
+    @Test
+    void testDownloadFile_WhenResumeAttemptsRunOut_ShouldFail() throws Exception {
+        // Given
+        override("api.file-download.resume-attempts", "3");
+        start(EsmdGatewaySimulator.builder().files(1, 32 * 1024).interruptDownloads(10, 1_000));
+        Path target = tempDir.resolve("exhausted.zip");
+
+        // When / Then
+        assertThatThrownBy(() -> downloadFirstFile(target, firstFile().length))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Failed to download file");
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(3);
+        assertThat(target).doesNotExist();
+    }
+
+    @Test
+    void testDownloadAndExtract_WhenInterrupted_ShouldResumeWithRangeRequest() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(1, 32 * 1024).interruptDownloads(1, 10_000));
+        Path extractDir = Files.createDirectories(tempDir.resolve("extracted"));
+        Path archive = tempDir.resolve("kept.zip");
+        byte[] expected = firstFile();
+        Path reference = tempDir.resolve("reference");
+        ZipUtils.extract(new ByteArrayInputStream(expected), reference);
+
+        // When
+        boolean extracted = extractFirstFile(extractDir, archive, expected.length);
+
+        // Then
+        assertThat(extracted).isTrue();
+        assertThat(listNames(extractDir)).isEqualTo(listNames(reference));
+        for (String name : listNames(reference)) {
+            assertThat(Files.readAllBytes(extractDir.resolve(name))).isEqualTo(Files.readAllBytes(reference.resolve(name)));
+        }
+        assertThat(Files.readAllBytes(archive)).isEqualTo(expected);
+        assertThat(partFile(archive)).doesNotExist();
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(2);
+        assertThat(simulator.getDownloadedBytes()).isEqualTo(expected.length);
+    }
+
+    @Test
+    void testDownloadAndExtract_WithSizeMismatch_ShouldLeaveExtractDirectoryUntouched() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(1, 8 * 1024));
+        Path extractDir = Files.createDirectories(tempDir.resolve("extracted"));
+        Path archive = tempDir.resolve("kept.zip");
+
+        // When
+        boolean extracted = extractFirstFile(extractDir, archive, firstFile().length + 100L);
+
+        // Then
+        assertThat(extracted).isFalse();
+        assertThat(listNames(extractDir)).isEmpty();
+        assertThat(archive).doesNotExist();
+        assertThat(partFile(archive)).doesNotExist();
+    }
+
+    @Test
+    void testDownloadAndExtract_WhenResumeAttemptsRunOut_ShouldLeaveNoPartialFiles() throws Exception {
+        // Given
+        override("api.file-download.resume-attempts", "3");
+        start(EsmdGatewaySimulator.builder().files(1, 32 * 1024).interruptDownloads(10, 1_000));
+        Path extractDir = Files.createDirectories(tempDir.resolve("extracted"));
+
+        // When / Then
+        assertThatThrownBy(() -> extractFirstFile(extractDir, null, firstFile().length))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Failed to download and extract file");
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(3);
+        assertThat(simulator.getDownloadedBytes()).isEqualTo(3_000L);
+        assertThat(listNames(extractDir)).isEmpty();
+    }
+
+    @Test
+    void testDownloadFile_AboveSegmentThreshold_ShouldAssembleParallelRanges() throws Exception {
+        // Given
+        override("api.file-download.segments", "4");
+        override("api.file-download.segment-threshold-bytes", "1024");
+        start(EsmdGatewaySimulator.builder().files(1, 100_000).latency(20, 0));
+        Path target = tempDir.resolve("segmented.zip");
+        byte[] expected = firstFile();
+
+        // When
+        boolean downloaded = downloadFirstFile(target, expected.length);
+
+        // Then
+        assertThat(downloaded).isTrue();
+        assertThat(Files.readAllBytes(target)).isEqualTo(expected);
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(4);
+        assertThat(simulator.getPeakConcurrency(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isGreaterThan(1);
+        assertThat(simulator.getDownloadedBytes()).isEqualTo(expected.length);
+    }
+
+    @Test
+    void testDownloadFile_AboveSegmentThresholdWithoutRangeSupport_ShouldFallBackToSingleStream() throws Exception {
+        // Given
+        override("api.file-download.segments", "4");
+        override("api.file-download.segment-threshold-bytes", "1024");
+        start(EsmdGatewaySimulator.builder().files(1, 100_000).ignoreRanges());
+        Path target = tempDir.resolve("fallback.zip");
+        byte[] expected = firstFile();
+
+        // When
+        boolean downloaded = downloadFirstFile(target, expected.length);
+
+        // Then
+        assertThat(downloaded).isTrue();
+        assertThat(Files.readAllBytes(target)).isEqualTo(expected);
+        assertThat(simulator.getRequestCount(EsmdGatewaySimulator.ROUTE_S3_DOWNLOAD)).isEqualTo(5);
+        assertThat(partFile(target)).doesNotExist();
+    }
+
+    @Test
+    void testForEachFile_ShouldStreamEveryListedFile() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder().files(6, 1024));
+        List<String> names = new ArrayList<>();
+
+        // When
+        DownloadResponse response = new DownloadApiClient(env).forEachFile("token", "WSDEV101",
+                file -> names.add(file.getFilename()));
+
+        // Then
+        assertThat(names).containsExactlyElementsOf(simulator.getObjectNames());
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getObjects()).isNullOrEmpty();
+    }
+
+    @Test
+    void testForEachLatestStatus_ShouldStreamStatusesAndSendMailboxIdAsUid() throws Exception {
+        // Given
+        start(EsmdGatewaySimulator.builder());
+        List<StatusDetail> details = new ArrayList<>();
+        String statusUrl = EsmdConfig.get().endpoints(env).getStatusUrl();
+
+        // When
+        NotificationResponse response;
+        try (StatusApiClient client = new StatusApiClient(statusUrl)) {
+            response = client.forEachLatestStatus("TX0001", "WSDEV101", "token", null, details::add);
+        }
+
+        // Then
+        assertThat(details).extracting(StatusDetail::getEsMDTransactionID).containsExactly("TX0001");
+        assertThat(response.getMessage()).isEqualTo("Status retrieved");
+        assertThat(simulator.getLastRequestHeader(EsmdGatewaySimulator.ROUTE_STATUS, "uid")).isEqualTo("WSDEV101");
+    }
+}
@@ -0,0 +1,60 @@
+package gov.cms.esmd.utility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ChecksumUtil class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class ChecksumUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFingerprint_ShouldMatchIndividualDigests() throws Exception {
+        // Given
+        byte[] content = new byte[300_000];
+        new Random(42).nextBytes(content);
+        Path file = Files.write(tempDir.resolve("payload.zip"), content);
+
+        // When
+        ChecksumUtil.FileFingerprint fingerprint = ChecksumUtil.fingerprint(file);
+
+        // Then
+        assertThat(fingerprint.getSizeBytes()).isEqualTo(content.length);
+        assertThat(fingerprint.getSha256Hex()).isEqualTo(ChecksumUtil.sha256Hex(content));
+        assertThat(fingerprint.getMd5Base64()).isEqualTo(ChecksumUtil.checkMD5(file.toString()));
+    }
+
+    @Test
+    void testFingerprint_WithEmptyFile_ShouldReturnZeroSize() throws Exception {
+        // Given
+        Path file = Files.createFile(tempDir.resolve("empty.zip"));
+
+        // When
+        ChecksumUtil.FileFingerprint fingerprint = ChecksumUtil.fingerprint(file);
+
+        // Then
+        assertThat(fingerprint.getSizeBytes()).isZero();
+        assertThat(fingerprint.getSha256Hex())
+                .isEqualTo("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855");
+        assertThat(fingerprint.getMd5Base64()).isEqualTo("1B2M2Y8AsgTpgAmY7PhCfg==");
+    }
+
+    @Test
+    void testCheckMD5_WithMissingFile_ShouldReturnNull() {
+        // When & Then
+        assertThat(ChecksumUtil.checkMD5(tempDir.resolve("missing.zip").toString())).isNull();
+    }
+}
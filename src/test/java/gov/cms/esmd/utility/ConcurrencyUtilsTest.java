@@ -0,0 +1,81 @@
+package gov.cms.esmd.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ConcurrencyUtils class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class ConcurrencyUtilsTest {
+
+    @Test
+    void testInvokeAllInOrder_WithIterator_ShouldPullWithinWindowAndKeepOrder() throws Exception {
+        // Given
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger peakHeld = new AtomicInteger();
+        Iterator<Integer> items = IntStream.range(0, 40).boxed()
+                .peek(i -> peakHeld.accumulateAndGet(pulled.incrementAndGet() - finished.get(), Math::max))
+                .iterator();
+
+        // When
+        List<String> results = ConcurrencyUtils.invokeAllInOrder(items, 3, "test-window", i -> {
+            sleep(ThreadLocalRandom.current().nextInt(5));
+            finished.incrementAndGet();
+            return "r" + i;
+        }, (i, error) -> "failed");
+
+        // Then
+        assertThat(results).containsExactlyElementsOf(
+                IntStream.range(0, 40).mapToObj(i -> "r" + i)::iterator);
+        assertThat(peakHeld.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void testInvokeAllInOrder_WithFailingItem_ShouldMapFailureAndContinue() throws Exception {
+        // Given
+        Iterator<Integer> items = List.of(1, 2, 3).iterator();
+
+        // When
+        List<String> results = ConcurrencyUtils.invokeAllInOrder(items, 2, "test-failure", i -> {
+            if (i == 2) {
+                throw new IllegalArgumentException("bad item");
+            }
+            return "ok" + i;
+        }, (i, error) -> "failed" + i + ":" + error.getMessage());
+
+        // Then
+        assertThat(results).containsExactly("ok1", "failed2:bad item", "ok3");
+    }
+
+    @Test
+    void testInvokeAllInOrder_WithEmptyIterator_ShouldReturnEmptyList() throws Exception {
+        // When
+        List<String> results = ConcurrencyUtils.invokeAllInOrder(List.<Integer>of().iterator(), 4, "test-empty",
+                i -> "r" + i, (i, error) -> "failed");
+
+        // Then
+        assertThat(results).isEmpty();
+    }
+
+    /* ============================== Helpers ============================== */
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package gov.cms.esmd.utility;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ConfigWatcher class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class ConfigWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private ConfigWatcher watcher;
+    private final List<EsmdConfig> seen = new CopyOnWriteArrayList<>();
+    private final Consumer<EsmdConfig> listener = seen::add;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = tempDir.resolve("esmd-overrides.yml");
+        write("api:\n  realtime:\n    bulk:\n      requests-per-second: 20\n");
+        System.setProperty("esmd.config.file", file.toString());
+        EsmdConfig.addListener(listener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+        EsmdConfig.removeListener(listener);
+        System.clearProperty("esmd.config.file");
+        Properties defaults = PropertiesUtils.loadProperties(null);
+        EsmdConfig.install(defaults, EsmdConfig.from(defaults));
+    }
+
+    private void write(String yaml) throws Exception {
+        Files.write(file, yaml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void testLoadProperties_WithExternalFile_ShouldOverlayBundledDefaults() throws Exception {
+        // Given
+        write("api:\n  file-upload:\n    partsize: 1048576\n");
+
+        // When
+        EsmdConfig config = EsmdConfig.from(PropertiesUtils.loadProperties(null));
+
+        // Then
+        assertThat(config.getUploadPartSize()).isEqualTo(1_048_576L);
+        assertThat(config.getMailboxId()).isEqualTo("WSDEV101");
+    }
+
+    @Test
+    void testIsEnabled_WithExternalFile_ShouldFollowWatchEnabledKey() throws Exception {
+        // Given
+        Properties enabled = PropertiesUtils.loadProperties(null);
+        write("api:\n  config:\n    watch:\n      enabled: false\n");
+        Properties disabled = PropertiesUtils.loadProperties(null);
+
+        // When
+        EsmdConfig.install(enabled, EsmdConfig.from(enabled));
+        boolean whenEnabled = ConfigWatcher.isEnabled();
+        EsmdConfig.install(disabled, EsmdConfig.from(disabled));
+        boolean whenDisabled = ConfigWatcher.isEnabled();
+
+        // Then
+        assertThat(whenEnabled).isTrue();
+        assertThat(whenDisabled).isFalse();
+    }
+
+    @Test
+    void testWatch_WhenFileChanges_ShouldSwapConfigurationAndNotifyListeners() throws Exception {
+        // Given
+        watcher = ConfigWatcher.start(50);
+
+        // When
+        write("api:\n  realtime:\n    bulk:\n      requests-per-second: 2\n      concurrency: 3\n");
+        await(() -> EsmdConfig.get().getRealtimeBulkRequestsPerSecond() == 2);
+
+        // Then
+        EsmdConfig current = EsmdConfig.get();
+        assertThat(current.getRealtimeBulkRequestsPerSecond()).isEqualTo(2);
+        assertThat(current.getRealtimeBulkConcurrency()).isEqualTo(3);
+        assertThat(PropertiesUtils.getIntProperty("api.realtime.bulk.concurrency", 0)).isEqualTo(3);
+        assertThat(EsmdConfig.from(PropertiesUtils.loadProperties()).getRealtimeBulkConcurrency()).isEqualTo(3);
+        assertThat(seen).contains(current);
+        assertThat(watcher.getReloadCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testReloadNow_WithInvalidFile_ShouldKeepCurrentConfiguration() throws Exception {
+        // Given
+        watcher = ConfigWatcher.start(50);
+        EsmdConfig before = EsmdConfig.get();
+        List<EsmdConfig> seenBefore = new ArrayList<>(seen);
+
+        // When
+        write("api:\n  file-upload:\n    partsize: lots\n");
+        boolean swapped = watcher.reloadNow();
+
+        // Then
+        assertThat(swapped).isFalse();
+        assertThat(watcher.getFailedReloadCount()).isGreaterThanOrEqualTo(1);
+        assertThat(EsmdConfig.get()).isSameAs(before);
+        assertThat(seen).isEqualTo(seenBefore);
+    }
+}
@@ -0,0 +1,97 @@
+package gov.cms.esmd.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for EsmdConfig class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class EsmdConfigTest {
+
+    private static Properties bundled() {
+        return PropertiesUtils.loadProperties(null);
+    }
+
+    @Test
+    void testEndpoints_WithBundledProperties_ShouldJoinBaseUrlAndPaths() {
+        // Given
+        Properties properties = bundled();
+        properties.setProperty("api.environment.test", "https://gateway.example/api/esmd/v1");
+
+        // When
+        EsmdConfig.Endpoints endpoints = EsmdConfig.from(properties).endpoints("test");
+
+        // Then
+        assertThat(endpoints.getBaseUrl()).isEqualTo("https://gateway.example/api/esmd/v1");
+        assertThat(endpoints.getUploadUrl())
+                .isEqualTo("https://gateway.example/api/esmd/v1" + properties.getProperty("api.url.upload-url"));
+        assertThat(endpoints.getStatusUrl())
+                .isEqualTo("https://gateway.example/api/esmd/v1" + properties.getProperty("api.url.notification-status"));
+    }
+
+    @Test
+    void testFrom_WithMissingRequiredKey_ShouldThrowIllegalStateException() {
+        // Given
+        Properties properties = bundled();
+        properties.remove("userinfo.mailboxid");
+
+        // When / Then
+        assertThatThrownBy(() -> EsmdConfig.from(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("userinfo.mailboxid");
+    }
+
+    @Test
+    void testFrom_WithMalformedNumber_ShouldThrowIllegalStateException() {
+        // Given
+        Properties properties = bundled();
+        properties.setProperty("api.file-download.concurrency", "four");
+
+        // When / Then
+        assertThatThrownBy(() -> EsmdConfig.from(properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("api.file-download.concurrency");
+    }
+
+    @Test
+    void testEndpoints_WithUnknownEnvironment_ShouldThrowIllegalStateException() {
+        // Given
+        EsmdConfig config = EsmdConfig.from(bundled());
+
+        // When / Then
+        assertThatThrownBy(() -> config.endpoints("nowhere"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("api.environment.nowhere");
+    }
+
+    @Test
+    void testInstall_ThenMutateSourceOrShared_ShouldKeepSnapshotConsistent() {
+        // Given
+        Properties properties = bundled();
+        properties.setProperty("api.environment.installed", "https://gateway.example/api/esmd/v1");
+
+        try {
+            // When
+            EsmdConfig installed = EsmdConfig.install(properties);
+            properties.setProperty("api.environment.installed", "https://elsewhere.example");
+
+            // Then
+            assertThat(EsmdConfig.get()).isSameAs(installed);
+            assertThat(PropertiesUtils.loadProperties().getProperty("api.environment.installed"))
+                    .isEqualTo("https://gateway.example/api/esmd/v1");
+            assertThatThrownBy(() -> PropertiesUtils.loadProperties().setProperty("api.environment.installed", "x"))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> PropertiesUtils.loadProperties().keySet().clear())
+                    .isInstanceOf(UnsupportedOperationException.class);
+        } finally {
+            EsmdConfig.reload();
+        }
+    }
+}
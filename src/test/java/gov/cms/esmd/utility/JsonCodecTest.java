@@ -0,0 +1,93 @@
+package gov.cms.esmd.utility;
+
+import com.google.gson.Gson;
+import gov.cms.esmd.bean.ErrorMessage;
+import gov.cms.esmd.bean.adminerror.Notification;
+import gov.cms.esmd.bean.response.DownloadObject;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.PickupNotification;
+import gov.cms.esmd.bean.response.StatusDetail;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for JsonCodec class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class JsonCodecTest {
+
+    private static PickupNotification pickup() {
+        Notification notification = new Notification();
+        notification.setEsMDTransactionId("TXN1");
+        notification.setFilename("PT9993.D.L1.zip");
+        notification.setStatus("SUCCESS");
+        notification.setErrorMessages(new ArrayList<>(Collections.singletonList(
+                new ErrorMessage("E01", "Error", "Checksum <mismatch> & retry"))));
+        PickupNotification pickup = new PickupNotification();
+        pickup.setNotificationType("PICKUP");
+        pickup.setSenderRoutingId("PT9993");
+        pickup.setNotification(new ArrayList<>(Collections.singletonList(notification)));
+        return pickup;
+    }
+
+    @Test
+    void testToJson_WithHotBeans_ShouldMatchReflectiveGsonOutput() {
+        // Given
+        StatusDetail detail = new StatusDetail(new ArrayList<>());
+        detail.setEsMDTransactionID("TXN1");
+        detail.setStatusDescription("Delivered");
+        NotificationResponse response = new NotificationResponse();
+        response.setMessage("ok");
+        response.setStatusDetails(new ArrayList<>(Collections.singletonList(detail)));
+        DownloadObject file = new DownloadObject();
+        file.setFilename("a.zip");
+        file.setSize("42");
+
+        // When / Then
+        Gson reflective = new Gson();
+        assertThat(JsonCodec.toJson(pickup())).isEqualTo(reflective.toJson(pickup()));
+        assertThat(JsonCodec.toJson(response)).isEqualTo(reflective.toJson(response));
+        assertThat(JsonCodec.toJson(file)).isEqualTo(reflective.toJson(file));
+    }
+
+    @Test
+    void testFromJson_WithMissingFields_ShouldLeaveThemNull() {
+        // Given
+        String json = "{\"statusDetails\":[{\"esMDTransactionId\":\"TXN1\",\"unknown\":{\"a\":[1,2]},\"uniqueId\":7}]}";
+
+        // When
+        NotificationResponse response = JsonCodec.fromJson(json, NotificationResponse.class);
+
+        // Then
+        StatusDetail detail = response.getStatusDetails().get(0);
+        assertThat(detail.getEsMDTransactionID()).isEqualTo("TXN1");
+        assertThat(detail.getUniqueId()).isEqualTo("7");
+        assertThat(detail.getStatus()).isNull();
+        assertThat(detail.getErrorMessages()).isNull();
+    }
+
+    @Test
+    void testToJson_WithOutputStream_ShouldRoundTrip() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        JsonCodec.toJson(pickup(), out);
+        PickupNotification read = JsonCodec.fromJson(new ByteArrayInputStream(out.toByteArray()), PickupNotification.class);
+
+        // Then
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(JsonCodec.toJson(pickup()));
+        assertThat(read.getNotification().get(0).getErrorMessages().get(0).getErrorDescription())
+                .isEqualTo("Checksum <mismatch> & retry");
+    }
+}
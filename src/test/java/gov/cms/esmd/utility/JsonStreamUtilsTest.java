@@ -0,0 +1,80 @@
+package gov.cms.esmd.utility;
+
+import com.google.gson.Gson;
+import gov.cms.esmd.bean.response.DownloadObject;
+import gov.cms.esmd.bean.response.DownloadResponse;
+import gov.cms.esmd.bean.response.NotificationResponse;
+import gov.cms.esmd.bean.response.StatusDetail;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for JsonStreamUtils class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class JsonStreamUtilsTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    void testReadEnvelope_WithStatusDetails_ShouldStreamEachDetailAndBindOtherFields() throws Exception {
+        // Given
+        StringEntity entity = new StringEntity("{\"message\":\"ok\",\"statusDetails\":["
+                + "{\"esMDTransactionId\":\"TXN1\",\"status\":\"SUCCESS\"},"
+                + "{\"esMDTransactionId\":\"TXN2\",\"status\":\"FAILED\"}],"
+                + "\"senderRoutingId\":\"PT9993\"}", ContentType.APPLICATION_JSON);
+        List<StatusDetail> received = new ArrayList<>();
+
+        // When
+        NotificationResponse envelope = JsonStreamUtils.readEnvelope(entity, NotificationResponse.class,
+                "statusDetails", StatusDetail.class, gson, received::add);
+
+        // Then
+        assertThat(received).extracting("esMDTransactionId").containsExactly("TXN1", "TXN2");
+        assertThat(received).extracting("status").containsExactly("SUCCESS", "FAILED");
+        assertThat(envelope.getMessage()).isEqualTo("ok");
+        assertThat(envelope.getSenderRoutingId()).isEqualTo("PT9993");
+        assertThat(envelope.getStatusDetails()).isNull();
+    }
+
+    @Test
+    void testRead_WithDownloadListing_ShouldBindWholeBody() throws Exception {
+        // Given
+        StringEntity entity = new StringEntity("{\"status\":\"SUCCESS\",\"objects\":[{\"filename\":\"a.zip\"}]}",
+                ContentType.APPLICATION_JSON);
+
+        // When
+        DownloadResponse response = JsonStreamUtils.read(entity, DownloadResponse.class, gson);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo("SUCCESS");
+        assertThat(response.getObjects()).extracting(DownloadObject::getFilename).containsExactly("a.zip");
+    }
+
+    @Test
+    void testSnippet_WithLongBody_ShouldReturnBoundedPrefix() {
+        // Given
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            body.append('x');
+        }
+        StringEntity entity = new StringEntity(body.toString(), ContentType.APPLICATION_JSON);
+
+        // When
+        String snippet = JsonStreamUtils.snippet(entity, 100);
+
+        // Then
+        assertThat(snippet).startsWith("xxxx").endsWith("...(truncated)");
+        assertThat(snippet).hasSize(100 + "...(truncated)".length());
+        assertThat(JsonStreamUtils.snippet(null, 100)).isEmpty();
+    }
+}
@@ -0,0 +1,64 @@
+package gov.cms.esmd.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimiter class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class RateLimiterTest {
+
+    @Test
+    void testTryAcquire_WhenRateExceeded_ShouldRejectUntilNextSlot() {
+        // Given
+        AtomicLong now = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(10, now::get);
+
+        // When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        boolean third = limiter.tryAcquire();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(third).isTrue();
+    }
+
+    @Test
+    void testTryAcquire_AfterIdlePeriod_ShouldAllowBurstOfStoredPermits() {
+        // Given
+        AtomicLong now = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(5, now::get);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // When
+        int granted = 0;
+        while (limiter.tryAcquire()) {
+            granted++;
+        }
+
+        // Then
+        assertThat(granted).isEqualTo(6);
+    }
+
+    @Test
+    void testTryAcquire_WithZeroRate_ShouldNeverLimit() {
+        // Given
+        RateLimiter limiter = new RateLimiter(0, () -> 0L);
+
+        // When / Then
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package gov.cms.esmd.utility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ZipUtils class.
+ *
+ * @author esMD Team
+ * @version 1.0
+ * @since 1.0
+ */
+class ZipUtilsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                out.putNextEntry(new ZipEntry(namesAndContents[i]));
+                out.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testExtract_FromStream_ShouldWriteAllEntries() throws Exception {
+        // Given
+        byte[] archive = zip("doc1.pdf", "first", "nested/doc2.xml", "<second/>");
+        Path target = tempDir.resolve("out");
+
+        // When
+        int files = ZipUtils.extract(new ByteArrayInputStream(archive), target);
+
+        // Then
+        assertThat(files).isEqualTo(2);
+        assertThat(target.resolve("doc1.pdf")).hasContent("first");
+        assertThat(target.resolve("nested/doc2.xml")).hasContent("<second/>");
+    }
+
+    @Test
+    void testExtract_WithZipSlipEntry_ShouldSkipEntry() throws Exception {
+        // Given
+        byte[] archive = zip("../evil.txt", "escaped", "safe.txt", "kept");
+        Path target = tempDir.resolve("out");
+        Path zipFile = Files.write(tempDir.resolve("package.zip"), archive);
+
+        // When
+        int files = ZipUtils.extract(zipFile, target);
+
+        // Then
+        assertThat(files).isEqualTo(1);
+        assertThat(target.resolve("safe.txt")).hasContent("kept");
+        assertThat(tempDir.resolve("evil.txt")).doesNotExist();
+    }
+
+    @Test
+    void testExtractParallel_ShouldReportEntryCountAndTotalBytes() throws Exception {
+        // Given
+        byte[] archive = zip("a.pdf", "aaaa", "b.tif", "bbbbbb", "dir/c.xml", "<c/>", "../evil.txt", "escaped");
+        Path zipFile = Files.write(tempDir.resolve("package.zip"), archive);
+        Path target = tempDir.resolve("out");
+
+        // When
+        ZipUtils.ExtractionResult result = ZipUtils.extractParallel(zipFile, target, 3);
+
+        // Then
+        assertThat(result.getEntryCount()).isEqualTo(3);
+        assertThat(result.getTotalBytes()).isEqualTo(14);
+        assertThat(target.resolve("b.tif")).hasContent("bbbbbb");
+        assertThat(target.resolve("dir/c.xml")).hasContent("<c/>");
+        assertThat(tempDir.resolve("evil.txt")).doesNotExist();
+    }
+}